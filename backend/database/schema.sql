@@ -26,6 +26,10 @@ CREATE TABLE IF NOT EXISTS `users` (
 -- ====================================
 -- 2. 剧本表 (scripts)
 -- ====================================
+-- 全文索引 ft_search 使用 ngram 分词,默认停用词表会丢弃含 a / i / is 等停用词的二元组,
+-- 建表(及以后重建该索引)前须在本会话关闭停用词
+SET SESSION innodb_ft_enable_stopword = OFF;
+
 CREATE TABLE IF NOT EXISTS `scripts` (
   `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT COMMENT '主键ID',
   `script_id` VARCHAR(50) NOT NULL COMMENT '剧本编号',
@@ -52,8 +56,10 @@ CREATE TABLE IF NOT EXISTS `scripts` (
   `submit_date` DATE DEFAULT NULL COMMENT '提交日期',
   `avg_score` DECIMAL(5,2) DEFAULT 0.00 COMMENT '平均综合评分',
   `rating_count` INT DEFAULT 0 COMMENT '评分人数',
+  `score_sum` DECIMAL(12,2) NOT NULL DEFAULT 0.00 COMMENT '综合评分总和(应用增量维护)',
   `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  `version` INT NOT NULL DEFAULT 0 COMMENT '乐观锁版本号',
   PRIMARY KEY (`id`),
   UNIQUE KEY `uk_script_id` (`script_id`),
   KEY `idx_name` (`name`),
@@ -66,7 +72,9 @@ CREATE TABLE IF NOT EXISTS `scripts` (
   KEY `idx_producer` (`producer`),
   KEY `idx_submit_date` (`submit_date`),
   KEY `idx_avg_score` (`avg_score`),
-  KEY `idx_rating_count` (`rating_count`)
+  KEY `idx_rating_count` (`rating_count`),
+  KEY `idx_created_at` (`created_at`),
+  FULLTEXT KEY `ft_search` (`name`, `script_id`, `writer`) WITH PARSER ngram
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='剧本表';
 
 -- ====================================
@@ -87,8 +95,8 @@ CREATE TABLE IF NOT EXISTS `ratings` (
   `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
-  KEY `idx_script_id` (`script_id`),
-  KEY `idx_user_id` (`user_id`),
+  KEY `idx_script_date` (`script_id`, `rating_date`, `id`, `user_role`, `total_score`),
+  KEY `idx_user_date` (`user_id`, `rating_date`, `id`, `user_role`, `total_score`),
   KEY `idx_rating_date` (`rating_date`),
   KEY `idx_total_score` (`total_score`),
   CONSTRAINT `fk_ratings_script` FOREIGN KEY (`script_id`) REFERENCES `scripts` (`id`) ON DELETE CASCADE,
@@ -96,60 +104,11 @@ CREATE TABLE IF NOT EXISTS `ratings` (
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='评分记录表';
 
 -- ====================================
--- 4. 创建触发器: 评分后自动更新剧本平均分
+-- 4. 评分聚合
 -- ====================================
-DELIMITER $$
-
-CREATE TRIGGER `trg_after_rating_insert` 
-AFTER INSERT ON `ratings`
-FOR EACH ROW
-BEGIN
-  UPDATE `scripts` 
-  SET 
-    `avg_score` = (
-      SELECT AVG(`total_score`) 
-      FROM `ratings` 
-      WHERE `script_id` = NEW.`script_id`
-    ),
-    `rating_count` = (
-      SELECT COUNT(*) 
-      FROM `ratings` 
-      WHERE `script_id` = NEW.`script_id`
-    )
-  WHERE `id` = NEW.`script_id`;
-END$$
-
-CREATE TRIGGER `trg_after_rating_update` 
-AFTER UPDATE ON `ratings`
-FOR EACH ROW
-BEGIN
-  UPDATE `scripts` 
-  SET 
-    `avg_score` = (
-      SELECT AVG(`total_score`) 
-      FROM `ratings` 
-      WHERE `script_id` = NEW.`script_id`
-    )
-  WHERE `id` = NEW.`script_id`;
-END$$
-
-CREATE TRIGGER `trg_after_rating_delete` 
-AFTER DELETE ON `ratings`
-FOR EACH ROW
-BEGIN
-  UPDATE `scripts` 
-  SET 
-    `avg_score` = COALESCE((
-      SELECT AVG(`total_score`) 
-      FROM `ratings` 
-      WHERE `script_id` = OLD.`script_id`
-    ), 0.00),
-    `rating_count` = (
-      SELECT COUNT(*) 
-      FROM `ratings` 
-      WHERE `script_id` = OLD.`script_id`
-    )
-  WHERE `id` = OLD.`script_id`;
-END$$
-
-DELIMITER ;
+-- scripts.score_sum / rating_count / avg_score 由应用在评分写入的同一事务中按增量维护
+-- (RatingAggregateService),并由后台任务定期与 ratings 表对账。
+-- 原先每次写入都重新 AVG/COUNT 全部评分的触发器已停用。
+DROP TRIGGER IF EXISTS `trg_after_rating_insert`;
+DROP TRIGGER IF EXISTS `trg_after_rating_update`;
+DROP TRIGGER IF EXISTS `trg_after_rating_delete`;
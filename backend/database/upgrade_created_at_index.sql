@@ -0,0 +1,11 @@
+-- ====================================
+-- 剧本列表默认排序索引(已有数据库升级脚本)
+-- 创建日期: 2026-10-18
+-- ====================================
+
+USE `deepdrama`;
+
+-- 剧本列表默认按 (created_at, id) 倒序 keyset 分页,
+-- InnoDB 二级索引隐含主键 id,按此索引顺序读取即可,不再对全表排序。
+ALTER TABLE `scripts`
+  ADD KEY `idx_created_at` (`created_at`);
@@ -0,0 +1,20 @@
+-- ====================================
+-- 剧本关键词全文检索索引(已有数据库升级脚本)
+-- 创建日期: 2026-10-18
+-- ====================================
+
+USE `deepdrama`;
+
+-- 关键词检索原为三列 LIKE '%关键词%',前置通配符无法使用索引。
+-- ngram 分词(默认 ngram_token_size=2)支持中文按二元组检索,需 MySQL 5.7.6+。
+--
+-- InnoDB 默认停用词表(a、i、is、the 等)对 ngram 同样生效: 包含停用词的二元组不入索引,
+-- 检索 "is"、"ai" 这类关键词会漏掉结果。停用词在建索引时确定,因此先在本会话关闭:
+--   * 以后重建该索引(DROP 后重新 ADD、ALTER TABLE ... FORCE 等)前同样需要执行这条 SET,
+--     也可在 my.cnf 中配置 innodb_ft_enable_stopword = OFF 使其对所有会话生效;
+--   * 已按旧版本脚本建过索引的库,先执行 ALTER TABLE `scripts` DROP KEY `ft_search`; 再运行本脚本。
+-- 短于 ngram_token_size 的关键词无法用全文索引匹配,由应用回退为 LIKE。
+SET SESSION innodb_ft_enable_stopword = OFF;
+
+ALTER TABLE `scripts`
+  ADD FULLTEXT KEY `ft_search` (`name`, `script_id`, `writer`) WITH PARSER ngram;
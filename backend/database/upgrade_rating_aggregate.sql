@@ -0,0 +1,27 @@
+-- ====================================
+-- 评分聚合改为应用增量维护(已有数据库升级脚本)
+-- 创建日期: 2026-10-18
+-- ====================================
+
+USE `deepdrama`;
+
+-- 1. 停用全量重算触发器
+DROP TRIGGER IF EXISTS `trg_after_rating_insert`;
+DROP TRIGGER IF EXISTS `trg_after_rating_update`;
+DROP TRIGGER IF EXISTS `trg_after_rating_delete`;
+
+-- 2. 新增评分总和字段
+ALTER TABLE `scripts`
+  ADD COLUMN `score_sum` DECIMAL(12,2) NOT NULL DEFAULT 0.00 COMMENT '综合评分总和(应用增量维护)' AFTER `rating_count`;
+
+-- 3. 回填聚合字段
+UPDATE `scripts` s
+LEFT JOIN (
+  SELECT `script_id`, COUNT(*) AS cnt, COALESCE(SUM(`total_score`), 0) AS total
+  FROM `ratings`
+  GROUP BY `script_id`
+) r ON r.`script_id` = s.`id`
+SET
+  s.`score_sum` = COALESCE(r.total, 0),
+  s.`rating_count` = COALESCE(r.cnt, 0),
+  s.`avg_score` = CASE WHEN COALESCE(r.cnt, 0) > 0 THEN ROUND(r.total / r.cnt, 2) ELSE 0 END;
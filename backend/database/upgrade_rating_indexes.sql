@@ -0,0 +1,17 @@
+-- ====================================
+-- 评分记录分页查询覆盖索引(已有数据库升级脚本)
+-- 创建日期: 2026-10-18
+-- ====================================
+
+USE `deepdrama`;
+
+-- 按剧本/按用户的评分历史按 (rating_date, id) keyset 分页,
+-- 索引包含 user_role、total_score 筛选列,查询ID阶段只访问索引。
+-- 新索引以 script_id / user_id 开头,可替代原外键索引。
+ALTER TABLE `ratings`
+  ADD KEY `idx_script_date` (`script_id`, `rating_date`, `id`, `user_role`, `total_score`),
+  ADD KEY `idx_user_date` (`user_id`, `rating_date`, `id`, `user_role`, `total_score`);
+
+ALTER TABLE `ratings`
+  DROP KEY `idx_script_id`,
+  DROP KEY `idx_user_id`;
@@ -0,0 +1,9 @@
+-- ====================================
+-- 剧本部分更新乐观锁版本号(已有数据库升级脚本)
+-- 创建日期: 2026-10-18
+-- ====================================
+
+USE `deepdrama`;
+
+ALTER TABLE `scripts`
+  ADD COLUMN `version` INT NOT NULL DEFAULT 0 COMMENT '乐观锁版本号' AFTER `updated_at`;
@@ -0,0 +1,98 @@
+package com.deepdrama.benchmark;
+
+import com.deepdrama.ScoreSystemApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 基准测试环境: 内嵌H2(MySQL模式)数据库 + 完整Spring上下文(不启动Web容器)
+ *
+ * 数据在上下文启动前写入,使启动时构建的选项索引、统计汇总和排行榜包含全部数据。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public final class BenchmarkFixture {
+
+    private BenchmarkFixture() {}
+
+    /**
+     * 生成指定数量剧本的数据库并启动上下文
+     */
+    public static ConfigurableApplicationContext start(int scripts) {
+        String url = "jdbc:h2:mem:bench" + System.nanoTime()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            execute(connection, "bench-schema.sql", scripts);
+            execute(connection, "bench-data.sql", scripts);
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("初始化基准测试数据失败", e);
+        }
+
+        // 命令行参数优先级高于 application.yml
+        return new SpringApplicationBuilder(ScoreSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--mybatis.configuration.log-impl=org.apache.ibatis.logging.nologging.NoLoggingImpl",
+                        // H2不接受负数fetchSize(MySQL流式读取用的 Integer.MIN_VALUE)
+                        "--mybatis.configuration-properties.scanFetchSize=1000",
+                        "--logging.level.root=warn",
+                        "--logging.level.com.deepdrama=warn",
+                        "--logging.level.com.deepdrama.mapper=warn");
+    }
+
+    /**
+     * 关闭上下文并释放内存数据库
+     */
+    public static void stop(ConfigurableApplicationContext context) {
+        if (context == null) {
+            return;
+        }
+        String url = context.getEnvironment().getProperty("spring.datasource.url");
+        context.close();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        } catch (SQLException ignored) {
+            // 数据库已关闭
+        }
+    }
+
+    private static void execute(Connection connection, String resource, int scripts)
+            throws IOException, SQLException {
+        String sql;
+        try (InputStream in = BenchmarkFixture.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("找不到 " + resource);
+            }
+            sql = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        }
+        StringBuilder body = new StringBuilder();
+        for (String line : sql.split("\n")) {
+            if (!line.trim().startsWith("--")) {
+                body.append(line).append('\n');
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String part : body.toString().replace("${scripts}", String.valueOf(scripts)).split(";")) {
+                if (!part.trim().isEmpty()) {
+                    statement.execute(part);
+                }
+            }
+        }
+    }
+}
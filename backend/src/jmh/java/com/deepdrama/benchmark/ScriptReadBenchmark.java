@@ -0,0 +1,115 @@
+package com.deepdrama.benchmark;
+
+import com.deepdrama.common.PageResult;
+import com.deepdrama.entity.Script;
+import com.deepdrama.mapper.ScriptMapper;
+import com.deepdrama.query.ScriptQuery;
+import com.deepdrama.service.ScriptService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 读路径基准: 列表、详情、排行榜、筛选选项
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class ScriptReadBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int scripts;
+
+    private ConfigurableApplicationContext context;
+    private ScriptService scriptService;
+    private ScriptMapper scriptMapper;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkFixture.start(scripts);
+        scriptService = context.getBean(ScriptService.class);
+        scriptMapper = context.getBean(ScriptMapper.class);
+        // 预先加载内存索引
+        scriptService.getOptions();
+        scriptService.getRankings(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFixture.stop(context);
+    }
+
+    @Benchmark
+    public PageResult<Script> listFirstPage() {
+        ScriptQuery query = new ScriptQuery();
+        query.setLimit(20);
+        query.setSortBy("avgScore");
+        return scriptService.getScriptList(query);
+    }
+
+    @Benchmark
+    public PageResult<?> listFilteredSummary() {
+        ScriptQuery query = new ScriptQuery();
+        query.setLimit(20);
+        query.setStatuses(Collections.singletonList("终稿"));
+        query.setContentTeam("内容3组");
+        query.setFields("summary");
+        return scriptService.getScriptSummaryList(query);
+    }
+
+    @Benchmark
+    public PageResult<Script> listDeepOffset() {
+        ScriptQuery query = new ScriptQuery();
+        query.setPage(200);
+        query.setLimit(20);
+        query.setWithTotal(false);
+        return scriptService.getScriptList(query);
+    }
+
+    @Benchmark
+    public Script detail() {
+        return scriptService.getScriptById(randomId());
+    }
+
+    @Benchmark
+    public Script detailUncached() {
+        return scriptMapper.selectById(randomId());
+    }
+
+    @Benchmark
+    public List<Script> rankings() {
+        return scriptService.getRankings(50);
+    }
+
+    @Benchmark
+    public Map<String, List<String>> options() {
+        return scriptService.getOptions();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, scripts + 1);
+    }
+}
@@ -0,0 +1,130 @@
+package com.deepdrama.benchmark;
+
+import com.alibaba.fastjson.JSONObject;
+import com.deepdrama.common.ScriptBinder;
+import com.deepdrama.dto.ScriptPayload;
+import com.deepdrama.entity.Rating;
+import com.deepdrama.entity.Script;
+import com.deepdrama.service.RatingService;
+import com.deepdrama.service.ScriptService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 写路径基准: 新增、整行更新、部分更新、评分
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class ScriptWriteBenchmark {
+
+    private static final String[] ASSIGN_STATUSES = {"待分配", "待认领", "已认领"};
+
+    @Param({"10000", "100000", "1000000"})
+    private int scripts;
+
+    private ConfigurableApplicationContext context;
+    private ScriptService scriptService;
+    private RatingService ratingService;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkFixture.start(scripts);
+        scriptService = context.getBean(ScriptService.class);
+        ratingService = context.getBean(RatingService.class);
+        scriptService.getOptions();
+        scriptService.getRankings(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFixture.stop(context);
+    }
+
+    @Benchmark
+    public Script createScript() {
+        return scriptService.createScript(scriptParams("NEW-" + sequence.incrementAndGet()));
+    }
+
+    @Benchmark
+    public Script updateScript() {
+        return scriptService.updateScript(randomId(), scriptParams(null));
+    }
+
+    @Benchmark
+    public boolean patchAssignStatus() {
+        JSONObject params = new JSONObject();
+        params.put("assignStatus", ASSIGN_STATUSES[ThreadLocalRandom.current().nextInt(ASSIGN_STATUSES.length)]);
+        return scriptService.patchScript(randomId(), ScriptBinder.parse(params.toJSONString()));
+    }
+
+    @Benchmark
+    public Rating createRating() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        JSONObject params = new JSONObject();
+        params.put("scriptId", randomId());
+        params.put("userId", random.nextLong(1, 101));
+        params.put("userRole", "内容");
+        params.put("contentScore", random.nextInt(101));
+        params.put("marketScore", random.nextInt(101));
+        params.put("complianceScore", random.nextInt(101));
+        params.put("commercialScore", random.nextInt(101));
+        return ratingService.createRating(params);
+    }
+
+    private ScriptPayload scriptParams(String scriptId) {
+        JSONObject params = new JSONObject();
+        if (scriptId != null) {
+            params.put("scriptId", scriptId);
+        }
+        params.put("name", "基准测试剧本");
+        params.put("preview", "剧情简介");
+        params.put("fileUrl", "https://example.com/script.docx");
+        params.put("tags", "[\"悬疑\"]");
+        params.put("sourceType", "外部投稿");
+        params.put("team", "团队1");
+        params.put("status", "改稿中");
+        params.put("genre", "女频");
+        params.put("contentType", "付费");
+        params.put("isProject", 0);
+        params.put("projectOwner", null);
+        params.put("projectName", null);
+        params.put("remarks", "备注");
+        params.put("submitUser", "提交人1");
+        params.put("writer", "编剧1");
+        params.put("contentTeam", "内容1组");
+        params.put("producer", "制片1");
+        params.put("producerTeam", "制片1组");
+        params.put("feishuUrl", "https://example.com/doc");
+        params.put("assignStatus", "待认领");
+        params.put("submitDate", "2026-10-01");
+        return ScriptBinder.parse(params.toJSONString());
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, scripts + 1);
+    }
+}
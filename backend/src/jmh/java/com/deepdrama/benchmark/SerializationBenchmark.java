@@ -0,0 +1,112 @@
+package com.deepdrama.benchmark;
+
+import com.alibaba.fastjson.JSONObject;
+import com.deepdrama.common.PageResult;
+import com.deepdrama.common.Result;
+import com.deepdrama.dto.ScriptPayload;
+import com.deepdrama.entity.Script;
+import com.deepdrama.query.ScriptQuery;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 序列化基准: 请求体绑定(ScriptQuery / JSONObject / ScriptPayload)与响应序列化(Result + PageResult)
+ *
+ * ObjectMapper 配置与 application.yml 中的 spring.jackson 一致,不需要数据库。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final String QUERY_JSON = "{\"page\":3,\"limit\":20,\"tab\":\"pending\","
+            + "\"statuses\":[\"一卡初稿\",\"改稿中\"],\"sourceType\":\"外部投稿\",\"contentTeam\":\"内容3组\","
+            + "\"startDate\":\"2026-01-01\",\"endDate\":\"2026-10-01\",\"minScore\":60,"
+            + "\"sortBy\":\"avgScore\",\"sortOrder\":\"desc\"}";
+
+    private static final String SCRIPT_JSON = "{\"scriptId\":\"JP-0001\",\"name\":\"基准测试剧本\","
+            + "\"preview\":\"剧情简介\",\"tags\":\"[\\\"悬疑\\\"]\",\"sourceType\":\"外部投稿\",\"team\":\"团队1\","
+            + "\"status\":\"改稿中\",\"genre\":\"女频\",\"contentType\":\"付费\",\"isProject\":0,"
+            + "\"remarks\":\"备注\",\"submitUser\":\"提交人1\",\"writer\":\"编剧1\",\"contentTeam\":\"内容1组\","
+            + "\"producer\":\"制片1\",\"producerTeam\":\"制片1组\",\"assignStatus\":\"待认领\","
+            + "\"submitDate\":\"2026-10-01\"}";
+
+    private ObjectMapper objectMapper;
+    private Result<PageResult<Script>> page;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .dateFormat(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"))
+                .timeZone(TimeZone.getTimeZone("GMT+8"))
+                .build();
+
+        List<Script> list = new ArrayList<>();
+        for (long i = 1; i <= 20; i++) {
+            Script script = new Script();
+            script.setId(i);
+            script.setScriptId("JP-" + i);
+            script.setName("剧本" + i);
+            script.setPreview("剧情简介剧情简介剧情简介剧情简介");
+            script.setTags("[\"悬疑\",\"都市\"]");
+            script.setSourceType("外部投稿");
+            script.setStatus("改稿中");
+            script.setGenre("女频");
+            script.setWriter("编剧" + i);
+            script.setContentTeam("内容1组");
+            script.setAssignStatus("待认领");
+            script.setSubmitDate(LocalDate.now());
+            script.setAvgScore(new BigDecimal("85.50"));
+            script.setRatingCount(4);
+            script.setCreatedAt(LocalDateTime.now());
+            script.setUpdatedAt(LocalDateTime.now());
+            list.add(script);
+        }
+        page = Result.success(PageResult.of(1000L, 1, 20, list));
+    }
+
+    @Benchmark
+    public ScriptQuery bindScriptQuery() throws Exception {
+        return objectMapper.readValue(QUERY_JSON, ScriptQuery.class);
+    }
+
+    @Benchmark
+    public JSONObject bindScriptParams() throws Exception {
+        return objectMapper.readValue(SCRIPT_JSON, JSONObject.class);
+    }
+
+    @Benchmark
+    public ScriptPayload bindScriptPayload() throws Exception {
+        return objectMapper.readValue(SCRIPT_JSON, ScriptPayload.class);
+    }
+
+    @Benchmark
+    public byte[] writePageResult() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
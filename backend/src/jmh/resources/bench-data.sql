@@ -0,0 +1,38 @@
+-- 基准测试数据: ${scripts} 个剧本,取值分布固定,可重复生成
+INSERT INTO users (user_id, name, role_type)
+SELECT CONCAT('U', n), CONCAT('用户', n),
+       CASE MOD(n, 4) WHEN 0 THEN '内容' WHEN 1 THEN '制片' WHEN 2 THEN '商务' ELSE '策略' END
+FROM (SELECT "X" AS n FROM SYSTEM_RANGE(1, 100)) r;
+
+INSERT INTO scripts (
+  script_id, name, preview, tags, source_type, team, status, genre, content_type, is_project,
+  project_owner, project_name, remarks, submit_user, writer, content_team, producer, producer_team,
+  assign_status, submit_date, avg_score, rating_count, score_sum, created_at, updated_at
+)
+SELECT
+  CONCAT('BENCH-', n),
+  CONCAT('剧本', n),
+  REPEAT('剧情简介', 40),
+  '["悬疑","都市"]',
+  CASE MOD(n, 4) WHEN 0 THEN '外部投稿' WHEN 1 THEN '内部团队' WHEN 2 THEN '合作剧组' ELSE '版权购买' END,
+  CONCAT('团队', MOD(n, 10)),
+  CASE MOD(n, 5) WHEN 0 THEN '一卡初稿' WHEN 1 THEN '改稿中' WHEN 2 THEN '完整剧本' WHEN 3 THEN '终稿' ELSE '已废弃' END,
+  CASE MOD(n, 3) WHEN 0 THEN '男频' WHEN 1 THEN '女频' ELSE '皆可' END,
+  CASE MOD(n, 2) WHEN 0 THEN '付费' ELSE '免费' END,
+  CASE WHEN MOD(n, 10) = 0 THEN 1 ELSE 0 END,
+  CASE WHEN MOD(n, 10) = 0 THEN CONCAT('项目组', MOD(n, 7)) END,
+  CASE WHEN MOD(n, 10) = 0 THEN CONCAT('项目', n) END,
+  REPEAT('备注', 20),
+  CONCAT('提交人', MOD(n, 50)),
+  CONCAT('编剧', MOD(n, 500)),
+  CONCAT('内容', MOD(n, 20), '组'),
+  CONCAT('制片', MOD(n, 100)),
+  CONCAT('制片', MOD(n, 8), '组'),
+  CASE MOD(n, 3) WHEN 0 THEN '待分配' WHEN 1 THEN '待认领' ELSE '已认领' END,
+  DATEADD('DAY', -MOD(n, 730), DATE '2026-10-01'),
+  CASE WHEN MOD(n, 5) = 0 THEN 0 ELSE MOD(n * 7919, 10001) / 100.0 END,
+  MOD(n, 5),
+  CASE WHEN MOD(n, 5) = 0 THEN 0 ELSE MOD(n * 7919, 10001) / 100.0 * MOD(n, 5) END,
+  DATEADD('SECOND', n, TIMESTAMP '2024-01-01 00:00:00'),
+  DATEADD('SECOND', n, TIMESTAMP '2024-01-01 00:00:00')
+FROM (SELECT "X" AS n FROM SYSTEM_RANGE(1, ${scripts})) r;
@@ -0,0 +1,81 @@
+-- 基准测试用表结构: 与 database/schema.sql 的列和普通索引保持一致,
+-- 去掉H2不支持的 ENGINE/COMMENT/ON UPDATE/FULLTEXT 及触发器
+CREATE TABLE users (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  user_id VARCHAR(50) NOT NULL,
+  name VARCHAR(100) NOT NULL,
+  role_type VARCHAR(50) DEFAULT NULL,
+  created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+  updated_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (id),
+  UNIQUE KEY uk_user_id (user_id)
+);
+
+CREATE TABLE scripts (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  script_id VARCHAR(50) NOT NULL,
+  name VARCHAR(200) NOT NULL,
+  preview TEXT,
+  file_url VARCHAR(500) DEFAULT NULL,
+  tags VARCHAR(200) DEFAULT NULL,
+  source_type VARCHAR(50) DEFAULT NULL,
+  team VARCHAR(100) DEFAULT NULL,
+  status VARCHAR(50) DEFAULT '一卡初稿',
+  genre VARCHAR(50) DEFAULT NULL,
+  content_type VARCHAR(50) DEFAULT NULL,
+  is_project TINYINT DEFAULT 0,
+  project_owner VARCHAR(100) DEFAULT NULL,
+  project_name VARCHAR(200) DEFAULT NULL,
+  remarks TEXT,
+  submit_user VARCHAR(100) DEFAULT NULL,
+  writer VARCHAR(100) DEFAULT NULL,
+  content_team VARCHAR(100) DEFAULT NULL,
+  producer VARCHAR(100) DEFAULT NULL,
+  producer_team VARCHAR(100) DEFAULT NULL,
+  feishu_url VARCHAR(500) DEFAULT NULL,
+  assign_status VARCHAR(50) DEFAULT '待分配',
+  submit_date DATE DEFAULT NULL,
+  avg_score DECIMAL(5,2) DEFAULT 0.00,
+  rating_count INT DEFAULT 0,
+  score_sum DECIMAL(12,2) NOT NULL DEFAULT 0.00,
+  created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+  updated_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+  version INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (id),
+  UNIQUE KEY uk_script_id (script_id)
+);
+CREATE INDEX idx_name ON scripts (name);
+CREATE INDEX idx_status ON scripts (status);
+CREATE INDEX idx_source_type ON scripts (source_type);
+CREATE INDEX idx_genre ON scripts (genre);
+CREATE INDEX idx_is_project ON scripts (is_project);
+CREATE INDEX idx_writer ON scripts (writer);
+CREATE INDEX idx_content_team ON scripts (content_team);
+CREATE INDEX idx_producer ON scripts (producer);
+CREATE INDEX idx_submit_date ON scripts (submit_date);
+CREATE INDEX idx_avg_score ON scripts (avg_score);
+CREATE INDEX idx_rating_count ON scripts (rating_count);
+CREATE INDEX idx_created_at ON scripts (created_at);
+
+CREATE TABLE ratings (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  script_id BIGINT NOT NULL,
+  user_id BIGINT NOT NULL,
+  user_role VARCHAR(50) DEFAULT NULL,
+  content_score DECIMAL(5,2) DEFAULT NULL,
+  market_score DECIMAL(5,2) DEFAULT NULL,
+  compliance_score DECIMAL(5,2) DEFAULT NULL,
+  commercial_score DECIMAL(5,2) DEFAULT NULL,
+  total_score DECIMAL(5,2) DEFAULT NULL,
+  comments TEXT,
+  rating_date DATETIME DEFAULT CURRENT_TIMESTAMP,
+  created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+  updated_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (id),
+  CONSTRAINT fk_ratings_script FOREIGN KEY (script_id) REFERENCES scripts (id) ON DELETE CASCADE,
+  CONSTRAINT fk_ratings_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+CREATE INDEX idx_script_date ON ratings (script_id, rating_date, id, user_role, total_score);
+CREATE INDEX idx_user_date ON ratings (user_id, rating_date, id, user_role, total_score);
+CREATE INDEX idx_rating_date ON ratings (rating_date);
+CREATE INDEX idx_total_score ON ratings (total_score);
@@ -3,6 +3,7 @@ package com.deepdrama;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 短剧评分系统启动类
@@ -12,6 +13,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  */
 @SpringBootApplication
 @MapperScan("com.deepdrama.mapper")
+@EnableScheduling
 public class ScoreSystemApplication {
     public static void main(String[] args) {
         SpringApplication.run(ScoreSystemApplication.class, args);
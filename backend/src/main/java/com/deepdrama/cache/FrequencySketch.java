@@ -0,0 +1,88 @@
+package com.deepdrama.cache;
+
+/**
+ * 访问频率估计(Count-Min Sketch,4行4位计数器)
+ *
+ * 每个键在4行中各占一个计数器,估计值取最小者,只会高估不会低估。
+ * 计数器上限15;累计记录次数达到样本量后所有计数器减半,使旧的热点逐渐衰减。
+ * 非线程安全,由调用方加锁。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0x97cb3127L, 0xb8f9f2f3L, 0xd1b54a32L, 0x9e3779b9L};
+
+    // 每个long存16个4位计数器
+    private final long[][] rows = new long[SEEDS.length][];
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * @param capacity 缓存预计容纳的条目数
+     */
+    FrequencySketch(int capacity) {
+        int counters = Integer.highestOneBit(Math.max(16, capacity) * 4 - 1) << 1;
+        for (int r = 0; r < SEEDS.length; r++) {
+            rows[r] = new long[counters >>> 4];
+        }
+        mask = counters - 1;
+        sampleSize = Math.max(160, capacity * 10);
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int r = 0; r < SEEDS.length; r++) {
+            int index = index(hash, r);
+            long word = rows[r][index >>> 4];
+            int shift = (index & 15) << 2;
+            if (((word >>> shift) & 0xfL) < 15) {
+                rows[r][index >>> 4] = word + (1L << shift);
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            halve();
+        }
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int min = 15;
+        for (int r = 0; r < SEEDS.length; r++) {
+            int index = index(hash, r);
+            int count = (int) ((rows[r][index >>> 4] >>> ((index & 15) << 2)) & 0xfL);
+            min = Math.min(min, count);
+        }
+        return min;
+    }
+
+    private void halve() {
+        for (long[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                // 每个4位计数器右移一位,清掉从高位相邻计数器移入的位
+                row[i] = (row[i] >>> 1) & 0x7777777777777777L;
+            }
+        }
+        additions >>>= 1;
+    }
+
+    private int index(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return (int) h & mask;
+    }
+
+    private static int spread(int h) {
+        h ^= h >>> 17;
+        h *= 0xed5ad4bb;
+        h ^= h >>> 11;
+        h *= 0xac4c1b51;
+        h ^= h >>> 15;
+        return h;
+    }
+}
@@ -0,0 +1,32 @@
+package com.deepdrama.cache;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 筛选选项快照(不可变)
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public final class OptionsSnapshot {
+
+    private final Map<String, List<String>> options;
+    private final String etag;
+
+    public OptionsSnapshot(Map<String, List<String>> options, String etag) {
+        this.options = options;
+        this.etag = etag;
+    }
+
+    public Map<String, List<String>> getOptions() {
+        return options;
+    }
+
+    /**
+     * 基于内容计算的ETag(含引号),内容不变则ETag不变
+     */
+    public String getEtag() {
+        return etag;
+    }
+}
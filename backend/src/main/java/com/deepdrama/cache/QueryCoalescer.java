@@ -0,0 +1,128 @@
+package com.deepdrama.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 相同查询合并执行(single-flight)
+ *
+ * 同一查询键同时只执行一次,执行期间到达的相同请求等待并共用其结果(包括异常),
+ * 执行结束即移除,不缓存结果。查询键包含数据版本代数: 写入提交后到达的请求
+ * 不会并入写入前开始的执行,因此合并不会返回比单独执行更旧的数据。
+ * 共用的结果对象会被多个请求同时序列化,调用方不得再修改。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Component
+public class QueryCoalescer {
+
+    @Value("${deepdrama.coalescing.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    private ScriptVersionStamp versionStamp;
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight =
+            new ConcurrentHashMap<String, CompletableFuture<Object>>();
+
+    private final ConcurrentMap<String, Counters> counters = new ConcurrentHashMap<String, Counters>();
+
+    /**
+     * 执行查询,已有相同查询在执行时等待其结果
+     *
+     * @param scope  查询类型,如 list / rankings,分别统计
+     * @param key    规范化的查询条件
+     * @param loader 实际执行查询
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String scope, String key, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Counters stats = counters(scope);
+        String flightKey = scope + "|" + versionStamp.generation() + "|" + key;
+        CompletableFuture<Object> flight = new CompletableFuture<Object>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(flightKey, flight);
+        if (running != null) {
+            stats.collapsed.increment();
+            return (T) await(running);
+        }
+
+        stats.executions.increment();
+        try {
+            T result = loader.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    /**
+     * 各查询类型的执行次数与被合并的请求数
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new TreeMap<String, Object>();
+        for (Map.Entry<String, Counters> entry : counters.entrySet()) {
+            long executions = entry.getValue().executions.sum();
+            long collapsed = entry.getValue().collapsed.sum();
+            Map<String, Object> scope = new LinkedHashMap<String, Object>();
+            scope.put("executions", executions);
+            scope.put("collapsed", collapsed);
+            scope.put("collapsedRatio", executions + collapsed == 0 ? 0.0
+                    : (double) collapsed / (executions + collapsed));
+            stats.put(entry.getKey(), scope);
+        }
+        stats.put("inFlight", inFlight.size());
+        return stats;
+    }
+
+    private Counters counters(String scope) {
+        Counters stats = counters.get(scope);
+        if (stats == null) {
+            stats = counters.computeIfAbsent(scope, key -> new Counters());
+        }
+        return stats;
+    }
+
+    /**
+     * 等待执行结果,执行失败时抛出同一异常
+     */
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待查询结果时被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static final class Counters {
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder collapsed = new LongAdder();
+    }
+}
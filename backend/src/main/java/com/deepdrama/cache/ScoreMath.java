@@ -0,0 +1,37 @@
+package com.deepdrama.cache;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 评分换算(以分为单位的整数运算)
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+final class ScoreMath {
+
+    private ScoreMath() {}
+
+    /**
+     * 转为以0.01为单位的整数
+     */
+    static long toCents(BigDecimal value) {
+        return value == null ? 0 : value.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    /**
+     * 平均分,与 avg_score = ROUND(score_sum / rating_count, 2) 一致
+     */
+    static long avgCents(long scoreSumCents, int ratingCount) {
+        if (ratingCount <= 0) {
+            return 0;
+        }
+        return BigDecimal.valueOf(scoreSumCents)
+                .divide(BigDecimal.valueOf(ratingCount), 0, RoundingMode.HALF_UP).longValue();
+    }
+
+    static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -0,0 +1,102 @@
+package com.deepdrama.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 剧本列表总数短期缓存
+ *
+ * 按规范化筛选条件缓存COUNT结果,过期时间较短;命中时返回的总数视为估算值。
+ * 本进程内的剧本写操作会清空缓存。每个条目记录查询开始前取得的失效代数,
+ * 代数已变化的条目视为不存在,失效前开始的COUNT不会在失效后写回旧值。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Component
+public class ScriptCountCache {
+
+    @Value("${deepdrama.list.count-cache-ttl-ms:10000}")
+    private long ttlMillis;
+
+    @Value("${deepdrama.list.count-cache-max-size:1000}")
+    private int maxSize;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    // 每次失效递增
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 获取未过期的总数,不存在时返回null
+     */
+    public Long get(String filterKey) {
+        Entry entry = entries.get(filterKey);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.generation != generation.get() || entry.expiresAt < System.currentTimeMillis()) {
+            entries.remove(filterKey, entry);
+            return null;
+        }
+        return entry.total;
+    }
+
+    /**
+     * 查询总数前取得的失效代数,随结果一起交给 put
+     */
+    public long ticket() {
+        return generation.get();
+    }
+
+    /**
+     * 写入总数;ticket之后有过失效时丢弃
+     */
+    public void put(String filterKey, long total, long ticket) {
+        if (ticket != generation.get()) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evictExpired();
+            if (entries.size() >= maxSize) {
+                entries.clear();
+            }
+        }
+        entries.put(filterKey, new Entry(total, System.currentTimeMillis() + ttlMillis, ticket));
+    }
+
+    /**
+     * 清空缓存(剧本增删改后调用)
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().expiresAt < now) {
+                it.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final long total;
+        private final long expiresAt;
+        private final long generation;
+
+        private Entry(long total, long expiresAt, long generation) {
+            this.total = total;
+            this.expiresAt = expiresAt;
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.deepdrama.cache;
+
+import com.deepdrama.entity.Script;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 剧本详情缓存(按主键)
+ *
+ * LRU淘汰 + 过期时间,写操作按ID精确失效。缓存中的对象只读,调用方不得修改。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Component
+public class ScriptDetailCache {
+
+    @Value("${deepdrama.detail-cache.ttl-ms:60000}")
+    private long ttlMillis;
+
+    @Value("${deepdrama.detail-cache.max-size:2000}")
+    private int maxSize;
+
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<Long, Entry>(256, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            if (size() > maxSize) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // 每次失效递增,用于丢弃失效前开始加载的旧数据
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * 获取缓存的剧本,不存在或已过期时返回null
+     */
+    public Script get(Long id) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(id);
+            if (entry != null && entry.expiresAt < System.currentTimeMillis()) {
+                entries.remove(id);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.script;
+    }
+
+    /**
+     * 加载前获取版本号,加载后通过 {@link #putIfFresh} 写入
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * 仅当加载期间没有发生失效时写入缓存
+     */
+    public void putIfFresh(Long id, Script script, long loadedVersion) {
+        if (script == null) {
+            return;
+        }
+        synchronized (entries) {
+            if (version.get() == loadedVersion) {
+                entries.put(id, new Entry(script, System.currentTimeMillis() + ttlMillis));
+            }
+        }
+    }
+
+    /**
+     * 按ID失效
+     */
+    public void invalidate(Long id) {
+        synchronized (entries) {
+            version.incrementAndGet();
+            entries.remove(id);
+        }
+    }
+
+    /**
+     * 按ID批量失效
+     */
+    public void invalidateAll(Collection<Long> ids) {
+        synchronized (entries) {
+            version.incrementAndGet();
+            for (Long id : ids) {
+                entries.remove(id);
+            }
+        }
+    }
+
+    /**
+     * 命中统计
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    private static final class Entry {
+        private final Script script;
+        private final long expiresAt;
+
+        private Entry(Script script, long expiresAt) {
+            this.script = script;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
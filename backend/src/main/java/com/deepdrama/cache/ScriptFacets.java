@@ -0,0 +1,146 @@
+package com.deepdrama.cache;
+
+import com.deepdrama.query.ScriptQuery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 列表筛选维度计数(分面)
+ *
+ * 每个维度的计数排除该维度自身的筛选条件,其余条件照常生效: 例如已选状态"改稿中"时,
+ * 状态维度仍给出各状态的数量,题材维度则只统计"改稿中"的剧本。
+ * 选项卡、待评分、关键词、日期及评分范围不属于任何维度,始终生效。
+ *
+ * 一行最多不满足一个维度的条件时才会被计入: 全部满足时计入每个维度,
+ * 恰好一个不满足时只计入该维度,因此一次遍历即可得到所有维度的计数。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public final class ScriptFacets {
+
+    // 维度名(与 ScriptQuery 的参数名一致),顺序与 ScriptQueryIndex 的维度编号一致
+    static final String[] DIMENSIONS = {
+            "status", "sourceType", "genre", "team", "contentTeam", "producerTeam", "assignStatus", "isProject"};
+
+    // selectFacetGroups 结果中各维度的列名
+    private static final String[] COLUMNS = {
+            "status", "source_type", "genre", "team", "content_team", "producer_team", "assign_status", "is_project"};
+
+    private static final int IS_PROJECT = 7;
+
+    private ScriptFacets() {}
+
+    /**
+     * 各维度自身的筛选取值(规范化后),该维度无筛选条件时为null
+     */
+    static List<Set<String>> predicates(ScriptQuery query) {
+        List<Set<String>> predicates = new ArrayList<Set<String>>(DIMENSIONS.length);
+        if (query.getStatuses() != null && !query.getStatuses().isEmpty()) {
+            Set<String> statuses = new HashSet<String>();
+            for (String status : query.getStatuses()) {
+                if (status != null) {
+                    statuses.add(ScriptQueryIndex.fold(status));
+                }
+            }
+            predicates.add(statuses);
+        } else {
+            predicates.add(null);
+        }
+        predicates.add(equal(query.getSourceType()));
+        predicates.add(equal(query.getGenre()));
+        predicates.add(equal(query.getTeam()));
+        predicates.add(equal(query.getContentTeam()));
+        predicates.add(equal(query.getProducerTeam()));
+        predicates.add(equal(query.getAssignStatus()));
+        predicates.add(query.getIsProject() == null ? null
+                : Collections.singleton(query.getIsProject() ? "1" : "0"));
+        return predicates;
+    }
+
+    /**
+     * 由按维度取值分组的计数(ScriptMapper.selectFacetGroups,公共条件见 ScriptQuery.facetBase)计算分面
+     */
+    public static Map<String, Map<String, Long>> fromGroups(ScriptQuery query, List<Map<String, Object>> groups) {
+        List<Set<String>> predicates = predicates(query);
+        List<Map<String, Long>> counts = new ArrayList<Map<String, Long>>(DIMENSIONS.length);
+        for (int d = 0; d < DIMENSIONS.length; d++) {
+            counts.add(new LinkedHashMap<String, Long>());
+        }
+
+        String[] values = new String[DIMENSIONS.length];
+        for (Map<String, Object> group : groups) {
+            int missed = -1;
+            boolean skip = false;
+            for (int d = 0; d < DIMENSIONS.length; d++) {
+                values[d] = text(group.get(COLUMNS[d]));
+                Set<String> allowed = predicates.get(d);
+                if (allowed != null && (values[d] == null || !allowed.contains(ScriptQueryIndex.fold(values[d])))) {
+                    if (missed >= 0) {
+                        skip = true;
+                        break;
+                    }
+                    missed = d;
+                }
+            }
+            if (skip) {
+                continue;
+            }
+            long count = ((Number) group.get("cnt")).longValue();
+            for (int d = 0; d < DIMENSIONS.length; d++) {
+                if ((missed < 0 || missed == d) && values[d] != null) {
+                    Map<String, Long> dimension = counts.get(d);
+                    Long total = dimension.get(values[d]);
+                    dimension.put(values[d], total == null ? count : total + count);
+                }
+            }
+        }
+        return render(counts);
+    }
+
+    /**
+     * 输出格式: 维度 -> 取值 -> 数量,取值按数量降序;是否立项的取值输出为 true / false
+     */
+    static Map<String, Map<String, Long>> render(List<Map<String, Long>> counts) {
+        Map<String, Map<String, Long>> result = new LinkedHashMap<String, Map<String, Long>>();
+        for (int d = 0; d < DIMENSIONS.length; d++) {
+            List<Map.Entry<String, Long>> entries = new ArrayList<Map.Entry<String, Long>>(counts.get(d).entrySet());
+            entries.sort((a, b) -> b.getValue().equals(a.getValue())
+                    ? a.getKey().compareTo(b.getKey()) : Long.compare(b.getValue(), a.getValue()));
+            Map<String, Long> values = new LinkedHashMap<String, Long>();
+            for (Map.Entry<String, Long> entry : entries) {
+                if (d != IS_PROJECT) {
+                    values.put(entry.getKey(), entry.getValue());
+                } else if ("1".equals(entry.getKey()) || "0".equals(entry.getKey())) {
+                    values.put(String.valueOf("1".equals(entry.getKey())), entry.getValue());
+                }
+            }
+            result.put(DIMENSIONS[d], values);
+        }
+        return result;
+    }
+
+    private static Set<String> equal(String value) {
+        // 与SQL条件一致: 空字符串不生效
+        return value == null || value.isEmpty() ? null : Collections.singleton(ScriptQueryIndex.fold(value));
+    }
+
+    /**
+     * 分组列的取值;is_project 按驱动不同可能读为数字或布尔
+     */
+    private static String text(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? "1" : "0";
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,463 @@
+package com.deepdrama.cache;
+
+import com.deepdrama.dto.ScriptStatsRow;
+import com.deepdrama.mapper.ScriptMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 剧本排行榜(带跨度的跳表,支持按名次定位)
+ *
+ * 按 平均分降序、评分人数降序、ID降序 排列。评分聚合变化时原地调整位置,
+ * 前N名、某剧本名次及其前后名次均为 O(log n)。
+ * 启动时全量构建,之后增量维护并定期全量重建。全量扫描期间有增量写入时扫描结果作废重试,
+ * 增量找不到对应剧本(说明内存已与数据库不一致)时标记待重建,由后台任务尽快重建。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Component
+public class ScriptLeaderboard {
+
+    private static final Logger log = LoggerFactory.getLogger(ScriptLeaderboard.class);
+
+    private static final int MAX_LEVEL = 32;
+
+    private static final int REBUILD_ATTEMPTS = 3;
+
+    @Autowired
+    private ScriptMapper scriptMapper;
+
+    @Autowired
+    private ScriptVersionStamp versionStamp;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private SkipList list;
+
+    // 收到的增量次数(写锁内修改),用于判断全量扫描期间是否有写入
+    private long writes;
+
+    // 增量与内存数据不一致,需要尽快重建
+    private volatile boolean stale;
+
+    /**
+     * 前N名
+     */
+    public List<Entry> top(int n) {
+        lock.readLock().lock();
+        try {
+            SkipList current = ensureLoaded();
+            return current.range(1, n);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 某剧本的名次(从1开始)及前后各radius名,剧本不存在时返回null
+     */
+    public List<Entry> around(Long id, int radius) {
+        lock.readLock().lock();
+        try {
+            SkipList current = ensureLoaded();
+            Node node = current.nodes.get(id);
+            if (node == null) {
+                return null;
+            }
+            int rank = current.rank(node);
+            int from = Math.max(1, rank - radius);
+            return current.range(from, rank + radius - from + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 某剧本的名次(从1开始),不存在时返回null
+     */
+    public Integer rankOf(Long id) {
+        lock.readLock().lock();
+        try {
+            SkipList current = ensureLoaded();
+            Node node = current.nodes.get(id);
+            return node == null ? null : current.rank(node);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 上榜剧本总数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ensureLoaded().size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 新建剧本(尚无评分)
+     */
+    public void onScriptCreated(Long id) {
+        lock.writeLock().lock();
+        try {
+            writes++;
+            if (list != null && !list.nodes.containsKey(id)) {
+                list.insert(id, 0, 0);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除剧本
+     */
+    public void onScriptDeleted(Long id) {
+        lock.writeLock().lock();
+        try {
+            writes++;
+            if (list != null) {
+                list.remove(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 评分聚合增量变化
+     */
+    public void onRatingDelta(Long id, BigDecimal scoreDelta, int countDelta) {
+        lock.writeLock().lock();
+        try {
+            writes++;
+            if (list == null) {
+                return;
+            }
+            Node node = list.remove(id);
+            if (node != null) {
+                list.insert(id, node.scoreSumCents + ScoreMath.toCents(scoreDelta), node.ratingCount + countDelta);
+            } else {
+                // 不知道该剧本的原有聚合值,无法套用增量
+                stale = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 从数据库全量重建(启动时执行,之后定期执行)
+     *
+     * 扫描期间有增量写入,或有已提交但增量尚未维护的写入时,扫描结果与增量不一致,丢弃重试
+     */
+    @Scheduled(fixedDelayString = "${deepdrama.leaderboard.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        for (int attempt = 1; attempt <= REBUILD_ATTEMPTS; attempt++) {
+            long seen;
+            lock.readLock().lock();
+            try {
+                seen = writes;
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            final SkipList fresh = new SkipList();
+            try {
+                scriptMapper.scanStatsRows(context -> {
+                    ScriptStatsRow row = context.getResultObject();
+                    fresh.insert(row.getId(), ScoreMath.toCents(row.getScoreSum()),
+                            row.getRatingCount() == null ? 0 : row.getRatingCount());
+                });
+            } catch (Exception e) {
+                log.warn("重建排行榜失败: {}", e.getMessage());
+                return;
+            }
+
+            boolean changed;
+            lock.writeLock().lock();
+            try {
+                boolean quiet = writes == seen && !versionStamp.writesInFlight();
+                if (!quiet && (list != null || attempt < REBUILD_ATTEMPTS)) {
+                    // 扫描结果可能缺少扫描期间的增量;已有数据时重试用尽也不替换
+                    if (list != null && attempt == REBUILD_ATTEMPTS) {
+                        log.info("重建排行榜期间持续有写入,本次保留增量维护的数据");
+                    }
+                    continue;
+                }
+                changed = list != null && !list.sameAs(fresh);
+                list = fresh;
+                stale = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            // 重建修正了偏差时使排行榜的ETag失效
+            if (changed) {
+                versionStamp.changed();
+            }
+            return;
+        }
+    }
+
+    /**
+     * 增量与内存数据不一致时尽快重建,不等待定期重建
+     */
+    @Scheduled(fixedDelayString = "${deepdrama.leaderboard.stale-check-interval-ms:5000}")
+    public void rebuildIfStale() {
+        if (stale) {
+            rebuild();
+        }
+    }
+
+    private SkipList ensureLoaded() {
+        SkipList current = list;
+        if (current != null) {
+            return current;
+        }
+        // 读锁不能升级,首次加载在锁外完成后再读取
+        lock.readLock().unlock();
+        try {
+            rebuild();
+        } finally {
+            lock.readLock().lock();
+        }
+        if (list == null) {
+            throw new IllegalStateException("排行榜尚未加载");
+        }
+        return list;
+    }
+
+    /**
+     * 排行榜条目
+     */
+    public static final class Entry {
+        private final int rank;
+        private final long id;
+        private final BigDecimal avgScore;
+        private final int ratingCount;
+
+        private Entry(int rank, long id, BigDecimal avgScore, int ratingCount) {
+            this.rank = rank;
+            this.id = id;
+            this.avgScore = avgScore;
+            this.ratingCount = ratingCount;
+        }
+
+        public int getRank() {
+            return rank;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public BigDecimal getAvgScore() {
+            return avgScore;
+        }
+
+        public int getRatingCount() {
+            return ratingCount;
+        }
+    }
+
+    private static final class Node {
+        private final long id;
+        private final long scoreSumCents;
+        private final int ratingCount;
+        private final long avgCents;
+        private final Node[] next;
+        // span[i]: 沿第i层走到next[i]跨过的节点数
+        private final int[] span;
+
+        private Node(long id, long scoreSumCents, int ratingCount, int level) {
+            this.id = id;
+            this.scoreSumCents = scoreSumCents;
+            this.ratingCount = ratingCount;
+            this.avgCents = ScoreMath.avgCents(scoreSumCents, ratingCount);
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+
+        /**
+         * 是否排在 (avgCents, ratingCount, id) 之前
+         */
+        private boolean before(long otherAvg, int otherCount, long otherId) {
+            if (avgCents != otherAvg) {
+                return avgCents > otherAvg;
+            }
+            if (ratingCount != otherCount) {
+                return ratingCount > otherCount;
+            }
+            return id > otherId;
+        }
+    }
+
+    /**
+     * 带跨度的跳表,名次从1开始
+     */
+    private static final class SkipList {
+        private final Node head = new Node(0, 0, 0, MAX_LEVEL);
+        private final Map<Long, Node> nodes = new HashMap<Long, Node>();
+        private int level = 1;
+        private int size;
+
+        private void insert(long id, long scoreSumCents, int ratingCount) {
+            Node node = new Node(id, scoreSumCents, ratingCount, randomLevel());
+            Node[] update = new Node[MAX_LEVEL];
+            int[] rank = new int[MAX_LEVEL];
+
+            Node x = head;
+            for (int i = level - 1; i >= 0; i--) {
+                rank[i] = i == level - 1 ? 0 : rank[i + 1];
+                while (x.next[i] != null && x.next[i].before(node.avgCents, node.ratingCount, node.id)) {
+                    rank[i] += x.span[i];
+                    x = x.next[i];
+                }
+                update[i] = x;
+            }
+
+            int nodeLevel = node.next.length;
+            if (nodeLevel > level) {
+                for (int i = level; i < nodeLevel; i++) {
+                    rank[i] = 0;
+                    update[i] = head;
+                    head.span[i] = size;
+                }
+                level = nodeLevel;
+            }
+
+            for (int i = 0; i < nodeLevel; i++) {
+                node.next[i] = update[i].next[i];
+                update[i].next[i] = node;
+                node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+                update[i].span[i] = (rank[0] - rank[i]) + 1;
+            }
+            for (int i = nodeLevel; i < level; i++) {
+                update[i].span[i]++;
+            }
+            size++;
+            nodes.put(id, node);
+        }
+
+        private Node remove(long id) {
+            Node target = nodes.remove(id);
+            if (target == null) {
+                return null;
+            }
+
+            Node[] update = new Node[MAX_LEVEL];
+            Node x = head;
+            for (int i = level - 1; i >= 0; i--) {
+                while (x.next[i] != null && x.next[i] != target
+                        && x.next[i].before(target.avgCents, target.ratingCount, target.id)) {
+                    x = x.next[i];
+                }
+                update[i] = x;
+            }
+
+            for (int i = 0; i < level; i++) {
+                if (update[i].next[i] == target) {
+                    update[i].span[i] += target.span[i] - 1;
+                    update[i].next[i] = target.next[i];
+                } else {
+                    update[i].span[i]--;
+                }
+            }
+            while (level > 1 && head.next[level - 1] == null) {
+                level--;
+            }
+            size--;
+            return target;
+        }
+
+        /**
+         * 与另一个跳表的排名及聚合值是否完全相同
+         */
+        private boolean sameAs(SkipList other) {
+            if (size != other.size) {
+                return false;
+            }
+            Node a = head.next[0];
+            Node b = other.head.next[0];
+            while (a != null && b != null) {
+                if (a.id != b.id || a.scoreSumCents != b.scoreSumCents || a.ratingCount != b.ratingCount) {
+                    return false;
+                }
+                a = a.next[0];
+                b = b.next[0];
+            }
+            return a == null && b == null;
+        }
+
+        private int rank(Node target) {
+            int rank = 0;
+            Node x = head;
+            for (int i = level - 1; i >= 0; i--) {
+                while (x.next[i] != null
+                        && (x.next[i] == target || x.next[i].before(target.avgCents, target.ratingCount, target.id))) {
+                    rank += x.span[i];
+                    x = x.next[i];
+                }
+                if (x == target) {
+                    return rank;
+                }
+            }
+            return rank;
+        }
+
+        /**
+         * 从名次from开始取最多count条
+         */
+        private List<Entry> range(int from, int count) {
+            List<Entry> result = new ArrayList<Entry>(Math.max(0, Math.min(count, size - from + 1)));
+            if (from < 1 || from > size || count <= 0) {
+                return result;
+            }
+
+            int traversed = 0;
+            Node x = head;
+            for (int i = level - 1; i >= 0; i--) {
+                while (x.next[i] != null && traversed + x.span[i] <= from) {
+                    traversed += x.span[i];
+                    x = x.next[i];
+                }
+                if (traversed == from) {
+                    break;
+                }
+            }
+
+            int rank = from;
+            while (x != null && result.size() < count) {
+                result.add(new Entry(rank++, x.id, ScoreMath.fromCents(x.avgCents), x.ratingCount));
+                x = x.next[0];
+            }
+            return result;
+        }
+
+        private int randomLevel() {
+            int level = 1;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (level < MAX_LEVEL && random.nextInt(4) == 0) {
+                level++;
+            }
+            return level;
+        }
+    }
+}
@@ -0,0 +1,549 @@
+package com.deepdrama.cache;
+
+import com.deepdrama.common.PageResult;
+import com.deepdrama.dto.ScriptSummary;
+import com.deepdrama.entity.Script;
+import com.deepdrama.query.ScriptQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * 列表结果缓存(按规范化查询键缓存整页结果)
+ *
+ * 淘汰策略为 W-TinyLFU: 新条目先进入按权重占总容量1%的窗口区(LRU),
+ * 挤出窗口后与主区(分段LRU: 试用段 + 保护段)的淘汰候选比较访问频率,频率更高者留下,
+ * 只被访问一次的查询不会挤掉常用查询。权重为本页行数,同时限制条目数与总权重。
+ *
+ * 失效: 每个条目按其依赖的筛选维度打标签(维度=取值,未筛选该维度时为 维度=*)。
+ * 剧本写入时用写入前后两行的取值,从标签最少的维度取出候选条目,再逐个核对筛选条件,
+ * 只失效可能包含该行的条目(行进出结果集、总数变化或本页内容变化都只影响这些条目)。
+ * 关键词、日期及评分范围不参与核对,按可能匹配处理;带分面计数的条目只按公共条件核对。
+ * 部分更新和评分变化不读取写入前的行,只按修改了哪些字段失效: 本页含该剧本、筛选条件或选项卡
+ * 依赖修改的字段、按修改的字段排序,或带分面计数且修改了筛选维度的条目。
+ * 缓存中的结果对象只读,调用方不得修改。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Component
+public class ScriptListCache {
+
+    // 标签维度: ScriptFacets.DIMENSIONS,最后一个为选项卡
+    private static final int TAB = ScriptFacets.DIMENSIONS.length;
+    private static final String ANY = "*";
+
+    private static final String[] TABS = {"pending", "claimed", "project", "abandoned"};
+
+    // 选项卡 -> 决定是否属于该选项卡的字段(pending 由评分人数决定,见 invalidateRating)
+    private static final Map<String, String> TAB_FIELDS = new HashMap<String, String>();
+
+    // 可部分更新的字段 -> 排序列
+    private static final Map<String, String> SORT_FIELDS = new HashMap<String, String>();
+
+    // 关键词检索的字段
+    private static final Set<String> KEYWORD_FIELDS = new HashSet<String>(Arrays.asList("name", "writer"));
+
+    static {
+        TAB_FIELDS.put("claimed", "assignStatus");
+        TAB_FIELDS.put("project", "isProject");
+        TAB_FIELDS.put("abandoned", "status");
+        SORT_FIELDS.put("name", "name");
+        SORT_FIELDS.put("submitDate", "submit_date");
+    }
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int DETACHED = -1;
+
+    @Value("${deepdrama.list-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${deepdrama.list-cache.ttl-ms:300000}")
+    private long ttlMillis;
+
+    @Value("${deepdrama.list-cache.max-size:1000}")
+    private int maxSize;
+
+    @Value("${deepdrama.list-cache.max-weight:50000}")
+    private long maxWeight;
+
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+    // 各区按访问先后排列,最早的在前
+    private final List<LinkedHashMap<String, Entry>> regions = new ArrayList<LinkedHashMap<String, Entry>>();
+    private final long[] regionWeights = new long[3];
+
+    private final Map<String, Set<Entry>> tags = new HashMap<String, Set<Entry>>();
+
+    private FrequencySketch sketch;
+
+    // 每次失效递增,用于丢弃失效前开始执行的查询结果
+    private long writes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public ScriptListCache() {
+        for (int r = 0; r < 3; r++) {
+            regions.add(new LinkedHashMap<String, Entry>());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 获取缓存的结果页,不存在或已过期时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> PageResult<T> get(String key) {
+        if (!enabled) {
+            return null;
+        }
+        sketch().increment(key);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt < System.currentTimeMillis()) {
+            remove(entry);
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        touch(entry);
+        return (PageResult<T>) entry.result;
+    }
+
+    /**
+     * 执行查询前取得的写入序号,随结果一起交给 put
+     */
+    public synchronized long ticket() {
+        return writes;
+    }
+
+    /**
+     * 放入结果页;ticket之后有过失效时丢弃,避免缓存失效前读到的旧数据。
+     * 只读取query的筛选条件,listPage改写的游标和分页字段不影响标签
+     */
+    public synchronized void put(String key, ScriptQuery query, PageResult<?> result, long ticket) {
+        if (!enabled || ticket != writes) {
+            return;
+        }
+        long weight = result.getList().size() + 1L;
+        if (weight > mainCapacity()) {
+            return;
+        }
+        Entry old = entries.get(key);
+        if (old != null) {
+            remove(old);
+        }
+
+        Entry entry = new Entry(key, result, weight, System.currentTimeMillis() + ttlMillis, query);
+        entries.put(key, entry);
+        for (String tag : entry.tags) {
+            tags.computeIfAbsent(tag, t -> new HashSet<Entry>()).add(entry);
+        }
+        attach(entry, WINDOW);
+
+        // 窗口超出容量时,最早的条目进入主区参与准入比较
+        long windowCapacity = Math.max(1, maxWeight / 100);
+        while (regionWeights[WINDOW] > windowCapacity) {
+            admit(detach(eldest(WINDOW)));
+        }
+        while (entries.size() > maxSize) {
+            Entry victim = eldest(PROBATION);
+            if (victim == null) {
+                victim = eldest(PROTECTED);
+            }
+            if (victim == null) {
+                victim = eldest(WINDOW);
+            }
+            evict(victim);
+        }
+    }
+
+    /**
+     * 剧本写入后失效可能包含该行的条目;新增时before为null,删除时after为null。
+     * 两行须包含各筛选维度及评分人数字段
+     */
+    public synchronized void invalidate(Script before, Script after) {
+        writes++;
+        if (entries.isEmpty()) {
+            return;
+        }
+        Set<Entry> matched = new HashSet<Entry>();
+        for (Script row : new Script[]{before, after}) {
+            if (row == null) {
+                continue;
+            }
+            String[] values = rowValues(row);
+            for (Entry entry : candidates(row, values)) {
+                if (entry.matches(row, values)) {
+                    matched.add(entry);
+                }
+            }
+        }
+        for (Entry entry : matched) {
+            remove(entry);
+        }
+        invalidations += matched.size();
+    }
+
+    /**
+     * 剧本部分更新后失效可能受影响的条目,fields为本次修改的字段(属性名),不需要写入前的取值
+     */
+    public synchronized void invalidatePatched(Long id, Set<String> fields) {
+        invalidatePatched(Collections.singleton(id), fields);
+    }
+
+    /**
+     * 多个剧本按同一组字段部分更新后(批量流转)一次失效,条目只遍历一遍
+     */
+    public synchronized void invalidatePatched(Collection<Long> ids, Set<String> fields) {
+        Set<Long> patched = ids instanceof Set ? (Set<Long>) ids : new HashSet<Long>(ids);
+        Set<String> sortColumns = new HashSet<String>();
+        for (String field : fields) {
+            if (SORT_FIELDS.containsKey(field)) {
+                sortColumns.add(SORT_FIELDS.get(field));
+            }
+        }
+        boolean keyword = !Collections.disjoint(fields, KEYWORD_FIELDS);
+        boolean dates = fields.contains("submitDate");
+        invalidateWhere(entry -> containsAny(entry.ids, patched) || entry.filtersOn(fields)
+                || (keyword && entry.keyword) || (dates && entry.dateRange)
+                || sortColumns.contains(entry.sortColumn));
+    }
+
+    /**
+     * 评分变化后失效可能受影响的条目;pendingChanged为true时评分人数在0与非0之间变化
+     */
+    public synchronized void invalidateRating(Long id, boolean pendingChanged) {
+        invalidateWhere(entry -> entry.ids.contains(id) || entry.scoreRange
+                || "avg_score".equals(entry.sortColumn) || "rating_count".equals(entry.sortColumn)
+                || (pendingChanged && ("pending".equals(entry.tab) || entry.unrated)));
+    }
+
+    private static boolean containsAny(Set<Long> cached, Set<Long> patched) {
+        Set<Long> smaller = cached.size() <= patched.size() ? cached : patched;
+        Set<Long> larger = smaller == cached ? patched : cached;
+        for (Long id : smaller) {
+            if (larger.contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void invalidateWhere(Predicate<Entry> affected) {
+        writes++;
+        List<Entry> matched = new ArrayList<Entry>();
+        for (Entry entry : entries.values()) {
+            if (affected.test(entry)) {
+                matched.add(entry);
+            }
+        }
+        for (Entry entry : matched) {
+            remove(entry);
+        }
+        invalidations += matched.size();
+    }
+
+    /**
+     * 全部失效(批量写入前的取值未知时)
+     */
+    public synchronized void invalidateAll() {
+        writes++;
+        invalidations += entries.size();
+        entries.clear();
+        tags.clear();
+        for (int r = 0; r < regions.size(); r++) {
+            regions.get(r).clear();
+            regionWeights[r] = 0;
+        }
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        stats.put("enabled", enabled);
+        stats.put("size", entries.size());
+        stats.put("weight", regionWeights[WINDOW] + regionWeights[PROBATION] + regionWeights[PROTECTED]);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", evictions);
+        stats.put("invalidations", invalidations);
+        return stats;
+    }
+
+    private FrequencySketch sketch() {
+        if (sketch == null) {
+            sketch = new FrequencySketch(maxSize);
+        }
+        return sketch;
+    }
+
+    private long mainCapacity() {
+        return maxWeight - Math.max(1, maxWeight / 100);
+    }
+
+    /**
+     * 命中: 窗口和保护段内移到最新,试用段内升入保护段(保护段超出主区80%时最早的降回试用段)
+     */
+    private void touch(Entry entry) {
+        int region = entry.region;
+        detach(entry);
+        if (region == PROBATION) {
+            attach(entry, PROTECTED);
+            long protectedCapacity = mainCapacity() * 8 / 10;
+            while (regionWeights[PROTECTED] > protectedCapacity) {
+                attach(detach(eldest(PROTECTED)), PROBATION);
+            }
+        } else {
+            attach(entry, region);
+        }
+    }
+
+    /**
+     * TinyLFU准入: 主区放不下时,候选与试用段(为空时取保护段)最早的条目比较访问频率
+     */
+    private void admit(Entry candidate) {
+        int candidateFrequency = sketch().frequency(candidate.key);
+        while (regionWeights[PROBATION] + regionWeights[PROTECTED] + candidate.weight > mainCapacity()) {
+            Entry victim = eldest(PROBATION);
+            if (victim == null) {
+                victim = eldest(PROTECTED);
+            }
+            if (victim == null || candidateFrequency <= sketch().frequency(victim.key)) {
+                evict(candidate);
+                return;
+            }
+            evict(victim);
+        }
+        attach(candidate, PROBATION);
+    }
+
+    /**
+     * 核对候选: 从各维度中取标签下条目最少的一个,合并 行的取值 与 * 两个标签下的条目
+     */
+    private List<Entry> candidates(Script row, String[] values) {
+        List<String> best = null;
+        int bestSize = Integer.MAX_VALUE;
+        for (int d = 0; d <= TAB; d++) {
+            List<String> keys = new ArrayList<String>(TABS.length + 1);
+            keys.add(tag(d, ANY));
+            if (d < TAB) {
+                if (values[d] != null) {
+                    keys.add(tag(d, values[d]));
+                }
+            } else {
+                for (String tab : TABS) {
+                    if (inTab(row, tab)) {
+                        keys.add(tag(d, tab));
+                    }
+                }
+            }
+            int size = 0;
+            for (String key : keys) {
+                Set<Entry> tagged = tags.get(key);
+                size += tagged == null ? 0 : tagged.size();
+            }
+            if (size < bestSize) {
+                best = keys;
+                bestSize = size;
+            }
+        }
+
+        List<Entry> candidates = new ArrayList<Entry>(bestSize);
+        for (String key : best) {
+            Set<Entry> tagged = tags.get(key);
+            if (tagged != null) {
+                candidates.addAll(tagged);
+            }
+        }
+        return candidates;
+    }
+
+    private void evict(Entry entry) {
+        remove(entry);
+        evictions++;
+    }
+
+    private void remove(Entry entry) {
+        if (entries.get(entry.key) == entry) {
+            entries.remove(entry.key);
+        }
+        if (entry.region != DETACHED) {
+            detach(entry);
+        }
+        for (String tag : entry.tags) {
+            Set<Entry> tagged = tags.get(tag);
+            if (tagged != null && tagged.remove(entry) && tagged.isEmpty()) {
+                tags.remove(tag);
+            }
+        }
+    }
+
+    private Entry eldest(int region) {
+        Iterator<Entry> it = regions.get(region).values().iterator();
+        return it.hasNext() ? it.next() : null;
+    }
+
+    private void attach(Entry entry, int region) {
+        regions.get(region).put(entry.key, entry);
+        regionWeights[region] += entry.weight;
+        entry.region = region;
+    }
+
+    private Entry detach(Entry entry) {
+        regions.get(entry.region).remove(entry.key);
+        regionWeights[entry.region] -= entry.weight;
+        entry.region = DETACHED;
+        return entry;
+    }
+
+    private static String tag(int dimension, String value) {
+        return (dimension < TAB ? ScriptFacets.DIMENSIONS[dimension] : "tab") + "=" + value;
+    }
+
+    /**
+     * 行在各筛选维度上的取值(规范化后),顺序同 ScriptFacets.DIMENSIONS
+     */
+    private static String[] rowValues(Script row) {
+        String[] values = {
+                row.getStatus(), row.getSourceType(), row.getGenre(), row.getTeam(), row.getContentTeam(),
+                row.getProducerTeam(), row.getAssignStatus(),
+                row.getIsProject() == null ? null : String.valueOf(row.getIsProject())};
+        for (int d = 0; d < values.length; d++) {
+            values[d] = values[d] == null ? null : ScriptQueryIndex.fold(values[d]);
+        }
+        return values;
+    }
+
+    /**
+     * 条件与 ScriptMapper.xml 中的 tab 筛选一致
+     */
+    private static boolean inTab(Script row, String tab) {
+        switch (tab) {
+            case "pending":
+                return row.getRatingCount() != null && row.getRatingCount() == 0;
+            case "claimed":
+                return row.getAssignStatus() != null && "待认领".equals(ScriptQueryIndex.fold(row.getAssignStatus()));
+            case "project":
+                return row.getIsProject() != null && row.getIsProject() == 1;
+            case "abandoned":
+                return row.getStatus() != null && "已废弃".equals(ScriptQueryIndex.fold(row.getStatus()));
+            default:
+                return true;
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final PageResult<?> result;
+        private final long weight;
+        private final long expiresAt;
+        // 各维度的筛选取值,带分面计数时为null(分面计数不受维度条件限制)
+        private final List<Set<String>> predicates;
+        private final String tab;
+        private final boolean unrated;
+        private final boolean keyword;
+        private final boolean dateRange;
+        private final boolean scoreRange;
+        private final String sortColumn;
+        // 本页剧本ID
+        private final Set<Long> ids = new HashSet<Long>();
+        private final List<String> tags = new ArrayList<String>();
+        private int region = DETACHED;
+
+        private Entry(String key, PageResult<?> result, long weight, long expiresAt, ScriptQuery query) {
+            this.key = key;
+            this.result = result;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+            this.predicates = Boolean.TRUE.equals(query.getFacets()) ? null : ScriptFacets.predicates(query);
+            this.tab = query.getTab() != null && inTabs(query.getTab()) ? query.getTab() : null;
+            this.unrated = Boolean.TRUE.equals(query.getUnrated());
+            this.keyword = hasText(query.getKeyword());
+            this.dateRange = hasText(query.getStartDate()) || hasText(query.getEndDate());
+            this.scoreRange = query.getMinScore() != null || query.getMaxScore() != null;
+            this.sortColumn = query.isRelevanceSort() ? null : query.getSortColumn();
+            for (Object item : result.getList()) {
+                if (item instanceof Script) {
+                    ids.add(((Script) item).getId());
+                } else if (item instanceof ScriptSummary) {
+                    ids.add(((ScriptSummary) item).getId());
+                }
+            }
+
+            for (int d = 0; d < TAB; d++) {
+                Set<String> allowed = predicates == null ? null : predicates.get(d);
+                if (allowed == null) {
+                    tags.add(tag(d, ANY));
+                } else {
+                    for (String value : allowed) {
+                        tags.add(tag(d, value));
+                    }
+                }
+            }
+            tags.add(tag(TAB, tab == null ? ANY : tab));
+        }
+
+        private boolean matches(Script row, String[] values) {
+            if (predicates != null) {
+                for (int d = 0; d < TAB; d++) {
+                    Set<String> allowed = predicates.get(d);
+                    if (allowed != null && (values[d] == null || !allowed.contains(values[d]))) {
+                        return false;
+                    }
+                }
+            }
+            if (tab != null && !inTab(row, tab)) {
+                return false;
+            }
+            return !unrated || inTab(row, "pending");
+        }
+
+        /**
+         * 修改这些字段是否可能使行进出本条目的结果集,或改变分面计数
+         */
+        private boolean filtersOn(Set<String> fields) {
+            for (int d = 0; d < TAB; d++) {
+                if (fields.contains(ScriptFacets.DIMENSIONS[d]) && (predicates == null || predicates.get(d) != null)) {
+                    return true;
+                }
+            }
+            String tabField = tab == null ? null : TAB_FIELDS.get(tab);
+            return tabField != null && fields.contains(tabField);
+        }
+
+        private static boolean hasText(String value) {
+            return value != null && !value.trim().isEmpty();
+        }
+
+        private static boolean inTabs(String tab) {
+            for (String known : TABS) {
+                if (known.equals(tab)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.deepdrama.cache;
+
+import com.alibaba.fastjson.JSON;
+import com.deepdrama.entity.Script;
+import com.deepdrama.mapper.ScriptMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 筛选选项内存索引
+ *
+ * 内容团队、编剧、制片三组取值各自保存为有序的 取值 -> 引用数,
+ * 启动时从数据库构建,之后由剧本写操作增量维护,并定期全量重建以修正偏差。
+ * 取值按与数据库排序规则(utf8mb4_unicode_ci)一致的方式比较: 忽略大小写和尾部空格,
+ * 与 GROUP BY 的分组结果相同。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Component
+public class ScriptOptionsIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ScriptOptionsIndex.class);
+
+    // 全量重建期间有增量写入时重试的次数
+    private static final int REBUILD_ATTEMPTS = 3;
+
+    // 与 utf8mb4_unicode_ci 一致: 忽略大小写和尾部空格
+    public static final Comparator<String> COLLATION = Comparator.comparing(ScriptOptionsIndex::fold);
+
+    @Autowired
+    private ScriptMapper scriptMapper;
+
+    @Autowired
+    private ScriptVersionStamp versionStamp;
+
+    private final TreeMap<String, Integer> contentTeams = new TreeMap<String, Integer>(COLLATION);
+    private final TreeMap<String, Integer> writers = new TreeMap<String, Integer>(COLLATION);
+    private final TreeMap<String, Integer> producers = new TreeMap<String, Integer>(COLLATION);
+
+    private boolean loaded;
+
+    // 已处理的增量写入次数,全量重建据此判断查询期间是否有写入
+    private long writes;
+
+    // 当前快照,数据变化后置空并在下次读取时重新生成
+    private volatile OptionsSnapshot snapshot;
+
+    /**
+     * 获取当前选项快照
+     */
+    public OptionsSnapshot snapshot() {
+        OptionsSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                rebuild();
+            }
+            if (snapshot == null) {
+                snapshot = render();
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * 从数据库全量重建(启动时执行,之后定期执行)
+     *
+     * 查询在锁外执行,查询期间有增量写入时查询结果可能不含该写入,丢弃结果重试(首次加载同样重试);
+     * 有已提交但增量尚未维护的写入时,查询结果已含该写入而增量随后还会叠加,同样重试;
+     * 多次重试仍有写入时保留现有数据(首次加载时采用最后一次查询结果),留待下次重建修正。
+     */
+    @Scheduled(fixedDelayString = "${deepdrama.options.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        for (int attempt = 1; attempt <= REBUILD_ATTEMPTS; attempt++) {
+            long seen;
+            synchronized (this) {
+                seen = writes;
+            }
+
+            List<Map<String, Object>> teamRows;
+            List<Map<String, Object>> writerRows;
+            List<Map<String, Object>> producerRows;
+            try {
+                teamRows = scriptMapper.getContentTeamOptionCounts();
+                writerRows = scriptMapper.getWriterOptionCounts();
+                producerRows = scriptMapper.getProducerOptionCounts();
+            } catch (Exception e) {
+                log.warn("重建筛选选项失败: {}", e.getMessage());
+                return;
+            }
+
+            synchronized (this) {
+                boolean quiet = writes == seen && !versionStamp.writesInFlight();
+                if (quiet || (!loaded && attempt == REBUILD_ATTEMPTS)) {
+                    load(contentTeams, teamRows);
+                    load(writers, writerRows);
+                    load(producers, producerRows);
+                    loaded = true;
+                    snapshot = null;
+                    return;
+                }
+                if (loaded && attempt == REBUILD_ATTEMPTS) {
+                    log.info("重建筛选选项期间持续有写入,保留增量维护的数据");
+                }
+            }
+        }
+    }
+
+    /**
+     * 剧本变更后增量维护(新增时before为null,删除时after为null)
+     */
+    public synchronized void onScriptChanged(Script before, Script after) {
+        writes++;
+        if (!loaded) {
+            return;
+        }
+        boolean changed = false;
+        changed |= move(contentTeams, before == null ? null : before.getContentTeam(),
+                after == null ? null : after.getContentTeam());
+        changed |= move(writers, before == null ? null : before.getWriter(),
+                after == null ? null : after.getWriter());
+        changed |= move(producers, before == null ? null : before.getProducer(),
+                after == null ? null : after.getProducer());
+        if (changed) {
+            snapshot = null;
+        }
+    }
+
+    private static void load(TreeMap<String, Integer> target, List<Map<String, Object>> rows) {
+        target.clear();
+        for (Map<String, Object> row : rows) {
+            Object value = row.get("option_value");
+            Object count = row.get("ref_count");
+            if (value != null && count instanceof Number) {
+                target.merge(value.toString(), ((Number) count).intValue(), Integer::sum);
+            }
+        }
+    }
+
+    private static boolean move(TreeMap<String, Integer> target, String oldValue, String newValue) {
+        if (isBlank(oldValue) && isBlank(newValue)) {
+            return false;
+        }
+        if (oldValue != null && newValue != null && COLLATION.compare(oldValue, newValue) == 0) {
+            return false;
+        }
+        boolean changed = false;
+        if (!isBlank(oldValue)) {
+            Integer count = target.get(oldValue);
+            if (count != null) {
+                if (count <= 1) {
+                    target.remove(oldValue);
+                    changed = true;
+                } else {
+                    target.put(oldValue, count - 1);
+                }
+            }
+        }
+        if (!isBlank(newValue)) {
+            Integer count = target.get(newValue);
+            target.put(newValue, count == null ? 1 : count + 1);
+            changed |= count == null;
+        }
+        return changed;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || fold(value).isEmpty();
+    }
+
+    /**
+     * 比较用的规范形式: 去掉尾部空格并转小写
+     */
+    private static String fold(String value) {
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return value.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+
+    private OptionsSnapshot render() {
+        Map<String, List<String>> options = new LinkedHashMap<String, List<String>>();
+        options.put("contentTeams", Collections.unmodifiableList(new ArrayList<String>(contentTeams.keySet())));
+        options.put("writers", Collections.unmodifiableList(new ArrayList<String>(writers.keySet())));
+        options.put("producers", Collections.unmodifiableList(new ArrayList<String>(producers.keySet())));
+
+        byte[] content = JSON.toJSONString(options).getBytes(StandardCharsets.UTF_8);
+        String etag = "\"" + DigestUtils.md5DigestAsHex(content) + "\"";
+        return new OptionsSnapshot(Collections.unmodifiableMap(options), etag);
+    }
+}
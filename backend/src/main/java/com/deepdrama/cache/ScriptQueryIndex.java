@@ -0,0 +1,996 @@
+package com.deepdrama.cache;
+
+import com.deepdrama.common.Dates;
+import com.deepdrama.dto.ScriptIndexRow;
+import com.deepdrama.mapper.ScriptMapper;
+import com.deepdrama.query.ScriptQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 剧本查询索引(可选,deepdrama.query-index.enabled 开启)
+ *
+ * 每行分配一个连续槽位。等值筛选列(状态、来源、题材、团队、内容团队、制片团队、分配状态、是否立项)
+ * 每个取值一个压缩位图,"待评分"(rating_count = 0)单独一个位图;提交日期和平均分另按值排序存放,
+ * 区间筛选二分定位。ScriptQuery 求值为位图交/并,再按排序键在内存中取前K个,
+ * 数据库只按本页ID补全剧本,列表耗时不再随表大小增长,总数为结果位图的基数。
+ *
+ * 关键词检索、按名称排序(依赖数据库排序规则)及无法解析的日期条件返回null,由调用方回退到SQL。
+ * 等值比较忽略大小写及尾部空格,与 utf8mb4_unicode_ci 对这些取值的比较结果一致。
+ *
+ * 启动时全量构建,剧本写入提交后按ID从数据库重读,评分变化按增量更新,并定期全量重建修正偏差。
+ * 重建扫描期间有写入时丢弃扫描结果重试,重建修正了偏差时清空列表缓存并使ETag失效。
+ * 首次加载同样只采用无写入期间的扫描结果: 未加载时的写入只计数,无法事后补上,
+ * 重试用尽时保持未加载(查询走SQL),等待下次定时重建。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Component
+public class ScriptQueryIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ScriptQueryIndex.class);
+
+    // 等值筛选维度
+    private static final int STATUS = 0;
+    private static final int SOURCE_TYPE = 1;
+    private static final int GENRE = 2;
+    private static final int TEAM = 3;
+    private static final int CONTENT_TEAM = 4;
+    private static final int PRODUCER_TEAM = 5;
+    private static final int ASSIGN_STATUS = 6;
+    private static final int IS_PROJECT = 7;
+    private static final int DIMENSIONS = 8;
+
+    // 排序键
+    private static final int CREATED_AT = 0;
+    private static final int SUBMIT_DATE = 1;
+    private static final int AVG_SCORE = 2;
+    private static final int RATING_COUNT = 3;
+    private static final int SORT_KEYS = 4;
+
+    // NULL的排序键: 升序在最前、降序在最后,与MySQL一致
+    private static final long NULL_KEY = Long.MIN_VALUE;
+
+    // 区间列中值已变化的槽位超过该数量(且超过总行数的1/8)时重新排序
+    private static final int MIN_RESORT_DIRTY = 4096;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int REFRESH_BATCH_SIZE = 1000;
+    private static final int REBUILD_ATTEMPTS = 3;
+
+    @Value("${deepdrama.query-index.enabled:false}")
+    private boolean enabled;
+
+    @Autowired
+    private ScriptMapper scriptMapper;
+
+    @Autowired
+    private ScriptVersionStamp versionStamp;
+
+    @Autowired
+    private ScriptListCache listCache;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile State state;
+
+    // 收到的增量写入次数(含尚未加载时),在写锁内修改,全量重建据此判断扫描期间是否有写入
+    private long writes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 求本页剧本ID(已按排序条件排好,含多取的一行)及总数;
+     * 未开启、尚未加载或条件不支持时返回null,由调用方走SQL查询
+     */
+    public Page search(ScriptQuery query) {
+        if (!enabled) {
+            return null;
+        }
+        int sortKey = sortKey(query.getSortColumn());
+        if (sortKey < 0 || hasText(query.getKeyword())) {
+            fallbacks.increment();
+            return null;
+        }
+        LocalDate startDate;
+        LocalDate endDate;
+        try {
+            startDate = Dates.parseDate("startDate", query.getStartDate());
+            endDate = Dates.parseDate("endDate", query.getEndDate());
+        } catch (IllegalArgumentException e) {
+            fallbacks.increment();
+            return null;
+        }
+        if ((startDate == null && hasText(query.getStartDate())) || (endDate == null && hasText(query.getEndDate()))) {
+            fallbacks.increment();
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            State current = state;
+            if (current == null) {
+                fallbacks.increment();
+                return null;
+            }
+            CompressedBitmap matched = current.filter(query, startDate, endDate);
+            Map<String, Map<String, Long>> facets = Boolean.TRUE.equals(query.getFacets())
+                    ? current.facets(query, startDate, endDate) : null;
+            Page page = new Page(current.top(matched, query, sortKey), matched.cardinality(), facets);
+            hits.increment();
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 剧本新增、修改、删除或状态流转提交后调用: 按ID从数据库重读,已不存在的视为删除。
+     * 已有剧本的评分聚合字段沿用内存中的值(由 onRatingDelta 维护)
+     */
+    public void refresh(Collection<Long> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        if (state == null) {
+            countWrite();
+            return;
+        }
+        List<Long> idList = new ArrayList<Long>(new HashSet<Long>(ids));
+        List<ScriptIndexRow> rows = new ArrayList<ScriptIndexRow>(idList.size());
+        try {
+            for (int from = 0; from < idList.size(); from += REFRESH_BATCH_SIZE) {
+                rows.addAll(scriptMapper.selectIndexRows(
+                        idList.subList(from, Math.min(from + REFRESH_BATCH_SIZE, idList.size()))));
+            }
+        } catch (Exception e) {
+            log.warn("刷新查询索引失败,等待下次全量重建: {}", e.getMessage());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            writes++;
+            State current = state;
+            if (current == null) {
+                return;
+            }
+            Set<Long> missing = new HashSet<Long>(idList);
+            for (ScriptIndexRow row : rows) {
+                missing.remove(row.getId());
+                current.put(row, true);
+            }
+            for (Long id : missing) {
+                current.remove(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 评分聚合增量变化
+     */
+    public void onRatingDelta(Long id, BigDecimal scoreDelta, int countDelta) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            writes++;
+            if (state != null) {
+                state.applyRating(id, ScoreMath.toCents(scoreDelta), countDelta);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void countWrite() {
+        lock.writeLock().lock();
+        try {
+            writes++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 从数据库全量重建(启动时执行,之后定期执行)
+     *
+     * 扫描期间有增量写入,或有已提交但增量尚未维护的写入时,扫描结果与增量不一致,丢弃重试;
+     * 重试用尽时保留现有数据(首次加载时保持未加载),留待下次重建
+     */
+    @Scheduled(fixedDelayString = "${deepdrama.query-index.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        for (int attempt = 1; attempt <= REBUILD_ATTEMPTS; attempt++) {
+            long seen;
+            lock.readLock().lock();
+            try {
+                seen = writes;
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            final State fresh = new State();
+            try {
+                scriptMapper.scanIndexRows(context -> fresh.put(context.getResultObject(), false));
+            } catch (Exception e) {
+                log.warn("重建查询索引失败: {}", e.getMessage());
+                return;
+            }
+            fresh.sortRanges();
+
+            boolean changed;
+            lock.writeLock().lock();
+            try {
+                boolean quiet = writes == seen && !versionStamp.writesInFlight();
+                if (!quiet) {
+                    if (attempt == REBUILD_ATTEMPTS) {
+                        log.info(state == null ? "加载查询索引期间持续有写入,暂不启用,等待下次重建"
+                                : "重建查询索引期间持续有写入,本次保留增量维护的数据");
+                    }
+                    continue;
+                }
+                changed = state != null && !state.sameAs(fresh);
+                state = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            // 重建修正了偏差: 按旧索引缓存的列表页已过期
+            if (changed) {
+                listCache.invalidateAll();
+                versionStamp.changed();
+            }
+            return;
+        }
+    }
+
+    /**
+     * 运行状态: 是否开启、行数、命中及回退SQL次数
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        result.put("enabled", enabled);
+        lock.readLock().lock();
+        try {
+            result.put("loaded", state != null);
+            result.put("rows", state == null ? 0 : state.live.cardinality());
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.put("hits", hits.sum());
+        result.put("fallbacks", fallbacks.sum());
+        return result;
+    }
+
+    private static int sortKey(String column) {
+        if ("created_at".equals(column)) {
+            return CREATED_AT;
+        }
+        if ("submit_date".equals(column)) {
+            return SUBMIT_DATE;
+        }
+        if ("avg_score".equals(column)) {
+            return AVG_SCORE;
+        }
+        if ("rating_count".equals(column)) {
+            return RATING_COUNT;
+        }
+        return -1;
+    }
+
+    /**
+     * 游标中的排序键(类型见 ScriptCursor)
+     */
+    private static long cursorKey(Object value) {
+        if (value == null) {
+            return NULL_KEY;
+        }
+        if (value instanceof LocalDateTime) {
+            return dateTimeKey((LocalDateTime) value);
+        }
+        if (value instanceof LocalDate) {
+            return ((LocalDate) value).toEpochDay();
+        }
+        if (value instanceof BigDecimal) {
+            return ScoreMath.toCents((BigDecimal) value);
+        }
+        return ((Number) value).longValue();
+    }
+
+    private static long dateTimeKey(LocalDateTime value) {
+        return value == null ? NULL_KEY : value.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + value.getNano();
+    }
+
+    private static long dateKey(LocalDate value) {
+        return value == null ? NULL_KEY : value.toEpochDay();
+    }
+
+    /**
+     * 分数下限换算为分(向上取整),上限向下取整
+     */
+    private static long scoreBound(Double value, RoundingMode mode) {
+        return BigDecimal.valueOf(value).movePointRight(2).setScale(0, mode).longValue();
+    }
+
+    /**
+     * 与SQL条件一致: null和空字符串都不生效
+     */
+    private static boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    /**
+     * 比较用的规范形式: 忽略尾部空格和大小写
+     */
+    static String fold(String value) {
+        if (value == null) {
+            return null;
+        }
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return value.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 查询结果: 本页剧本ID(按排序条件)、满足筛选条件的总数及请求时的分面计数
+     */
+    public static final class Page {
+        private final List<Long> ids;
+        private final long total;
+        private final Map<String, Map<String, Long>> facets;
+
+        private Page(List<Long> ids, long total, Map<String, Map<String, Long>> facets) {
+            this.ids = ids;
+            this.total = total;
+            this.facets = facets;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public Map<String, Map<String, Long>> getFacets() {
+            return facets;
+        }
+    }
+
+    /**
+     * 一个等值筛选维度: 取值编码、每个取值的位图、每个槽位的取值编码
+     */
+    private static final class Dimension {
+        private final Map<String, Integer> codes = new HashMap<String, Integer>();
+        private final List<CompressedBitmap> bitmaps = new ArrayList<CompressedBitmap>();
+        // 每个编码首次出现时的原始取值,用于输出分面
+        private final List<String> labels = new ArrayList<String>();
+        // 取值编码+1,0表示NULL
+        private int[] slots = new int[INITIAL_CAPACITY];
+
+        private CompressedBitmap bitmap(String value) {
+            Integer code = codes.get(fold(value));
+            return code == null ? null : bitmaps.get(code);
+        }
+
+        private void set(int slot, String value) {
+            int code = 0;
+            if (value != null) {
+                String key = fold(value);
+                Integer existing = codes.get(key);
+                if (existing == null) {
+                    existing = bitmaps.size();
+                    codes.put(key, existing);
+                    bitmaps.add(new CompressedBitmap());
+                    labels.add(value);
+                }
+                code = existing + 1;
+            }
+            if (slots[slot] == code) {
+                return;
+            }
+            if (slots[slot] != 0) {
+                bitmaps.get(slots[slot] - 1).remove(slot);
+            }
+            if (code != 0) {
+                bitmaps.get(code - 1).add(slot);
+            }
+            slots[slot] = code;
+        }
+
+        private void grow(int capacity) {
+            slots = Arrays.copyOf(slots, capacity);
+        }
+
+        private String label(int slot) {
+            return slots[slot] == 0 ? null : labels.get(slots[slot] - 1);
+        }
+    }
+
+    /**
+     * 区间筛选列: 按 (值, 槽位) 排序的打包数组,之后值有变化的槽位记为脏,查询时单独判断
+     */
+    private static final class RangeColumn {
+        private long[] sorted = new long[0];
+        private int sortedSize;
+        private CompressedBitmap dirty = new CompressedBitmap();
+
+        /**
+         * 值在 [low, high] 内的槽位,NULL不匹配
+         */
+        private CompressedBitmap range(long low, long high, long[] keys) {
+            CompressedBitmap result = new CompressedBitmap();
+            low = Math.max(low, NULL_KEY + 1);
+            if (low > high) {
+                return result;
+            }
+            int from = lowerBound(pack(low, 0));
+            long last = pack(high, -1);
+            int[] slots = new int[16];
+            int n = 0;
+            for (int i = from; i < sortedSize && sorted[i] <= last; i++) {
+                int slot = (int) sorted[i];
+                if (!dirty.contains(slot)) {
+                    if (n == slots.length) {
+                        slots = Arrays.copyOf(slots, n * 2);
+                    }
+                    slots[n++] = slot;
+                }
+            }
+            // 按槽位升序加入,位图只需在末尾追加
+            Arrays.sort(slots, 0, n);
+            for (int i = 0; i < n; i++) {
+                result.add(slots[i]);
+            }
+            final long lowKey = low;
+            final long highKey = high;
+            dirty.forEach(slot -> {
+                long key = keys[slot];
+                if (key != NULL_KEY && key >= lowKey && key <= highKey) {
+                    result.add(slot);
+                }
+            });
+            return result;
+        }
+
+        private void touch(int slot) {
+            dirty.add(slot);
+        }
+
+        private int dirtyCount() {
+            return dirty.cardinality();
+        }
+
+        private void sort(long[] keys, CompressedBitmap live) {
+            long[] packed = new long[live.cardinality()];
+            int[] n = new int[1];
+            live.forEach(slot -> {
+                if (keys[slot] != NULL_KEY) {
+                    packed[n[0]++] = pack(keys[slot], slot);
+                }
+            });
+            Arrays.sort(packed, 0, n[0]);
+            sorted = packed;
+            sortedSize = n[0];
+            dirty = new CompressedBitmap();
+        }
+
+        private int lowerBound(long target) {
+            int low = 0;
+            int high = sortedSize;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sorted[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * 高32位为值(日期为纪元日、分数以分为单位,均在int范围内),低32位为槽位
+         */
+        private static long pack(long key, int slot) {
+            long clamped = Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, key));
+            return (clamped << 32) | (slot & 0xFFFFFFFFL);
+        }
+    }
+
+    /**
+     * 索引数据;所有方法在锁内调用
+     */
+    private static final class State {
+        private final Map<Long, Integer> slotOf = new HashMap<Long, Integer>();
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private int[] versions = new int[INITIAL_CAPACITY];
+        private long[] scoreSums = new long[INITIAL_CAPACITY];
+        private final long[][] sortKeys = new long[SORT_KEYS][INITIAL_CAPACITY];
+        private final Dimension[] dimensions = new Dimension[DIMENSIONS];
+        private final CompressedBitmap live = new CompressedBitmap();
+        private final CompressedBitmap unrated = new CompressedBitmap();
+        private final RangeColumn submitDates = new RangeColumn();
+        private final RangeColumn avgScores = new RangeColumn();
+        // 本次构建后删除的ID,避免较早的重读把已删除的剧本加回来
+        private final Set<Long> deleted = new HashSet<Long>();
+        private int slots;
+        // 全量加载期间不记录脏槽位,加载完成后统一排序
+        private boolean sorted;
+
+        private State() {
+            for (int i = 0; i < DIMENSIONS; i++) {
+                dimensions[i] = new Dimension();
+            }
+        }
+
+        /**
+         * 新增或更新一行;keepRatings为true时已有行的评分聚合字段保持不变
+         */
+        private void put(ScriptIndexRow row, boolean keepRatings) {
+            Integer existing = slotOf.get(row.getId());
+            int version = row.getVersion() == null ? 0 : row.getVersion();
+            int slot;
+            boolean added = existing == null;
+            boolean ratings = true;
+            if (added) {
+                if (deleted.contains(row.getId())) {
+                    return;
+                }
+                slot = slots++;
+                ensureCapacity(slots);
+                ids[slot] = row.getId();
+                slotOf.put(row.getId(), slot);
+                live.add(slot);
+            } else {
+                slot = existing;
+                // 并发写入时较早的重读可能后到达
+                if (version < versions[slot]) {
+                    return;
+                }
+                ratings = !keepRatings;
+            }
+            versions[slot] = version;
+
+            dimensions[STATUS].set(slot, row.getStatus());
+            dimensions[SOURCE_TYPE].set(slot, row.getSourceType());
+            dimensions[GENRE].set(slot, row.getGenre());
+            dimensions[TEAM].set(slot, row.getTeam());
+            dimensions[CONTENT_TEAM].set(slot, row.getContentTeam());
+            dimensions[PRODUCER_TEAM].set(slot, row.getProducerTeam());
+            dimensions[ASSIGN_STATUS].set(slot, row.getAssignStatus());
+            dimensions[IS_PROJECT].set(slot, row.getIsProject() == null ? null : row.getIsProject().toString());
+
+            sortKeys[CREATED_AT][slot] = dateTimeKey(row.getCreatedAt());
+            setRangeKey(submitDates, SUBMIT_DATE, slot, dateKey(row.getSubmitDate()), added);
+            if (ratings) {
+                scoreSums[slot] = ScoreMath.toCents(row.getScoreSum());
+                setRangeKey(avgScores, AVG_SCORE, slot,
+                        row.getAvgScore() == null ? NULL_KEY : ScoreMath.toCents(row.getAvgScore()), added);
+                setRatingCount(slot, row.getRatingCount() == null ? NULL_KEY : row.getRatingCount());
+            }
+        }
+
+        private void remove(Long id) {
+            deleted.add(id);
+            Integer slot = slotOf.remove(id);
+            if (slot == null) {
+                return;
+            }
+            live.remove(slot);
+            unrated.remove(slot);
+            for (Dimension dimension : dimensions) {
+                dimension.set(slot, null);
+            }
+            setRangeKey(submitDates, SUBMIT_DATE, slot, NULL_KEY, false);
+            setRangeKey(avgScores, AVG_SCORE, slot, NULL_KEY, false);
+        }
+
+        /**
+         * 与 applyRatingDelta 一致: avg_score = ROUND(score_sum / rating_count, 2),无评分时为0
+         */
+        private void applyRating(Long id, long scoreDeltaCents, int countDelta) {
+            Integer slot = slotOf.get(id);
+            if (slot == null) {
+                return;
+            }
+            long count = sortKeys[RATING_COUNT][slot];
+            int ratingCount = (int) (count == NULL_KEY ? 0 : count) + countDelta;
+            scoreSums[slot] += scoreDeltaCents;
+            setRatingCount(slot, ratingCount);
+            setRangeKey(avgScores, AVG_SCORE, slot, ScoreMath.avgCents(scoreSums[slot], ratingCount), false);
+        }
+
+        private void setRatingCount(int slot, long ratingCount) {
+            sortKeys[RATING_COUNT][slot] = ratingCount;
+            if (ratingCount == 0) {
+                unrated.add(slot);
+            } else {
+                unrated.remove(slot);
+            }
+        }
+
+        /**
+         * 写入区间列的值;新槽位不在已排序数组中,总是记为脏
+         */
+        private void setRangeKey(RangeColumn column, int sortKey, int slot, long key, boolean added) {
+            if (sortKeys[sortKey][slot] == key && !added) {
+                return;
+            }
+            sortKeys[sortKey][slot] = key;
+            if (!sorted) {
+                return;
+            }
+            column.touch(slot);
+            if (column.dirtyCount() > Math.max(MIN_RESORT_DIRTY, slotOf.size() >> 3)) {
+                column.sort(sortKeys[sortKey], live);
+            }
+        }
+
+        /**
+         * 与另一份索引的行集合及每行取值是否完全相同
+         */
+        private boolean sameAs(State other) {
+            if (slotOf.size() != other.slotOf.size()) {
+                return false;
+            }
+            for (Map.Entry<Long, Integer> entry : slotOf.entrySet()) {
+                Integer slot = other.slotOf.get(entry.getKey());
+                if (slot == null || !sameRow(entry.getValue(), other, slot)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean sameRow(int slot, State other, int otherSlot) {
+            if (versions[slot] != other.versions[otherSlot] || scoreSums[slot] != other.scoreSums[otherSlot]) {
+                return false;
+            }
+            for (int k = 0; k < SORT_KEYS; k++) {
+                if (sortKeys[k][slot] != other.sortKeys[k][otherSlot]) {
+                    return false;
+                }
+            }
+            for (int d = 0; d < DIMENSIONS; d++) {
+                if (!Objects.equals(dimensions[d].label(slot), other.dimensions[d].label(otherSlot))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void sortRanges() {
+            submitDates.sort(sortKeys[SUBMIT_DATE], live);
+            avgScores.sort(sortKeys[AVG_SCORE], live);
+            sorted = true;
+        }
+
+        private void ensureCapacity(int size) {
+            if (size <= ids.length) {
+                return;
+            }
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            scoreSums = Arrays.copyOf(scoreSums, capacity);
+            for (int i = 0; i < SORT_KEYS; i++) {
+                sortKeys[i] = Arrays.copyOf(sortKeys[i], capacity);
+            }
+            for (Dimension dimension : dimensions) {
+                dimension.grow(capacity);
+            }
+        }
+
+        /**
+         * 筛选条件求值(与 ScriptMapper.xml 中 FilterConditions 一致,不含关键词)
+         */
+        private CompressedBitmap filter(ScriptQuery query, LocalDate startDate, LocalDate endDate) {
+            List<CompressedBitmap> terms = baseTerms(query, startDate, endDate);
+            addEqual(terms, ASSIGN_STATUS, query.getAssignStatus());
+            if (query.getStatuses() != null && !query.getStatuses().isEmpty()) {
+                CompressedBitmap any = new CompressedBitmap();
+                for (String status : query.getStatuses()) {
+                    CompressedBitmap bitmap = status == null ? null : dimensions[STATUS].bitmap(status);
+                    if (bitmap != null) {
+                        any = CompressedBitmap.or(any, bitmap);
+                    }
+                }
+                terms.add(any);
+            }
+            addEqual(terms, SOURCE_TYPE, query.getSourceType());
+            addEqual(terms, GENRE, query.getGenre());
+            addEqual(terms, TEAM, query.getTeam());
+            addEqual(terms, CONTENT_TEAM, query.getContentTeam());
+            addEqual(terms, PRODUCER_TEAM, query.getProducerTeam());
+            if (query.getIsProject() != null) {
+                terms.add(equal(IS_PROJECT, query.getIsProject() ? "1" : "0"));
+            }
+            return intersect(terms);
+        }
+
+        /**
+         * 分面计数(见 ScriptFacets): 在公共条件的结果上一次遍历,逐行判断各维度自身的条件
+         */
+        private Map<String, Map<String, Long>> facets(ScriptQuery query, LocalDate startDate, LocalDate endDate) {
+            CompressedBitmap base = intersect(baseTerms(query, startDate, endDate));
+            List<Set<String>> predicates = ScriptFacets.predicates(query);
+            // allowed[d][code + 1]: 该取值满足维度d的条件;维度无条件时为null
+            boolean[][] allowed = new boolean[DIMENSIONS][];
+            int[][] counts = new int[DIMENSIONS][];
+            int[][] codes = new int[DIMENSIONS][];
+            for (int d = 0; d < DIMENSIONS; d++) {
+                Dimension dimension = dimensions[d];
+                counts[d] = new int[dimension.labels.size() + 1];
+                codes[d] = dimension.slots;
+                if (predicates.get(d) != null) {
+                    allowed[d] = new boolean[dimension.labels.size() + 1];
+                    for (String value : predicates.get(d)) {
+                        Integer code = dimension.codes.get(value);
+                        if (code != null) {
+                            allowed[d][code + 1] = true;
+                        }
+                    }
+                }
+            }
+
+            base.forEach(slot -> {
+                int missed = -1;
+                for (int d = 0; d < DIMENSIONS; d++) {
+                    if (allowed[d] != null && !allowed[d][codes[d][slot]]) {
+                        if (missed >= 0) {
+                            return;
+                        }
+                        missed = d;
+                    }
+                }
+                for (int d = 0; d < DIMENSIONS; d++) {
+                    if (missed < 0 || missed == d) {
+                        counts[d][codes[d][slot]]++;
+                    }
+                }
+            });
+
+            List<Map<String, Long>> result = new ArrayList<Map<String, Long>>(DIMENSIONS);
+            for (int d = 0; d < DIMENSIONS; d++) {
+                Map<String, Long> values = new HashMap<String, Long>();
+                // 编码0为NULL,不输出
+                for (int code = 1; code < counts[d].length; code++) {
+                    if (counts[d][code] > 0) {
+                        values.put(dimensions[d].labels.get(code - 1), (long) counts[d][code]);
+                    }
+                }
+                result.add(values);
+            }
+            return ScriptFacets.render(result);
+        }
+
+        /**
+         * 不属于任何分面维度的条件: 选项卡、待评分、日期及评分范围
+         */
+        private List<CompressedBitmap> baseTerms(ScriptQuery query, LocalDate startDate, LocalDate endDate) {
+            List<CompressedBitmap> terms = new ArrayList<CompressedBitmap>();
+            String tab = query.getTab();
+            if ("pending".equals(tab)) {
+                terms.add(unrated);
+            } else if ("claimed".equals(tab)) {
+                terms.add(equal(ASSIGN_STATUS, "待认领"));
+            } else if ("project".equals(tab)) {
+                terms.add(equal(IS_PROJECT, "1"));
+            } else if ("abandoned".equals(tab)) {
+                terms.add(equal(STATUS, "已废弃"));
+            }
+            if (Boolean.TRUE.equals(query.getUnrated())) {
+                terms.add(unrated);
+            }
+            if (startDate != null || endDate != null) {
+                terms.add(submitDates.range(dateKey(startDate),
+                        endDate == null ? Long.MAX_VALUE : dateKey(endDate), sortKeys[SUBMIT_DATE]));
+            }
+            if (query.getMinScore() != null || query.getMaxScore() != null) {
+                terms.add(avgScores.range(
+                        query.getMinScore() == null ? NULL_KEY : scoreBound(query.getMinScore(), RoundingMode.CEILING),
+                        query.getMaxScore() == null ? Long.MAX_VALUE : scoreBound(query.getMaxScore(), RoundingMode.FLOOR),
+                        sortKeys[AVG_SCORE]));
+            }
+            return terms;
+        }
+
+        /**
+         * 求交,结果可能就是内部位图,只能在锁内读取
+         */
+        private CompressedBitmap intersect(List<CompressedBitmap> terms) {
+            if (terms.isEmpty()) {
+                return live;
+            }
+            // 从基数最小的开始求交
+            terms.sort(Comparator.comparingInt(CompressedBitmap::cardinality));
+            CompressedBitmap result = terms.get(0);
+            for (int i = 1; i < terms.size() && !result.isEmpty(); i++) {
+                result = CompressedBitmap.and(result, terms.get(i));
+            }
+            return result;
+        }
+
+        private void addEqual(List<CompressedBitmap> terms, int dimension, String value) {
+            if (hasText(value)) {
+                terms.add(equal(dimension, value));
+            }
+        }
+
+        private CompressedBitmap equal(int dimension, String value) {
+            CompressedBitmap bitmap = dimensions[dimension].bitmap(value);
+            return bitmap == null ? new CompressedBitmap() : bitmap;
+        }
+
+        /**
+         * 按排序键取本页ID: 有游标时取游标之后的 fetchLimit 行,否则取前 offset + fetchLimit 行后跳过offset
+         */
+        private List<Long> top(CompressedBitmap matched, ScriptQuery query, int sortKey) {
+            boolean cursor = query.getCursorId() != null;
+            long wanted = cursor ? query.getFetchLimit() : (long) query.getOffset() + query.getFetchLimit();
+            int k = (int) Math.min(wanted, matched.cardinality());
+            if (k == 0) {
+                return Collections.emptyList();
+            }
+
+            TopK heap = new TopK(k, sortKeys[sortKey], ids, "desc".equals(query.getSortDirection()));
+            if (cursor) {
+                long cursorKey = cursorKey(query.getCursorValue());
+                long cursorId = query.getCursorId();
+                matched.forEach(slot -> {
+                    if (heap.after(slot, cursorKey, cursorId)) {
+                        heap.offer(slot);
+                    }
+                });
+            } else {
+                matched.forEach(heap::offer);
+            }
+
+            int[] ordered = heap.drain();
+            int skip = cursor ? 0 : Math.min(query.getOffset(), ordered.length);
+            List<Long> result = new ArrayList<Long>(ordered.length - skip);
+            for (int i = skip; i < ordered.length; i++) {
+                result.add(ids[ordered[i]]);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 有界堆: 保留排序最靠前的k个槽位,堆顶为其中最靠后的一个
+     */
+    private static final class TopK {
+        private final int[] heap;
+        private final long[] keys;
+        private final long[] ids;
+        private final boolean descending;
+        private int size;
+
+        private TopK(int capacity, long[] keys, long[] ids, boolean descending) {
+            this.heap = new int[capacity];
+            this.keys = keys;
+            this.ids = ids;
+            this.descending = descending;
+        }
+
+        /**
+         * 槽位a是否排在b之前(排序键相同时按ID同向排序)
+         */
+        private boolean precedes(int a, int b) {
+            long ka = keys[a];
+            long kb = keys[b];
+            if (ka != kb) {
+                return descending ? ka > kb : ka < kb;
+            }
+            return descending ? ids[a] > ids[b] : ids[a] < ids[b];
+        }
+
+        /**
+         * 槽位是否排在游标 (cursorKey, cursorId) 之后
+         */
+        private boolean after(int slot, long cursorKey, long cursorId) {
+            long key = keys[slot];
+            if (key != cursorKey) {
+                return descending ? key < cursorKey : key > cursorKey;
+            }
+            return descending ? ids[slot] < cursorId : ids[slot] > cursorId;
+        }
+
+        private void offer(int slot) {
+            if (size < heap.length) {
+                heap[size] = slot;
+                siftUp(size++);
+            } else if (precedes(slot, heap[0])) {
+                heap[0] = slot;
+                siftDown(0);
+            }
+        }
+
+        /**
+         * 按排序顺序取出全部槽位
+         */
+        private int[] drain() {
+            int[] result = new int[size];
+            for (int i = result.length - 1; i >= 0; i--) {
+                result[i] = heap[0];
+                heap[0] = heap[--size];
+                siftDown(0);
+            }
+            return result;
+        }
+
+        private void siftUp(int i) {
+            int slot = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!precedes(heap[parent], slot)) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = slot;
+        }
+
+        private void siftDown(int i) {
+            if (size == 0) {
+                return;
+            }
+            int slot = heap[i];
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && precedes(heap[child], heap[child + 1])) {
+                    child++;
+                }
+                if (!precedes(slot, heap[child])) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = slot;
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.deepdrama.cache;
+
+import com.deepdrama.dto.ScriptStatsRow;
+import com.deepdrama.entity.Script;
+import com.deepdrama.mapper.ScriptMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 剧本统计日汇总
+ *
+ * 按提交日期分桶,分别对 status / source_type / content_team 维护
+ * 剧本数、平均分之和、已评分剧本数。任意日期区间的分布由区间内各日桶相加得到,不再扫描剧本表。
+ * 启动时全量构建,剧本写入和评分写入后增量维护,并定期全量重建修正偏差。
+ * 全量扫描在锁外进行,扫描期间有增量写入时扫描结果可能缺少这些写入,此时不替换现有数据。
+ * 取值按与数据库排序规则一致的 {@link ScriptOptionsIndex#COLLATION} 分组(忽略大小写和尾部空格),
+ * 同组取值中先出现的一个作为展示值,与原 GROUP BY 的结果一致。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Component
+public class ScriptStatsRollup {
+
+    private static final Logger log = LoggerFactory.getLogger(ScriptStatsRollup.class);
+
+    public static final String STATUS = "status";
+    public static final String SOURCE_TYPE = "source_type";
+    public static final String CONTENT_TEAM = "content_team";
+
+    // 提交日期为空的剧本单独成桶,只在不限日期时计入
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private static final int REBUILD_ATTEMPTS = 3;
+
+    // 空值单独成组并排在最前
+    private static final Comparator<String> VALUE_ORDER = Comparator.nullsFirst(ScriptOptionsIndex.COLLATION);
+
+    @Autowired
+    private ScriptMapper scriptMapper;
+
+    @Autowired
+    private ScriptVersionStamp versionStamp;
+
+    private State state;
+
+    // 收到的增量写入次数(含尚未加载时),用于判断全量扫描期间是否有写入
+    private long writes;
+
+    /**
+     * 查询分布,日期为 yyyy-MM-dd,闭区间,可为空
+     */
+    public synchronized List<Map<String, Object>> distribution(String dimension, String startDate, String endDate) {
+        State current = ensureLoaded();
+        TreeMap<Long, Map<String, Bucket>> days = current.dimensions.get(dimension);
+
+        NavigableMap<Long, Map<String, Bucket>> range;
+        if (isBlank(startDate) && isBlank(endDate)) {
+            range = days;
+        } else {
+            long from = isBlank(startDate) ? NO_DATE + 1 : parseDay(startDate);
+            long to = isBlank(endDate) ? Long.MAX_VALUE : parseDay(endDate);
+            range = from > to ? Collections.<Long, Map<String, Bucket>>emptyNavigableMap()
+                    : days.subMap(from, true, to, true);
+        }
+
+        Map<String, Bucket> merged = new TreeMap<String, Bucket>(VALUE_ORDER);
+        for (Map<String, Bucket> day : range.values()) {
+            for (Map.Entry<String, Bucket> entry : day.entrySet()) {
+                Bucket total = merged.get(entry.getKey());
+                if (total == null) {
+                    total = new Bucket();
+                    merged.put(entry.getKey(), total);
+                }
+                total.merge(entry.getValue());
+            }
+        }
+        return render(dimension, merged);
+    }
+
+    /**
+     * 剧本新增或修改后调用(评分聚合字段沿用已记录的值)
+     */
+    public synchronized void onScriptSaved(Script script) {
+        writes++;
+        if (state == null || script.getId() == null) {
+            return;
+        }
+        Contribution old = state.contributions.get(script.getId());
+        long scoreSumCents;
+        int ratingCount;
+        if (old != null) {
+            scoreSumCents = old.scoreSumCents;
+            ratingCount = old.ratingCount;
+        } else {
+            ratingCount = script.getRatingCount() == null ? 0 : script.getRatingCount();
+            scoreSumCents = ScoreMath.toCents(script.getAvgScore()) * ratingCount;
+        }
+        replace(script.getId(), new Contribution(toDay(script.getSubmitDate()), script.getStatus(),
+                script.getSourceType(), script.getContentTeam(), scoreSumCents, ratingCount));
+    }
+
+    /**
+     * 剧本部分更新后调用,只替换fields中出现的统计维度
+     */
+    public synchronized void onScriptPatched(Long id, Script patch, Set<String> fields) {
+        onScriptsPatched(Collections.singleton(id), patch, fields);
+    }
+
+    /**
+     * 多个剧本按同一内容部分更新后调用(批量流转),整批在一次加锁内完成
+     */
+    public synchronized void onScriptsPatched(Collection<Long> ids, Script patch, Set<String> fields) {
+        writes++;
+        if (state == null) {
+            return;
+        }
+        boolean submitDate = fields.contains("submitDate");
+        boolean status = fields.contains("status");
+        boolean sourceType = fields.contains("sourceType");
+        boolean contentTeam = fields.contains("contentTeam");
+        if (!submitDate && !status && !sourceType && !contentTeam) {
+            return;
+        }
+        for (Long id : ids) {
+            Contribution old = state.contributions.get(id);
+            if (old == null) {
+                continue;
+            }
+            replace(id, new Contribution(submitDate ? toDay(patch.getSubmitDate()) : old.day,
+                    status ? patch.getStatus() : old.status,
+                    sourceType ? patch.getSourceType() : old.sourceType,
+                    contentTeam ? patch.getContentTeam() : old.contentTeam,
+                    old.scoreSumCents, old.ratingCount));
+        }
+    }
+
+    /**
+     * 剧本删除后调用
+     */
+    public synchronized void onScriptDeleted(Long id) {
+        writes++;
+        if (state == null) {
+            return;
+        }
+        replace(id, null);
+    }
+
+    /**
+     * 评分聚合增量变化后调用
+     */
+    public synchronized void onRatingDelta(Long scriptId, BigDecimal scoreDelta, int countDelta) {
+        writes++;
+        if (state == null) {
+            return;
+        }
+        Contribution old = state.contributions.get(scriptId);
+        if (old == null) {
+            return;
+        }
+        replace(scriptId, new Contribution(old.day, old.status, old.sourceType, old.contentTeam,
+                old.scoreSumCents + ScoreMath.toCents(scoreDelta), old.ratingCount + countDelta));
+    }
+
+    /**
+     * 从数据库全量重建(启动时执行,之后定期执行)
+     *
+     * 扫描期间有增量写入,或有已提交但增量尚未维护的写入时,扫描结果与增量不一致,丢弃重试
+     */
+    @Scheduled(fixedDelayString = "${deepdrama.stats.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        for (int attempt = 1; attempt <= REBUILD_ATTEMPTS; attempt++) {
+            long seen;
+            synchronized (this) {
+                seen = writes;
+            }
+            final State fresh = new State();
+            try {
+                scriptMapper.scanStatsRows(context -> {
+                    ScriptStatsRow row = context.getResultObject();
+                    int ratingCount = row.getRatingCount() == null ? 0 : row.getRatingCount();
+                    fresh.add(row.getId(), new Contribution(toDay(row.getSubmitDate()), row.getStatus(),
+                            row.getSourceType(), row.getContentTeam(), ScoreMath.toCents(row.getScoreSum()),
+                            ratingCount));
+                });
+            } catch (Exception e) {
+                log.warn("重建统计汇总失败: {}", e.getMessage());
+                return;
+            }
+            synchronized (this) {
+                boolean quiet = writes == seen && !versionStamp.writesInFlight();
+                if (quiet || (state == null && attempt == REBUILD_ATTEMPTS)) {
+                    // 首次加载没有可保留的数据,重试用尽时仍采用扫描结果
+                    state = fresh;
+                    return;
+                }
+                if (state != null && attempt == REBUILD_ATTEMPTS) {
+                    log.info("重建统计汇总期间持续有写入,本次保留增量维护的数据");
+                }
+            }
+        }
+    }
+
+    private State ensureLoaded() {
+        if (state == null) {
+            rebuild();
+            if (state == null) {
+                throw new IllegalStateException("统计数据尚未加载");
+            }
+        }
+        return state;
+    }
+
+    private void replace(Long id, Contribution next) {
+        Contribution old = state.contributions.remove(id);
+        if (old != null) {
+            state.apply(old, -1);
+        }
+        if (next != null) {
+            state.add(id, next);
+        }
+    }
+
+    private static List<Map<String, Object>> render(String dimension, Map<String, Bucket> merged) {
+        List<Map<String, Object>> result = new ArrayList<Map<String, Object>>();
+        if (CONTENT_TEAM.equals(dimension)) {
+            List<Map.Entry<String, Bucket>> entries = new ArrayList<Map.Entry<String, Bucket>>(merged.entrySet());
+            entries.sort((a, b) -> Long.compare(b.getValue().count, a.getValue().count));
+            for (Map.Entry<String, Bucket> entry : entries) {
+                if (entry.getKey() == null || VALUE_ORDER.compare(entry.getKey(), "") == 0
+                        || entry.getValue().count == 0) {
+                    continue;
+                }
+                Bucket bucket = entry.getValue();
+                Map<String, Object> item = new LinkedHashMap<String, Object>();
+                item.put("team", entry.getKey());
+                item.put("count", bucket.count);
+                item.put("avgScore", BigDecimal.valueOf(bucket.avgScoreCents)
+                        .divide(BigDecimal.valueOf(bucket.count * 100), 2, RoundingMode.HALF_UP));
+                item.put("ratedCount", bucket.ratedCount);
+                result.add(item);
+            }
+            return result;
+        }
+
+        // status / source_type: 与原 GROUP BY 结果保持一致,空值单独成组
+        for (Map.Entry<String, Bucket> entry : merged.entrySet()) {
+            if (entry.getValue().count == 0) {
+                continue;
+            }
+            Map<String, Object> item = new LinkedHashMap<String, Object>();
+            item.put(dimension, entry.getKey());
+            item.put("count", entry.getValue().count);
+            result.add(item);
+        }
+        return result;
+    }
+
+    private static long parseDay(String date) {
+        try {
+            return LocalDate.parse(date.trim()).toEpochDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("日期格式应为yyyy-MM-dd: " + date);
+        }
+    }
+
+    private static long toDay(LocalDate date) {
+        return date == null ? NO_DATE : date.toEpochDay();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    /**
+     * 单个剧本对汇总的贡献
+     */
+    private static final class Contribution {
+        private final long day;
+        private final String status;
+        private final String sourceType;
+        private final String contentTeam;
+        private final long scoreSumCents;
+        private final int ratingCount;
+        private final long avgScoreCents;
+
+        private Contribution(long day, String status, String sourceType, String contentTeam,
+                             long scoreSumCents, int ratingCount) {
+            this.day = day;
+            this.status = status;
+            this.sourceType = sourceType;
+            this.contentTeam = contentTeam;
+            this.scoreSumCents = scoreSumCents;
+            this.ratingCount = ratingCount;
+            this.avgScoreCents = ScoreMath.avgCents(scoreSumCents, ratingCount);
+        }
+    }
+
+    /**
+     * 日桶计数
+     */
+    private static final class Bucket {
+        private long count;
+        private long avgScoreCents;
+        private long ratedCount;
+
+        private void merge(Bucket other) {
+            count += other.count;
+            avgScoreCents += other.avgScoreCents;
+            ratedCount += other.ratedCount;
+        }
+
+        private void add(Contribution contribution, int sign) {
+            count += sign;
+            avgScoreCents += sign * contribution.avgScoreCents;
+            ratedCount += contribution.ratingCount > 0 ? sign : 0;
+        }
+    }
+
+    /**
+     * 汇总状态: 维度 -> 日期 -> 取值 -> 桶
+     */
+    private static final class State {
+        private final Map<Long, Contribution> contributions = new HashMap<Long, Contribution>();
+        private final Map<String, TreeMap<Long, Map<String, Bucket>>> dimensions =
+                new HashMap<String, TreeMap<Long, Map<String, Bucket>>>();
+
+        private State() {
+            dimensions.put(STATUS, new TreeMap<Long, Map<String, Bucket>>());
+            dimensions.put(SOURCE_TYPE, new TreeMap<Long, Map<String, Bucket>>());
+            dimensions.put(CONTENT_TEAM, new TreeMap<Long, Map<String, Bucket>>());
+        }
+
+        private void add(Long id, Contribution contribution) {
+            contributions.put(id, contribution);
+            apply(contribution, 1);
+        }
+
+        private void apply(Contribution contribution, int sign) {
+            apply(STATUS, contribution.day, contribution.status, contribution, sign);
+            apply(SOURCE_TYPE, contribution.day, contribution.sourceType, contribution, sign);
+            apply(CONTENT_TEAM, contribution.day, contribution.contentTeam, contribution, sign);
+        }
+
+        private void apply(String dimension, long day, String value, Contribution contribution, int sign) {
+            TreeMap<Long, Map<String, Bucket>> days = dimensions.get(dimension);
+            Map<String, Bucket> values = days.get(day);
+            if (values == null) {
+                values = new TreeMap<String, Bucket>(VALUE_ORDER);
+                days.put(day, values);
+            }
+            Bucket bucket = values.get(value);
+            if (bucket == null) {
+                bucket = new Bucket();
+                values.put(value, bucket);
+            }
+            bucket.add(contribution, sign);
+            // 清空的桶移除,使展示值始终取自仍存在的剧本
+            if (bucket.count == 0) {
+                values.remove(value);
+            }
+        }
+    }
+}
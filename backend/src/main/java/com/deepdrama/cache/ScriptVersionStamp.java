@@ -0,0 +1,133 @@
+package com.deepdrama.cache;
+
+import com.deepdrama.entity.Script;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 剧本数据版本戳,用于条件GET(ETag / If-None-Match)
+ *
+ * 列表、排行榜: 任何剧本或评分写入提交后递增全局代数,ETag = 启动时间 + 代数 + 查询条件摘要,
+ * 代数不变时无需查询即可返回304。代数在提交后、所有内存状态维护完成后才递增,
+ * 因此读到某一代数的请求不会拿到比该代数更旧的数据。
+ * 这是有意的简化: 代数是全局的,不按查询条件区分,任何一次写入都会使所有列表和排行榜的ETag失效,
+ * 即使该写入不影响某个查询的结果。客户端此时重新取回完整响应,结果正确但304命中率低于按条件
+ * 划分版本的方案;写入频繁时条件GET节省有限,如需更高命中率可按列表缓存的失效标签划分代数。
+ *
+ * 详情: ETag 由剧本自身的 id、version、updated_at 及评分聚合组成。
+ * 评分变化不修改 version 和 updated_at,因此评分人数和平均分也计入ETag。
+ *
+ * 同时记录"已开始提交、内存状态尚未维护完"的写入数。各内存结构全量重建时,
+ * 扫描可能已包含这类写入,其增量随后又会作用到新结构上,因此有这类写入时不替换。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Component
+public class ScriptVersionStamp {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // 区分进程,重启后代数归零不会误判为未修改
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder inFlight = new LongAdder();
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * 标记数据已变化: 在当前事务提交后递增代数,不在事务中时立即递增。
+     * 须在写操作登记完其余提交后回调之后调用。
+     * 在事务中时,从提交前到全部提交后回调执行完都计为进行中的写入。
+     */
+    public void changed() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            generation.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean started;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                inFlight.increment();
+                started = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                generation.incrementAndGet();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (started) {
+                    inFlight.decrement();
+                }
+            }
+        });
+    }
+
+    /**
+     * 不在单个事务内完成的写入(分块提交后统一维护内存状态)在第一次提交前调用,
+     * 维护完成后调用 writeFinished
+     */
+    public void writeStarted() {
+        inFlight.increment();
+    }
+
+    public void writeFinished() {
+        inFlight.decrement();
+    }
+
+    /**
+     * 是否有已开始提交但内存状态尚未维护完的写入
+     */
+    public boolean writesInFlight() {
+        return inFlight.sum() != 0;
+    }
+
+    /**
+     * 列表类响应的弱ETag
+     *
+     * @param scope 响应类型,如 list / rankings
+     * @param key   规范化的查询条件
+     */
+    public String etag(String scope, String key) {
+        return "W/\"" + scope + "-" + epoch + "-" + generation.get() + "-" + Long.toHexString(hash(key)) + "\"";
+    }
+
+    /**
+     * 剧本详情的弱ETag
+     */
+    public static String etag(Script script) {
+        LocalDateTime updatedAt = script.getUpdatedAt();
+        return "W/\"" + script.getId()
+                + "-" + script.getVersion()
+                + "-" + (updatedAt == null ? "" : updatedAt.toString())
+                + "-" + script.getRatingCount()
+                + "-" + (script.getAvgScore() == null ? "" : script.getAvgScore().toPlainString()) + "\"";
+    }
+
+    /**
+     * FNV-1a 64位摘要
+     */
+    private static long hash(String key) {
+        long hash = FNV_OFFSET;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,86 @@
+package com.deepdrama.common;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+
+/**
+ * 日期解析与格式化
+ *
+ * 使用不可变、线程安全的 DateTimeFormatter,可在多线程间共享,替代 SimpleDateFormat。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public final class Dates {
+
+    public static final String DATE_PATTERN = "yyyy-MM-dd";
+    public static final String DATE_TIME_PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    public static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern(DATE_PATTERN);
+    public static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern(DATE_TIME_PATTERN);
+
+    // 解析时允许月、日为一位数(2026-1-5),并拒绝 2026-02-30 这类不存在的日期
+    private static final DateTimeFormatter DATE_INPUT =
+            DateTimeFormatter.ofPattern("uuuu-M-d").withResolverStyle(ResolverStyle.STRICT);
+
+    private Dates() {}
+
+    /**
+     * 解析日期,空值返回null
+     *
+     * @param field 字段名,用于错误信息
+     * @throws IllegalArgumentException 格式错误或日期不存在
+     */
+    public static LocalDate parseDate(String field, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        String text = value.trim();
+        try {
+            // 常见的 yyyy-MM-dd 直接按位取数,不走格式化器
+            if (text.length() == 10 && text.charAt(4) == '-' && text.charAt(7) == '-') {
+                int year = digits(text, 0, 4);
+                int month = digits(text, 5, 7);
+                int day = digits(text, 8, 10);
+                if (year >= 0 && month >= 0 && day >= 0) {
+                    return LocalDate.of(year, month, day);
+                }
+            }
+            return LocalDate.parse(text, DATE_INPUT);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException(field + "格式应为" + DATE_PATTERN + ": " + value);
+        }
+    }
+
+    /**
+     * 解析[from, to)内的十进制数字,含非数字字符时返回-1
+     */
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * 格式化为 yyyy-MM-dd,空值返回null
+     */
+    public static String format(LocalDate date) {
+        return date == null ? null : DATE.format(date);
+    }
+
+    /**
+     * 格式化为 yyyy-MM-dd HH:mm:ss,空值返回null
+     */
+    public static String format(LocalDateTime dateTime) {
+        return dateTime == null ? null : DATE_TIME.format(dateTime);
+    }
+}
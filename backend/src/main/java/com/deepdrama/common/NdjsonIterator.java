@@ -0,0 +1,57 @@
+package com.deepdrama.common;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * NDJSON逐行读取(每行一个JSON对象),边读边解析,不把整个请求体读入内存
+ *
+ * 空行跳过;每行交给 parser 解析,无法解析的行由 parser 返回null,调用方记为无效行。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public class NdjsonIterator<T> implements Iterator<T> {
+
+    private final BufferedReader reader;
+    private final Function<String, T> parser;
+    private String nextLine;
+
+    public NdjsonIterator(BufferedReader reader, Function<String, T> parser) {
+        this.reader = reader;
+        this.parser = parser;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextLine != null) {
+            return true;
+        }
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    nextLine = line;
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String line = nextLine;
+        nextLine = null;
+        return parser.apply(line);
+    }
+}
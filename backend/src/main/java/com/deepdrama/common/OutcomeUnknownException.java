@@ -0,0 +1,16 @@
+package com.deepdrama.common;
+
+/**
+ * 写入已提交但在等待时限内未得到结果: 数据可能已写入也可能未写入,
+ * 调用方应先查询确认,不能当作失败直接重试
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public class OutcomeUnknownException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    public OutcomeUnknownException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,7 @@ package com.deepdrama.common;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 分页结果封装类
@@ -17,6 +18,18 @@ public class PageResult<T> implements Serializable {
     private Integer limit;
     private List<T> list;
     
+    // 游标分页: 下一页游标,没有更多数据时为null
+    private String nextCursor;
+    
+    // 是否还有下一页
+    private Boolean hasMore;
+    
+    // total是否为精确值(false表示来自缓存或未统计)
+    private Boolean totalExact;
+    
+    // 各筛选维度的取值计数(维度 -> 取值 -> 数量),仅在请求facets时返回
+    private Map<String, Map<String, Long>> facets;
+    
     public PageResult() {}
     
     public PageResult(Long total, Integer page, Integer limit, List<T> list) {
@@ -62,4 +75,36 @@ public class PageResult<T> implements Serializable {
     public void setList(List<T> list) {
         this.list = list;
     }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public Boolean getHasMore() {
+        return hasMore;
+    }
+    
+    public void setHasMore(Boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+    
+    public Boolean getTotalExact() {
+        return totalExact;
+    }
+    
+    public void setTotalExact(Boolean totalExact) {
+        this.totalExact = totalExact;
+    }
+    
+    public Map<String, Map<String, Long>> getFacets() {
+        return facets;
+    }
+    
+    public void setFacets(Map<String, Map<String, Long>> facets) {
+        this.facets = facets;
+    }
 }
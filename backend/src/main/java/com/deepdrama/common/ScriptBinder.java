@@ -0,0 +1,268 @@
+package com.deepdrama.common;
+
+import com.deepdrama.dto.ScriptPayload;
+import com.deepdrama.entity.Script;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 剧本请求体绑定器
+ *
+ * 字段表在类加载时一次性建好(字段名 → 位 + 读取方式 + getter/setter方法引用),
+ * 绑定时直接从JSON token流写入 Script,不经过中间Map,也不使用反射。
+ * 新增列时只需在静态块中登记一行。
+ *
+ * 字符串字段兼容原 JSONObject.getString 的行为: 数字、布尔按文本读取,对象、数组按JSON文本读取。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public class ScriptBinder extends StdDeserializer<ScriptPayload> {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final long SCRIPT_ID = 1L;
+    public static final long NAME = 1L << 1;
+    public static final long PREVIEW = 1L << 2;
+    public static final long FILE_URL = 1L << 3;
+    public static final long TAGS = 1L << 4;
+    public static final long SOURCE_TYPE = 1L << 5;
+    public static final long TEAM = 1L << 6;
+    public static final long STATUS = 1L << 7;
+    public static final long GENRE = 1L << 8;
+    public static final long CONTENT_TYPE = 1L << 9;
+    public static final long IS_PROJECT = 1L << 10;
+    public static final long PROJECT_OWNER = 1L << 11;
+    public static final long PROJECT_NAME = 1L << 12;
+    public static final long REMARKS = 1L << 13;
+    public static final long SUBMIT_USER = 1L << 14;
+    public static final long WRITER = 1L << 15;
+    public static final long CONTENT_TEAM = 1L << 16;
+    public static final long PRODUCER = 1L << 17;
+    public static final long PRODUCER_TEAM = 1L << 18;
+    public static final long FEISHU_URL = 1L << 19;
+    public static final long ASSIGN_STATUS = 1L << 20;
+    public static final long SUBMIT_DATE = 1L << 21;
+    public static final long VERSION = 1L << 22;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final Map<String, Binding<?>> BY_NAME = new HashMap<String, Binding<?>>();
+    private static final List<Binding<?>> BINDINGS = new ArrayList<Binding<?>>();
+
+    static {
+        bind(SCRIPT_ID, "scriptId", ScriptBinder::readText, Script::getScriptId, Script::setScriptId);
+        bind(NAME, "name", ScriptBinder::readText, Script::getName, Script::setName);
+        bind(PREVIEW, "preview", ScriptBinder::readText, Script::getPreview, Script::setPreview);
+        bind(FILE_URL, "fileUrl", ScriptBinder::readText, Script::getFileUrl, Script::setFileUrl);
+        bind(TAGS, "tags", ScriptBinder::readText, Script::getTags, Script::setTags);
+        bind(SOURCE_TYPE, "sourceType", ScriptBinder::readText, Script::getSourceType, Script::setSourceType);
+        bind(TEAM, "team", ScriptBinder::readText, Script::getTeam, Script::setTeam);
+        bind(STATUS, "status", ScriptBinder::readText, Script::getStatus, Script::setStatus);
+        bind(GENRE, "genre", ScriptBinder::readText, Script::getGenre, Script::setGenre);
+        bind(CONTENT_TYPE, "contentType", ScriptBinder::readText, Script::getContentType, Script::setContentType);
+        bind(IS_PROJECT, "isProject", ScriptBinder::readInteger, Script::getIsProject, Script::setIsProject);
+        bind(PROJECT_OWNER, "projectOwner", ScriptBinder::readText, Script::getProjectOwner, Script::setProjectOwner);
+        bind(PROJECT_NAME, "projectName", ScriptBinder::readText, Script::getProjectName, Script::setProjectName);
+        bind(REMARKS, "remarks", ScriptBinder::readText, Script::getRemarks, Script::setRemarks);
+        bind(SUBMIT_USER, "submitUser", ScriptBinder::readText, Script::getSubmitUser, Script::setSubmitUser);
+        bind(WRITER, "writer", ScriptBinder::readText, Script::getWriter, Script::setWriter);
+        bind(CONTENT_TEAM, "contentTeam", ScriptBinder::readText, Script::getContentTeam, Script::setContentTeam);
+        bind(PRODUCER, "producer", ScriptBinder::readText, Script::getProducer, Script::setProducer);
+        bind(PRODUCER_TEAM, "producerTeam", ScriptBinder::readText, Script::getProducerTeam, Script::setProducerTeam);
+        bind(FEISHU_URL, "feishuUrl", ScriptBinder::readText, Script::getFeishuUrl, Script::setFeishuUrl);
+        bind(ASSIGN_STATUS, "assignStatus", ScriptBinder::readText, Script::getAssignStatus, Script::setAssignStatus);
+        bind(SUBMIT_DATE, "submitDate", ScriptBinder::readDate, Script::getSubmitDate, Script::setSubmitDate);
+        bind(VERSION, "version", ScriptBinder::readInteger, Script::getVersion, Script::setVersion);
+    }
+
+    public ScriptBinder() {
+        super(ScriptPayload.class);
+    }
+
+    @Override
+    public ScriptPayload deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        return read(parser);
+    }
+
+    /**
+     * 从当前位置读取一个JSON对象;不是对象时跳过该值并记录错误
+     */
+    public static ScriptPayload read(JsonParser parser) throws IOException {
+        ScriptPayload payload = new ScriptPayload();
+        JsonToken token = parser.currentToken();
+        if (token == null) {
+            token = parser.nextToken();
+        }
+
+        String name;
+        if (token == JsonToken.START_OBJECT) {
+            name = parser.nextFieldName();
+        } else if (token == JsonToken.FIELD_NAME) {
+            name = parser.getCurrentName();
+        } else {
+            parser.skipChildren();
+            payload.reject("无法解析为JSON对象");
+            return payload;
+        }
+
+        for (; name != null; name = parser.nextFieldName()) {
+            parser.nextToken();
+            Binding<?> binding = BY_NAME.get(name);
+            if (binding == null) {
+                parser.skipChildren();
+                continue;
+            }
+            try {
+                binding.read(parser, payload.getScript());
+                payload.markPresent(binding.field);
+            } catch (IllegalArgumentException e) {
+                parser.skipChildren();
+                payload.reject(e.getMessage());
+            }
+        }
+        return payload;
+    }
+
+    /**
+     * 解析单个JSON对象文本(NDJSON的一行),JSON格式错误时返回null
+     */
+    public static ScriptPayload parse(String json) {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return read(parser);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 把fields中的字段从from复制到to
+     */
+    public static void copy(Script from, Script to, long fields) {
+        for (Binding<?> binding : BINDINGS) {
+            if ((fields & binding.field) != 0) {
+                binding.copy(from, to);
+            }
+        }
+    }
+
+    /**
+     * 位掩码对应的字段名(属性名),用于Mapper中的动态SET
+     */
+    public static Set<String> names(long fields) {
+        Set<String> names = new LinkedHashSet<String>();
+        for (Binding<?> binding : BINDINGS) {
+            if ((fields & binding.field) != 0) {
+                names.add(binding.name);
+            }
+        }
+        return names;
+    }
+
+    private static <T> void bind(long field, String name, ValueReader<T> reader,
+                                 Function<Script, T> getter, BiConsumer<Script, T> setter) {
+        Binding<T> binding = new Binding<T>(field, name, reader, getter, setter);
+        BY_NAME.put(name, binding);
+        BINDINGS.add(binding);
+    }
+
+    private static String readText(JsonParser parser, String name) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return parser.getText();
+        }
+        // 对象、数组按JSON文本保存(如tags)
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return writer.toString();
+    }
+
+    private static Integer readInteger(JsonParser parser, String name) throws IOException {
+        JsonToken token = parser.currentToken();
+        switch (token) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getValueAsInt();
+            case VALUE_TRUE:
+                return 1;
+            case VALUE_FALSE:
+                return 0;
+            case VALUE_STRING:
+                String text = parser.getText().trim();
+                if (text.isEmpty()) {
+                    return null;
+                }
+                try {
+                    return Integer.valueOf(text);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(name + "应为整数: " + text);
+                }
+            default:
+                throw new IllegalArgumentException(name + "应为整数");
+        }
+    }
+
+    private static LocalDate readDate(JsonParser parser, String name) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            throw new IllegalArgumentException(name + "格式应为" + Dates.DATE_PATTERN);
+        }
+        return Dates.parseDate(name, parser.getText());
+    }
+
+    @FunctionalInterface
+    private interface ValueReader<T> {
+        T read(JsonParser parser, String name) throws IOException;
+    }
+
+    private static final class Binding<T> {
+        private final long field;
+        private final String name;
+        private final ValueReader<T> reader;
+        private final Function<Script, T> getter;
+        private final BiConsumer<Script, T> setter;
+
+        private Binding(long field, String name, ValueReader<T> reader,
+                        Function<Script, T> getter, BiConsumer<Script, T> setter) {
+            this.field = field;
+            this.name = name;
+            this.reader = reader;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        private void read(JsonParser parser, Script script) throws IOException {
+            setter.accept(script, reader.read(parser, name));
+        }
+
+        private void copy(Script from, Script to) {
+            setter.accept(to, getter.apply(from));
+        }
+    }
+}
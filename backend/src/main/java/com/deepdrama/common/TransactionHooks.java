@@ -0,0 +1,32 @@
+package com.deepdrama.common;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务回调工具类
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() {}
+
+    /**
+     * 在当前事务提交后执行;不在事务中时立即执行。
+     * 用于缓存失效等内存状态维护,避免并发读取把提交前的旧数据重新放入缓存
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.deepdrama.controller;
+
+import com.deepdrama.cache.QueryCoalescer;
+import com.deepdrama.cache.ScriptDetailCache;
+import com.deepdrama.cache.ScriptListCache;
+import com.deepdrama.cache.ScriptQueryIndex;
+import com.deepdrama.common.Result;
+import com.deepdrama.metrics.MetricsRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 运行指标Controller
+ * 
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@RestController
+@RequestMapping("/metrics")
+@CrossOrigin(origins = "*")
+public class MetricsController {
+    
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+    
+    @Autowired
+    private ScriptDetailCache detailCache;
+    
+    @Autowired
+    private ScriptQueryIndex queryIndex;
+    
+    @Autowired
+    private ScriptListCache listCache;
+    
+    @Autowired
+    private QueryCoalescer coalescer;
+    
+    /**
+     * 获取运行指标: 接口耗时、SQL耗时及慢查询样本、缓存命中、相同查询合并次数
+     * GET /api/metrics
+     */
+    @GetMapping
+    public Result<Map<String, Object>> getMetrics() {
+        try {
+            Map<String, Object> caches = new LinkedHashMap<>();
+            caches.put("detail", detailCache.stats());
+            caches.put("queryIndex", queryIndex.stats());
+            caches.put("list", listCache.stats());
+            
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("endpoints", metricsRegistry.endpointSnapshot());
+            metrics.put("statements", metricsRegistry.statementSnapshot());
+            metrics.put("caches", caches);
+            metrics.put("coalescing", coalescer.stats());
+            return Result.success(metrics);
+        } catch (Exception e) {
+            return Result.error("查询运行指标失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 清零耗时统计
+     * DELETE /api/metrics
+     */
+    @DeleteMapping
+    public Result<Void> resetMetrics() {
+        try {
+            metricsRegistry.reset();
+            return Result.success("重置成功", null);
+        } catch (Exception e) {
+            return Result.error("重置运行指标失败: " + e.getMessage());
+        }
+    }
+}
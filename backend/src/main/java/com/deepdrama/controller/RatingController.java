@@ -0,0 +1,81 @@
+package com.deepdrama.controller;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.deepdrama.common.OutcomeUnknownException;
+import com.deepdrama.common.PageResult;
+import com.deepdrama.common.Result;
+import com.deepdrama.entity.Rating;
+import com.deepdrama.query.RatingQuery;
+import com.deepdrama.service.RatingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 评分管理Controller
+ * 
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@RestController
+@RequestMapping("/ratings")
+@CrossOrigin(origins = "*")
+public class RatingController {
+    
+    @Autowired
+    private RatingService ratingService;
+    
+    /**
+     * 获取评分记录列表(带分页和筛选)
+     * POST /api/ratings
+     */
+    @PostMapping
+    public Result<PageResult<Rating>> getRatings(@RequestBody RatingQuery query) {
+        try {
+            PageResult<Rating> result = ratingService.getRatingList(query);
+            return Result.success(result);
+        } catch (IllegalArgumentException e) {
+            return Result.error(400, e.getMessage());
+        } catch (Exception e) {
+            return Result.error("查询评分记录失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 提交评分
+     * POST /api/ratings/create
+     */
+    @PostMapping("/create")
+    public Result<Rating> createRating(@RequestBody JSONObject params) {
+        try {
+            Rating rating = ratingService.createRating(params);
+            return Result.success("评分成功", rating);
+        } catch (IllegalArgumentException e) {
+            return Result.error(400, e.getMessage());
+        } catch (OutcomeUnknownException e) {
+            return Result.error(202, e.getMessage());
+        } catch (Exception e) {
+            return Result.error("提交评分失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 批量提交评分
+     * POST /api/ratings/batch
+     */
+    @PostMapping("/batch")
+    public Result<List<Rating>> createRatings(@RequestBody JSONArray params) {
+        try {
+            List<Rating> ratings = ratingService.createRatings(params);
+            return Result.success("评分成功", ratings);
+        } catch (IllegalArgumentException e) {
+            return Result.error(400, e.getMessage());
+        } catch (OutcomeUnknownException e) {
+            return Result.error(202, e.getMessage());
+        } catch (Exception e) {
+            return Result.error("批量提交评分失败: " + e.getMessage());
+        }
+    }
+}
@@ -1,14 +1,39 @@
 package com.deepdrama.controller;
 
-import com.alibaba.fastjson.JSONObject;
+import com.deepdrama.cache.OptionsSnapshot;
+import com.deepdrama.cache.ScriptVersionStamp;
+import com.deepdrama.common.NdjsonIterator;
 import com.deepdrama.common.PageResult;
 import com.deepdrama.common.Result;
+import com.deepdrama.common.ScriptBinder;
+import com.deepdrama.dto.ImportReport;
+import com.deepdrama.dto.RankingEntry;
+import com.deepdrama.dto.ScriptPayload;
+import com.deepdrama.dto.TransitionRequest;
+import com.deepdrama.dto.TransitionResult;
 import com.deepdrama.entity.Script;
 import com.deepdrama.query.ScriptQuery;
+import com.deepdrama.service.ScriptExportService;
+import com.deepdrama.service.ScriptImportService;
 import com.deepdrama.service.ScriptService;
+import com.deepdrama.service.TabCounterService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
@@ -23,37 +48,120 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class ScriptController {
     
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    
     @Autowired
     private ScriptService scriptService;
     
+    @Autowired
+    private ScriptImportService scriptImportService;
+    
+    @Autowired
+    private ScriptExportService scriptExportService;
+    
+    @Autowired
+    private TabCounterService tabCounterService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ScriptVersionStamp versionStamp;
+    
     /**
-     * 获取剧本列表(带分页和筛选)
+     * 获取剧本列表(带分页和筛选),facets=true 时同时返回各筛选维度的取值计数
      * POST /api/scripts
      */
     @PostMapping
-    public Result<PageResult<Script>> getScripts(@RequestBody ScriptQuery query) {
+    public Result<PageResult<?>> getScripts(@RequestBody ScriptQuery query) {
         try {
-            PageResult<Script> result = scriptService.getScriptList(query);
-            return Result.success(result);
+            return Result.success(listScripts(query));
         } catch (Exception e) {
             return Result.error("查询剧本列表失败: " + e.getMessage());
         }
     }
     
+    /**
+     * 获取剧本列表(查询参数形式,支持条件GET,供轮询使用)
+     * GET /api/scripts?page=1&limit=10&statuses=改稿中&statuses=终稿
+     */
+    @GetMapping
+    public ResponseEntity<Result<PageResult<?>>> getScriptsByParams(ScriptQuery query, WebRequest request) {
+        try {
+            // 数据未变化时不查询,直接返回304
+            String etag = versionStamp.etag("list", query.resultKey());
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .body(Result.success(listScripts(query)));
+        } catch (Exception e) {
+            return ResponseEntity.ok(Result.<PageResult<?>>error("查询剧本列表失败: " + e.getMessage()));
+        }
+    }
+    
+    private PageResult<?> listScripts(ScriptQuery query) {
+        // fields=summary 时只返回列表展示字段
+        return query.isSummaryFields()
+                ? scriptService.getScriptSummaryList(query)
+                : scriptService.getScriptList(query);
+    }
+    
+    /**
+     * 按筛选条件流式导出剧本(CSV或NDJSON)
+     * POST /api/scripts/export?format=csv
+     */
+    @PostMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportScripts(@RequestBody ScriptQuery query,
+                                                               @RequestParam(defaultValue = "csv") String format)
+            throws JsonProcessingException {
+        MediaType contentType;
+        if (ScriptExportService.FORMAT_CSV.equals(format)) {
+            contentType = new MediaType("text", "csv", StandardCharsets.UTF_8);
+        } else if (ScriptExportService.FORMAT_NDJSON.equals(format)) {
+            contentType = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+        } else {
+            // 返回类型须为 ResponseEntity<StreamingResponseBody> 才会走流式写出,错误信息也以流的形式写出
+            byte[] error = objectMapper.writeValueAsBytes(Result.error(400, "不支持的导出格式: " + format));
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> out.write(error));
+        }
+        
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            scriptExportService.exportScripts(query, format, writer);
+        };
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=scripts." + format)
+                .body(body);
+    }
+    
     /**
      * 获取剧本详情
      * GET /api/scripts/{id}
      */
     @GetMapping("/{id}")
-    public Result<Script> getScriptById(@PathVariable Long id) {
+    public ResponseEntity<Result<Script>> getScriptById(@PathVariable Long id, WebRequest request) {
         try {
+            // 详情缓存命中时不访问数据库
             Script script = scriptService.getScriptById(id);
             if (script == null) {
-                return Result.error(404, "剧本不存在");
+                return ResponseEntity.ok(Result.error(404, "剧本不存在"));
+            }
+            String etag = ScriptVersionStamp.etag(script);
+            if (request.checkNotModified(etag)) {
+                return null;
             }
-            return Result.success(script);
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .body(Result.success(script));
         } catch (Exception e) {
-            return Result.error("查询剧本详情失败: " + e.getMessage());
+            return ResponseEntity.ok(Result.<Script>error("查询剧本详情失败: " + e.getMessage()));
         }
     }
     
@@ -62,27 +170,81 @@ public class ScriptController {
      * POST /api/scripts/create
      */
     @PostMapping("/create")
-    public Result<Script> createScript(@RequestBody JSONObject params) {
+    public Result<Script> createScript(@RequestBody ScriptPayload payload) {
         try {
-            Script script = scriptService.createScript(params);
+            Script script = scriptService.createScript(payload);
             return Result.success("创建成功", script);
+        } catch (IllegalArgumentException e) {
+            return Result.error(400, e.getMessage());
         } catch (Exception e) {
             return Result.error("创建剧本失败: " + e.getMessage());
         }
     }
     
+    /**
+     * 批量导入剧本(JSON数组)
+     * POST /api/scripts/import
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Result<ImportReport> importScripts(@RequestBody List<ScriptPayload> rows) {
+        try {
+            // 非对象元素绑定为带错误的记录,null元素记为无效行
+            ImportReport report = scriptImportService.importScripts(rows.iterator());
+            return Result.success("导入完成", report);
+        } catch (Exception e) {
+            return Result.error("导入剧本失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 批量导入剧本(NDJSON,每行一个JSON对象,边读边写入)
+     * POST /api/scripts/import
+     */
+    @PostMapping(value = "/import", consumes = NDJSON_VALUE)
+    public Result<ImportReport> importScriptsNdjson(HttpServletRequest request) {
+        try {
+            ImportReport report = scriptImportService.importScripts(new NdjsonIterator<>(request.getReader(), ScriptBinder::parse));
+            return Result.success("导入完成", report);
+        } catch (Exception e) {
+            return Result.error("导入剧本失败: " + e.getMessage());
+        }
+    }
+    
     /**
      * 更新剧本
      * PUT /api/scripts/{id}
      */
     @PutMapping("/{id}")
-    public Result<Script> updateScript(@PathVariable Long id, @RequestBody JSONObject params) {
+    public Result<Script> updateScript(@PathVariable Long id, @RequestBody ScriptPayload payload) {
         try {
-            Script script = scriptService.updateScript(id, params);
+            Script script = scriptService.updateScript(id, payload);
             if (script == null) {
                 return Result.error(404, "剧本不存在");
             }
             return Result.success("更新成功", script);
+        } catch (IllegalArgumentException e) {
+            return Result.error(400, e.getMessage());
+        } catch (Exception e) {
+            return Result.error("更新剧本失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 部分更新剧本(只更新提交的字段,可带version做乐观锁校验)
+     * PATCH /api/scripts/{id}
+     */
+    @PatchMapping("/{id}")
+    public Result<Void> patchScript(@PathVariable Long id, @RequestBody ScriptPayload payload) {
+        try {
+            boolean success = scriptService.patchScript(id, payload);
+            if (!success) {
+                return Result.error(404, "剧本不存在");
+            }
+            return Result.success("更新成功", null);
+        } catch (OptimisticLockingFailureException e) {
+            return Result.error(409, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return Result.error(400, e.getMessage());
         } catch (Exception e) {
             return Result.error("更新剧本失败: " + e.getMessage());
         }
@@ -105,17 +267,66 @@ public class ScriptController {
         }
     }
     
+    /**
+     * 批量状态流转
+     * POST /api/scripts/transition
+     */
+    @PostMapping("/transition")
+    public Result<TransitionResult> transitionScripts(@RequestBody TransitionRequest request) {
+        try {
+            TransitionResult result = scriptService.transitionScripts(request);
+            return Result.success("流转完成", result);
+        } catch (IllegalArgumentException e) {
+            return Result.error(400, e.getMessage());
+        } catch (Exception e) {
+            return Result.error("批量流转失败: " + e.getMessage());
+        }
+    }
+    
     /**
      * 获取剧本排行榜
      * GET /api/scripts/rankings
      */
     @GetMapping("/rankings")
-    public Result<List<Script>> getRankings(@RequestParam(defaultValue = "50") Integer limit) {
+    public ResponseEntity<Result<List<Script>>> getRankings(@RequestParam(defaultValue = "50") Integer limit,
+                                                            WebRequest request) {
         try {
+            String etag = versionStamp.etag("rankings", "limit=" + limit);
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
             List<Script> rankings = scriptService.getRankings(limit);
-            return Result.success(rankings);
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .body(Result.success(rankings));
         } catch (Exception e) {
-            return Result.error("查询排行榜失败: " + e.getMessage());
+            return ResponseEntity.ok(Result.<List<Script>>error("查询排行榜失败: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * 获取剧本名次及前后名次
+     * GET /api/scripts/rankings/{id}
+     */
+    @GetMapping("/rankings/{id}")
+    public ResponseEntity<Result<List<RankingEntry>>> getRankingNeighbours(
+            @PathVariable Long id, @RequestParam(defaultValue = "5") Integer radius, WebRequest request) {
+        try {
+            String etag = versionStamp.etag("rankings", "id=" + id + "&radius=" + radius);
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+            List<RankingEntry> neighbours = scriptService.getRankingNeighbours(id, radius);
+            if (neighbours == null) {
+                return ResponseEntity.ok(Result.error(404, "剧本不存在"));
+            }
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .body(Result.success(neighbours));
+        } catch (Exception e) {
+            return ResponseEntity.ok(Result.<List<RankingEntry>>error("查询剧本名次失败: " + e.getMessage()));
         }
     }
     
@@ -124,12 +335,32 @@ public class ScriptController {
      * GET /api/scripts/options
      */
     @GetMapping("/options")
-    public Result<Map<String, List<String>>> getOptions() {
+    public ResponseEntity<Result<Map<String, List<String>>>> getOptions(WebRequest request) {
+        try {
+            OptionsSnapshot snapshot = scriptService.getOptionsSnapshot();
+            // If-None-Match命中时由Spring直接返回304
+            if (request.checkNotModified(snapshot.getEtag())) {
+                return null;
+            }
+            return ResponseEntity.ok()
+                    .eTag(snapshot.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .body(Result.success(snapshot.getOptions()));
+        } catch (Exception e) {
+            return ResponseEntity.ok(Result.<Map<String, List<String>>>error("查询选项失败: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * 获取选项卡角标计数(pending / claimed / project / abandoned)
+     * GET /api/scripts/tab-counts
+     */
+    @GetMapping("/tab-counts")
+    public Result<Map<String, Long>> getTabCounts() {
         try {
-            Map<String, List<String>> options = scriptService.getOptions();
-            return Result.success(options);
+            return Result.success(tabCounterService.getCounts());
         } catch (Exception e) {
-            return Result.error("查询选项失败: " + e.getMessage());
+            return Result.error("查询选项卡计数失败: " + e.getMessage());
         }
     }
 }
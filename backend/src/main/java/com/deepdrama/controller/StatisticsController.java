@@ -0,0 +1,75 @@
+package com.deepdrama.controller;
+
+import com.deepdrama.common.Result;
+import com.deepdrama.service.StatisticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 统计Controller
+ * 
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@RestController
+@RequestMapping("/statistics")
+@CrossOrigin(origins = "*")
+public class StatisticsController {
+    
+    @Autowired
+    private StatisticsService statisticsService;
+    
+    /**
+     * 获取状态分布
+     * GET /api/statistics/status?startDate=&endDate=
+     */
+    @GetMapping("/status")
+    public Result<List<Map<String, Object>>> getStatusDistribution(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate) {
+        try {
+            return Result.success(statisticsService.getStatusDistribution(startDate, endDate));
+        } catch (IllegalArgumentException e) {
+            return Result.error(400, e.getMessage());
+        } catch (Exception e) {
+            return Result.error("查询状态分布失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 获取来源分布
+     * GET /api/statistics/source?startDate=&endDate=
+     */
+    @GetMapping("/source")
+    public Result<List<Map<String, Object>>> getSourceDistribution(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate) {
+        try {
+            return Result.success(statisticsService.getSourceDistribution(startDate, endDate));
+        } catch (IllegalArgumentException e) {
+            return Result.error(400, e.getMessage());
+        } catch (Exception e) {
+            return Result.error("查询来源分布失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 获取团队分布
+     * GET /api/statistics/team?startDate=&endDate=
+     */
+    @GetMapping("/team")
+    public Result<List<Map<String, Object>>> getTeamDistribution(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate) {
+        try {
+            return Result.success(statisticsService.getTeamDistribution(startDate, endDate));
+        } catch (IllegalArgumentException e) {
+            return Result.error(400, e.getMessage());
+        } catch (Exception e) {
+            return Result.error("查询团队分布失败: " + e.getMessage());
+        }
+    }
+}
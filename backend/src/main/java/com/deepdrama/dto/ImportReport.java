@@ -0,0 +1,99 @@
+package com.deepdrama.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 剧本批量导入报告
+ * 
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public class ImportReport implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private Integer total = 0;
+    private Integer created = 0;
+    private Integer duplicated = 0;
+    private Integer invalid = 0;
+    private Integer failed = 0;
+    private List<ImportRowResult> rows = new ArrayList<>();
+    
+    /**
+     * 记录单行结果并累计
+     */
+    public void record(ImportRowResult result, String status, Long id, String message) {
+        result.setStatus(status);
+        result.setId(id);
+        result.setMessage(message);
+        if (ImportRowResult.CREATED.equals(status)) {
+            created++;
+        } else if (ImportRowResult.DUPLICATE.equals(status)) {
+            duplicated++;
+        } else if (ImportRowResult.INVALID.equals(status)) {
+            invalid++;
+        } else {
+            failed++;
+        }
+    }
+    
+    /**
+     * 追加一行(按输入顺序)
+     */
+    public ImportRowResult addRow(String scriptId) {
+        total++;
+        ImportRowResult result = new ImportRowResult(total, scriptId);
+        rows.add(result);
+        return result;
+    }
+    
+    // Getter and Setter
+    public Integer getTotal() {
+        return total;
+    }
+    
+    public void setTotal(Integer total) {
+        this.total = total;
+    }
+    
+    public Integer getCreated() {
+        return created;
+    }
+    
+    public void setCreated(Integer created) {
+        this.created = created;
+    }
+    
+    public Integer getDuplicated() {
+        return duplicated;
+    }
+    
+    public void setDuplicated(Integer duplicated) {
+        this.duplicated = duplicated;
+    }
+    
+    public Integer getInvalid() {
+        return invalid;
+    }
+    
+    public void setInvalid(Integer invalid) {
+        this.invalid = invalid;
+    }
+    
+    public Integer getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(Integer failed) {
+        this.failed = failed;
+    }
+    
+    public List<ImportRowResult> getRows() {
+        return rows;
+    }
+    
+    public void setRows(List<ImportRowResult> rows) {
+        this.rows = rows;
+    }
+}
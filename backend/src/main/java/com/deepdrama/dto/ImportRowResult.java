@@ -0,0 +1,74 @@
+package com.deepdrama.dto;
+
+import java.io.Serializable;
+
+/**
+ * 导入结果(单行)
+ * 
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public class ImportRowResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    public static final String CREATED = "created";
+    public static final String DUPLICATE = "duplicate";
+    public static final String INVALID = "invalid";
+    public static final String FAILED = "failed";
+    
+    // 第几条记录(从1开始)
+    private Integer row;
+    private String scriptId;
+    // created / duplicate / invalid / failed
+    private String status;
+    private Long id;
+    private String message;
+    
+    public ImportRowResult() {}
+    
+    public ImportRowResult(Integer row, String scriptId) {
+        this.row = row;
+        this.scriptId = scriptId;
+    }
+    
+    // Getter and Setter
+    public Integer getRow() {
+        return row;
+    }
+    
+    public void setRow(Integer row) {
+        this.row = row;
+    }
+    
+    public String getScriptId() {
+        return scriptId;
+    }
+    
+    public void setScriptId(String scriptId) {
+        this.scriptId = scriptId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
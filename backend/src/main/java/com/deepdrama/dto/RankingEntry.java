@@ -0,0 +1,42 @@
+package com.deepdrama.dto;
+
+import com.deepdrama.entity.Script;
+
+import java.io.Serializable;
+
+/**
+ * 排行榜条目(名次 + 剧本)
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public class RankingEntry implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private Integer rank;
+    private Script script;
+    
+    public RankingEntry() {}
+    
+    public RankingEntry(Integer rank, Script script) {
+        this.rank = rank;
+        this.script = script;
+    }
+    
+    // Getter and Setter
+    public Integer getRank() {
+        return rank;
+    }
+    
+    public void setRank(Integer rank) {
+        this.rank = rank;
+    }
+    
+    public Script getScript() {
+        return script;
+    }
+    
+    public void setScript(Script script) {
+        this.script = script;
+    }
+}
@@ -0,0 +1,153 @@
+package com.deepdrama.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 查询索引加载行(仅筛选、排序及评分聚合字段)
+ * 
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public class ScriptIndexRow implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private Long id;
+    private String sourceType;
+    private String team;
+    private String status;
+    private String genre;
+    private String contentTeam;
+    private String producerTeam;
+    private String assignStatus;
+    private Integer isProject;
+    private LocalDate submitDate;
+    private BigDecimal avgScore;
+    private BigDecimal scoreSum;
+    private Integer ratingCount;
+    private LocalDateTime createdAt;
+    private Integer version;
+    
+    // Getter and Setter
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getSourceType() {
+        return sourceType;
+    }
+    
+    public void setSourceType(String sourceType) {
+        this.sourceType = sourceType;
+    }
+    
+    public String getTeam() {
+        return team;
+    }
+    
+    public void setTeam(String team) {
+        this.team = team;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getGenre() {
+        return genre;
+    }
+    
+    public void setGenre(String genre) {
+        this.genre = genre;
+    }
+    
+    public String getContentTeam() {
+        return contentTeam;
+    }
+    
+    public void setContentTeam(String contentTeam) {
+        this.contentTeam = contentTeam;
+    }
+    
+    public String getProducerTeam() {
+        return producerTeam;
+    }
+    
+    public void setProducerTeam(String producerTeam) {
+        this.producerTeam = producerTeam;
+    }
+    
+    public String getAssignStatus() {
+        return assignStatus;
+    }
+    
+    public void setAssignStatus(String assignStatus) {
+        this.assignStatus = assignStatus;
+    }
+    
+    public Integer getIsProject() {
+        return isProject;
+    }
+    
+    public void setIsProject(Integer isProject) {
+        this.isProject = isProject;
+    }
+    
+    public LocalDate getSubmitDate() {
+        return submitDate;
+    }
+    
+    public void setSubmitDate(LocalDate submitDate) {
+        this.submitDate = submitDate;
+    }
+    
+    public BigDecimal getAvgScore() {
+        return avgScore;
+    }
+    
+    public void setAvgScore(BigDecimal avgScore) {
+        this.avgScore = avgScore;
+    }
+    
+    public BigDecimal getScoreSum() {
+        return scoreSum;
+    }
+    
+    public void setScoreSum(BigDecimal scoreSum) {
+        this.scoreSum = scoreSum;
+    }
+    
+    public Integer getRatingCount() {
+        return ratingCount;
+    }
+    
+    public void setRatingCount(Integer ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public Integer getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,61 @@
+package com.deepdrama.dto;
+
+import com.deepdrama.common.ScriptBinder;
+import com.deepdrama.entity.Script;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import java.io.Serializable;
+
+/**
+ * 剧本请求体绑定结果(剧本 + 请求中出现的字段位掩码)
+ * 
+ * 字段值格式错误时不抛出,记录在error中,由调用方决定返回400还是记为无效行。
+ * 
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@JsonDeserialize(using = ScriptBinder.class)
+public class ScriptPayload implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private final Script script = new Script();
+    
+    // 请求中出现的字段,位定义见 ScriptBinder
+    private long present;
+    
+    // 第一个字段格式错误
+    private String error;
+    
+    /**
+     * 字段是否出现在请求中
+     */
+    public boolean has(long field) {
+        return (present & field) != 0;
+    }
+    
+    public void markPresent(long field) {
+        present |= field;
+    }
+    
+    /**
+     * 记录格式错误,只保留第一个
+     */
+    public void reject(String message) {
+        if (error == null) {
+            error = message;
+        }
+    }
+    
+    // Getter
+    public Script getScript() {
+        return script;
+    }
+    
+    public long getPresent() {
+        return present;
+    }
+    
+    public String getError() {
+        return error;
+    }
+}
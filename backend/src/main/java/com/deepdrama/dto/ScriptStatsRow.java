@@ -0,0 +1,80 @@
+package com.deepdrama.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 统计汇总加载行(仅统计维度及评分聚合字段)
+ * 
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public class ScriptStatsRow implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private Long id;
+    private LocalDate submitDate;
+    private String status;
+    private String sourceType;
+    private String contentTeam;
+    private BigDecimal scoreSum;
+    private Integer ratingCount;
+    
+    // Getter and Setter
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public LocalDate getSubmitDate() {
+        return submitDate;
+    }
+    
+    public void setSubmitDate(LocalDate submitDate) {
+        this.submitDate = submitDate;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getSourceType() {
+        return sourceType;
+    }
+    
+    public void setSourceType(String sourceType) {
+        this.sourceType = sourceType;
+    }
+    
+    public String getContentTeam() {
+        return contentTeam;
+    }
+    
+    public void setContentTeam(String contentTeam) {
+        this.contentTeam = contentTeam;
+    }
+    
+    public BigDecimal getScoreSum() {
+        return scoreSum;
+    }
+    
+    public void setScoreSum(BigDecimal scoreSum) {
+        this.scoreSum = scoreSum;
+    }
+    
+    public Integer getRatingCount() {
+        return ratingCount;
+    }
+    
+    public void setRatingCount(Integer ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+}
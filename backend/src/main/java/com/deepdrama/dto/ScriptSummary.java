@@ -0,0 +1,230 @@
+package com.deepdrama.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 剧本列表摘要(仅列表页展示字段,不含简介、备注及文件链接)
+ * 
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public class ScriptSummary implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private Long id;
+    private String scriptId;
+    private String name;
+    private String tags;
+    private String sourceType;
+    private String team;
+    private String status;
+    private String genre;
+    private String contentType;
+    private Integer isProject;
+    private String projectOwner;
+    private String projectName;
+    private String submitUser;
+    private String writer;
+    private String contentTeam;
+    private String producer;
+    private String producerTeam;
+    private String assignStatus;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate submitDate;
+    private BigDecimal avgScore;
+    private Integer ratingCount;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+    
+    // Getter and Setter
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getScriptId() {
+        return scriptId;
+    }
+    
+    public void setScriptId(String scriptId) {
+        this.scriptId = scriptId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getTags() {
+        return tags;
+    }
+    
+    public void setTags(String tags) {
+        this.tags = tags;
+    }
+    
+    public String getSourceType() {
+        return sourceType;
+    }
+    
+    public void setSourceType(String sourceType) {
+        this.sourceType = sourceType;
+    }
+    
+    public String getTeam() {
+        return team;
+    }
+    
+    public void setTeam(String team) {
+        this.team = team;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getGenre() {
+        return genre;
+    }
+    
+    public void setGenre(String genre) {
+        this.genre = genre;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+    
+    public Integer getIsProject() {
+        return isProject;
+    }
+    
+    public void setIsProject(Integer isProject) {
+        this.isProject = isProject;
+    }
+    
+    public String getProjectOwner() {
+        return projectOwner;
+    }
+    
+    public void setProjectOwner(String projectOwner) {
+        this.projectOwner = projectOwner;
+    }
+    
+    public String getProjectName() {
+        return projectName;
+    }
+    
+    public void setProjectName(String projectName) {
+        this.projectName = projectName;
+    }
+    
+    public String getSubmitUser() {
+        return submitUser;
+    }
+    
+    public void setSubmitUser(String submitUser) {
+        this.submitUser = submitUser;
+    }
+    
+    public String getWriter() {
+        return writer;
+    }
+    
+    public void setWriter(String writer) {
+        this.writer = writer;
+    }
+    
+    public String getContentTeam() {
+        return contentTeam;
+    }
+    
+    public void setContentTeam(String contentTeam) {
+        this.contentTeam = contentTeam;
+    }
+    
+    public String getProducer() {
+        return producer;
+    }
+    
+    public void setProducer(String producer) {
+        this.producer = producer;
+    }
+    
+    public String getProducerTeam() {
+        return producerTeam;
+    }
+    
+    public void setProducerTeam(String producerTeam) {
+        this.producerTeam = producerTeam;
+    }
+    
+    public String getAssignStatus() {
+        return assignStatus;
+    }
+    
+    public void setAssignStatus(String assignStatus) {
+        this.assignStatus = assignStatus;
+    }
+    
+    public LocalDate getSubmitDate() {
+        return submitDate;
+    }
+    
+    public void setSubmitDate(LocalDate submitDate) {
+        this.submitDate = submitDate;
+    }
+    
+    public BigDecimal getAvgScore() {
+        return avgScore;
+    }
+    
+    public void setAvgScore(BigDecimal avgScore) {
+        this.avgScore = avgScore;
+    }
+    
+    public Integer getRatingCount() {
+        return ratingCount;
+    }
+    
+    public void setRatingCount(Integer ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
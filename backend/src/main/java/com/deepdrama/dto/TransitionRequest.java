@@ -0,0 +1,62 @@
+package com.deepdrama.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 批量状态流转请求
+ * 
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public class TransitionRequest implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    public static final String FIELD_STATUS = "status";
+    public static final String FIELD_ASSIGN_STATUS = "assignStatus";
+    
+    // 剧本ID列表
+    private List<Long> ids;
+    
+    // 流转字段: status / assignStatus
+    private String field;
+    
+    // 目标状态
+    private String target;
+    
+    // 前置条件: 当前状态必须在其中,为空时不限
+    private List<String> fromStates;
+    
+    // Getter and Setter
+    public List<Long> getIds() {
+        return ids;
+    }
+    
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+    
+    public String getField() {
+        return field;
+    }
+    
+    public void setField(String field) {
+        this.field = field;
+    }
+    
+    public String getTarget() {
+        return target;
+    }
+    
+    public void setTarget(String target) {
+        this.target = target;
+    }
+    
+    public List<String> getFromStates() {
+        return fromStates;
+    }
+    
+    public void setFromStates(List<String> fromStates) {
+        this.fromStates = fromStates;
+    }
+}
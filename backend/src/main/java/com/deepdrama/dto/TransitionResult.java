@@ -0,0 +1,46 @@
+package com.deepdrama.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量状态流转结果
+ * 
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public class TransitionResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    // 已流转的剧本ID
+    private List<Long> updatedIds = new ArrayList<>();
+    
+    // 未流转的剧本ID(不存在、已是目标状态或不满足前置条件)
+    private List<Long> skippedIds = new ArrayList<>();
+    
+    // Getter and Setter
+    public Integer getUpdated() {
+        return updatedIds.size();
+    }
+    
+    public Integer getSkipped() {
+        return skippedIds.size();
+    }
+    
+    public List<Long> getUpdatedIds() {
+        return updatedIds;
+    }
+    
+    public void setUpdatedIds(List<Long> updatedIds) {
+        this.updatedIds = updatedIds;
+    }
+    
+    public List<Long> getSkippedIds() {
+        return skippedIds;
+    }
+    
+    public void setSkippedIds(List<Long> skippedIds) {
+        this.skippedIds = skippedIds;
+    }
+}
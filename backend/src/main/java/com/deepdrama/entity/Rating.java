@@ -1,8 +1,10 @@
 package com.deepdrama.entity;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+
 import java.io.Serializable;
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDateTime;
 
 /**
  * 评分记录实体类
@@ -23,9 +25,12 @@ public class Rating implements Serializable {
     private BigDecimal commercialScore;
     private BigDecimal totalScore;
     private String comments;
-    private Date ratingDate;
-    private Date createdAt;
-    private Date updatedAt;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime ratingDate;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
     
     // 关联字段(非表字段)
     private String scriptName;
@@ -112,27 +117,27 @@ public class Rating implements Serializable {
         this.comments = comments;
     }
     
-    public Date getRatingDate() {
+    public LocalDateTime getRatingDate() {
         return ratingDate;
     }
     
-    public void setRatingDate(Date ratingDate) {
+    public void setRatingDate(LocalDateTime ratingDate) {
         this.ratingDate = ratingDate;
     }
     
-    public Date getCreatedAt() {
+    public LocalDateTime getCreatedAt() {
         return createdAt;
     }
     
-    public void setCreatedAt(Date createdAt) {
+    public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
     
-    public Date getUpdatedAt() {
+    public LocalDateTime getUpdatedAt() {
         return updatedAt;
     }
     
-    public void setUpdatedAt(Date updatedAt) {
+    public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
     
@@ -1,8 +1,11 @@
 package com.deepdrama.entity;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+
 import java.io.Serializable;
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
  * 剧本实体类
@@ -35,11 +38,16 @@ public class Script implements Serializable {
     private String producerTeam;
     private String feishuUrl;
     private String assignStatus;
-    private Date submitDate;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate submitDate;
     private BigDecimal avgScore;
     private Integer ratingCount;
-    private Date createdAt;
-    private Date updatedAt;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+    // 乐观锁版本号,每次修改加1
+    private Integer version;
     
     // Getter and Setter
     public Long getId() {
@@ -218,11 +226,11 @@ public class Script implements Serializable {
         this.assignStatus = assignStatus;
     }
     
-    public Date getSubmitDate() {
+    public LocalDate getSubmitDate() {
         return submitDate;
     }
     
-    public void setSubmitDate(Date submitDate) {
+    public void setSubmitDate(LocalDate submitDate) {
         this.submitDate = submitDate;
     }
     
@@ -242,19 +250,27 @@ public class Script implements Serializable {
         this.ratingCount = ratingCount;
     }
     
-    public Date getCreatedAt() {
+    public LocalDateTime getCreatedAt() {
         return createdAt;
     }
     
-    public void setCreatedAt(Date createdAt) {
+    public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
     
-    public Date getUpdatedAt() {
+    public LocalDateTime getUpdatedAt() {
         return updatedAt;
     }
     
-    public void setUpdatedAt(Date updatedAt) {
+    public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public Integer getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,43 @@
+package com.deepdrama.mapper;
+
+import com.deepdrama.entity.Rating;
+import com.deepdrama.query.RatingQuery;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 评分Mapper接口
+ * 
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Mapper
+public interface RatingMapper {
+    
+    /**
+     * 批量插入评分(单条多行INSERT),回填自增ID
+     */
+    int insertBatch(@Param("ratings") List<Rating> ratings);
+    
+    /**
+     * 分页查询评分ID(按排序键keyset或offset分页)
+     */
+    List<Long> selectPageIds(@Param("query") RatingQuery query);
+    
+    /**
+     * 按ID批量查询评分,含剧本名称和用户姓名
+     */
+    List<Rating> selectByIds(@Param("ids") List<Long> ids);
+    
+    /**
+     * 查询总数
+     */
+    Long selectCount(@Param("query") RatingQuery query);
+    
+    /**
+     * 根据ID查询
+     */
+    Rating selectById(@Param("id") Long id);
+}
@@ -1,12 +1,19 @@
 package com.deepdrama.mapper;
 
+import com.deepdrama.dto.ScriptIndexRow;
+import com.deepdrama.dto.ScriptStatsRow;
+import com.deepdrama.dto.ScriptSummary;
 import com.deepdrama.entity.Script;
 import com.deepdrama.query.ScriptQuery;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 剧本Mapper接口
@@ -22,16 +29,42 @@ public interface ScriptMapper {
      */
     List<Script> selectList(@Param("query") ScriptQuery query);
     
+    /**
+     * 查询剧本列表摘要(带分页,不读取TEXT及链接字段)
+     */
+    List<ScriptSummary> selectSummaryList(@Param("query") ScriptQuery query);
+    
+    /**
+     * 流式扫描筛选结果(按排序条件,不分页)
+     */
+    void scanList(@Param("query") ScriptQuery query, ResultHandler<Script> handler);
+    
     /**
      * 查询总数
      */
     Long selectCount(@Param("query") ScriptQuery query);
     
+    /**
+     * 按筛选维度取值分组计数(status, source_type, genre, team, content_team,
+     * producer_team, assign_status, is_project, cnt)
+     */
+    List<Map<String, Object>> selectFacetGroups(@Param("query") ScriptQuery query);
+    
     /**
      * 根据ID查询
      */
     Script selectById(@Param("id") Long id);
     
+    /**
+     * 根据ID批量查询(不保证顺序)
+     */
+    List<Script> selectByIds(@Param("ids") List<Long> ids);
+    
+    /**
+     * 根据ID批量查询摘要(不保证顺序)
+     */
+    List<ScriptSummary> selectSummaryByIds(@Param("ids") List<Long> ids);
+    
     /**
      * 根据剧本编号查询
      */
@@ -42,46 +75,113 @@ public interface ScriptMapper {
      */
     int insert(@Param("script") Script script);
     
+    /**
+     * 批量新增剧本(多行INSERT,回填ID)
+     */
+    int insertBatch(@Param("scripts") List<Script> scripts);
+    
+    /**
+     * 查询已存在的剧本编号
+     */
+    List<String> selectExistingScriptIds(@Param("scriptIds") Collection<String> scriptIds);
+    
     /**
      * 更新剧本
      */
     int update(@Param("script") Script script);
     
+    /**
+     * 部分更新: 只更新fields中列出的字段(属性名),expectedVersion非空时校验版本号
+     */
+    int patch(@Param("script") Script script, @Param("fields") Set<String> fields,
+              @Param("expectedVersion") Integer expectedVersion);
+    
+    /**
+     * 查询版本号
+     */
+    Integer selectVersion(@Param("id") Long id);
+    
+    /**
+     * 选项卡字段的条件写入: entering为true时只写入原本不属于选项卡的行,否则只写入原本属于的行,
+     * 影响行数为1即该行进入(或离开)了选项卡。column 由服务层白名单给出
+     */
+    int updateTabField(@Param("id") Long id, @Param("column") String column, @Param("value") Object value,
+                       @Param("tabValue") Object tabValue, @Param("entering") boolean entering);
+    
+    /**
+     * 锁定行并读取筛选相关字段(各筛选维度、编剧、制片及评分人数)
+     */
+    Script selectFilterFieldsForUpdate(@Param("id") Long id);
+    
+    /**
+     * 锁定并返回需要流转的剧本(不在目标状态且满足前置条件),只含ID、状态和分配状态
+     */
+    List<Script> selectTransitionCandidates(@Param("ids") List<Long> ids, @Param("column") String column,
+                                            @Param("target") String target,
+                                            @Param("fromStates") List<String> fromStates);
+    
+    /**
+     * 批量写入目标状态
+     */
+    int updateTransition(@Param("ids") List<Long> ids, @Param("column") String column,
+                         @Param("target") String target);
+    
     /**
      * 删除剧本
      */
     int deleteById(@Param("id") Long id);
     
     /**
-     * 获取状态分布
+     * 按增量更新评分聚合(评分总和、评分人数、平均分);
+     * keepPending为true时只更新评分人数不在0与非0之间变化的行
+     */
+    int applyRatingDelta(@Param("scriptId") Long scriptId,
+                         @Param("scoreDelta") BigDecimal scoreDelta,
+                         @Param("countDelta") int countDelta,
+                         @Param("keepPending") boolean keepPending);
+    
+    /**
+     * 查询ID区间内评分聚合与评分表不一致的剧本ID
+     */
+    List<Long> selectRatingAggregateDrift(@Param("fromId") Long fromId, @Param("toId") Long toId);
+    
+    /**
+     * 按评分表重新计算单个剧本的评分聚合
+     */
+    int recomputeRatingAggregate(@Param("id") Long id);
+    
+    /**
+     * 查询最大主键
+     */
+    Long selectMaxId();
+    
+    /**
+     * 流式读取统计维度及评分聚合字段(构建统计汇总)
      */
-    List<Map<String, Object>> getStatusDistribution(@Param("startDate") String startDate, 
-                                                     @Param("endDate") String endDate);
+    void scanStatsRows(ResultHandler<ScriptStatsRow> handler);
     
     /**
-     * 获取来源分布
+     * 流式读取筛选及排序字段(构建查询索引)
      */
-    List<Map<String, Object>> getSourceDistribution(@Param("startDate") String startDate, 
-                                                      @Param("endDate") String endDate);
+    void scanIndexRows(ResultHandler<ScriptIndexRow> handler);
     
     /**
-     * 获取团队分布
+     * 根据ID批量读取筛选及排序字段(增量维护查询索引)
      */
-    List<Map<String, Object>> getTeamDistribution(@Param("startDate") String startDate, 
-                                                    @Param("endDate") String endDate);
+    List<ScriptIndexRow> selectIndexRows(@Param("ids") Collection<Long> ids);
     
     /**
-     * 获取内容团队列表
+     * 获取内容团队及引用数(option_value, ref_count)
      */
-    List<String> getContentTeamOptions();
+    List<Map<String, Object>> getContentTeamOptionCounts();
     
     /**
-     * 获取编剧列表
+     * 获取编剧及引用数(option_value, ref_count)
      */
-    List<String> getWriterOptions();
+    List<Map<String, Object>> getWriterOptionCounts();
     
     /**
-     * 获取制片列表
+     * 获取制片及引用数(option_value, ref_count)
      */
-    List<String> getProducerOptions();
+    List<Map<String, Object>> getProducerOptionCounts();
 }
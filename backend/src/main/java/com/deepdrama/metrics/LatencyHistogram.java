@@ -0,0 +1,118 @@
+package com.deepdrama.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 延迟直方图(微秒)
+ *
+ * 对数-线性分桶: 每个2的幂区间再等分为32个子桶,相对误差约3%,范围1微秒到约19小时。
+ * 记录只做一次数组原子自增,无锁、不分配对象;百分位在读取时由桶计数推算,取桶的上界。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 36;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_KEYS = {"p50", "p90", "p99", "p999"};
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * 记录一次耗时
+     */
+    public void recordNanos(long nanos) {
+        long micros = Math.min(Math.max(nanos / 1000, 0), MAX_VALUE);
+        counts.incrementAndGet(indexOf(micros));
+        total.increment();
+        sum.add(micros);
+        long current = max.get();
+        while (micros > current && !max.compareAndSet(current, micros)) {
+            current = max.get();
+        }
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    /**
+     * 汇总: 次数、平均值、最大值及p50/p90/p99/p999(毫秒)
+     *
+     * 并发记录时各项不是同一时刻的快照,误差在一个桶以内。
+     */
+    public Map<String, Object> snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        result.put("count", count);
+        result.put("meanMs", count == 0 ? 0 : millis(sum.sum() / Math.max(total.sum(), 1)));
+        result.put("maxMs", millis(max.get()));
+        int p = 0;
+        long seen = 0;
+        for (int i = 0; i < BUCKETS && p < PERCENTILES.length; i++) {
+            seen += copy[i];
+            while (p < PERCENTILES.length && count > 0 && seen >= Math.ceil(count * PERCENTILES[p] / 100)) {
+                result.put(PERCENTILE_KEYS[p++], millis(highestValueAt(i)));
+            }
+        }
+        while (p < PERCENTILES.length) {
+            result.put(PERCENTILE_KEYS[p++], 0);
+        }
+        return result;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    /**
+     * 小于32的值各占一个桶;更大的值按最高位确定区间,再取其后5位作为子桶
+     */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * 桶内最大值
+     */
+    static long highestValueAt(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long sub = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    private static double millis(long micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+}
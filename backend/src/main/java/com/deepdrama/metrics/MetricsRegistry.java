@@ -0,0 +1,80 @@
+package com.deepdrama.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 运行指标登记: 按接口的请求耗时、按Mapper语句的SQL耗时
+ *
+ * 指标从启动(或上次重置)起累计,只保存在内存中。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Component
+public class MetricsRegistry {
+
+    @Value("${deepdrama.metrics.slow-sql-ms:200}")
+    private long slowSqlMillis;
+
+    @Value("${deepdrama.metrics.slow-samples:20}")
+    private int slowSamples;
+
+    private final ConcurrentMap<String, LatencyHistogram> endpoints = new ConcurrentHashMap<String, LatencyHistogram>();
+    private final ConcurrentMap<String, StatementMetrics> statements = new ConcurrentHashMap<String, StatementMetrics>();
+
+    /**
+     * 记录一次接口请求耗时
+     *
+     * @param endpoint 请求方法 + 路由模板,如 "GET /scripts/{id}"
+     */
+    public void recordEndpoint(String endpoint, long nanos) {
+        LatencyHistogram histogram = endpoints.get(endpoint);
+        if (histogram == null) {
+            histogram = endpoints.computeIfAbsent(endpoint, key -> new LatencyHistogram());
+        }
+        histogram.recordNanos(nanos);
+    }
+
+    public StatementMetrics statement(String statementId) {
+        StatementMetrics metrics = statements.get(statementId);
+        if (metrics == null) {
+            metrics = statements.computeIfAbsent(statementId, key -> new StatementMetrics(slowSamples));
+        }
+        return metrics;
+    }
+
+    public boolean isSlow(long nanos) {
+        return nanos >= slowSqlMillis * 1_000_000;
+    }
+
+    public Map<String, Object> endpointSnapshot() {
+        Map<String, Object> result = new TreeMap<String, Object>();
+        for (Map.Entry<String, LatencyHistogram> entry : endpoints.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return result;
+    }
+
+    public Map<String, Object> statementSnapshot() {
+        Map<String, Object> result = new TreeMap<String, Object>();
+        for (Map.Entry<String, StatementMetrics> entry : statements.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return result;
+    }
+
+    public void reset() {
+        for (LatencyHistogram histogram : endpoints.values()) {
+            histogram.reset();
+        }
+        for (StatementMetrics metrics : statements.values()) {
+            metrics.reset();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.deepdrama.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 注册接口耗时拦截器
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Configuration
+public class MetricsWebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private EndpointMetricsInterceptor endpointMetricsInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Spring Boot的错误转发不单独统计,耗时已计入原接口
+        registry.addInterceptor(endpointMetricsInterceptor).excludePathPatterns("/error");
+    }
+}
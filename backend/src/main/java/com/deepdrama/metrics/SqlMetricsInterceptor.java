@@ -0,0 +1,83 @@
+package com.deepdrama.metrics;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.regex.Pattern;
+
+/**
+ * MyBatis插件: 按语句ID(如 com.deepdrama.mapper.ScriptMapper.selectList)记录耗时、行数和慢查询样本
+ *
+ * 查询记录返回行数,写操作记录影响行数;使用 ResultHandler 流式读取的查询不计行数。
+ * 慢查询样本只保存SQL模板,不保存参数值。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+                        CacheKey.class, BoundSql.class})
+})
+public class SqlMetricsInterceptor implements Interceptor {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement statement = (MappedStatement) args[0];
+        long start = System.nanoTime();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            long rows = rowCount(result);
+            StatementMetrics metrics = metricsRegistry.statement(statement.getId());
+            metrics.record(elapsed, rows, failed);
+            if (metricsRegistry.isSlow(elapsed)) {
+                BoundSql boundSql = args.length > 5 ? (BoundSql) args[5] : statement.getBoundSql(args[1]);
+                metrics.recordSlow(elapsed, rows, sqlText(boundSql));
+            }
+        }
+    }
+
+    private static long rowCount(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Integer) {
+            return (Integer) result;
+        }
+        return 0;
+    }
+
+    private static String sqlText(BoundSql boundSql) {
+        String sql = WHITESPACE.matcher(boundSql.getSql()).replaceAll(" ").trim();
+        return sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql;
+    }
+}
@@ -0,0 +1,104 @@
+package com.deepdrama.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单条Mapper语句的统计: 耗时直方图、返回/影响行数、失败次数及最近的慢查询样本
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public class StatementMetrics {
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder slowCount = new LongAdder();
+
+    // 慢查询样本环形缓冲,只在慢路径上加锁
+    private final SlowSample[] samples;
+    private int nextSample;
+
+    public StatementMetrics(int sampleSize) {
+        this.samples = new SlowSample[Math.max(sampleSize, 1)];
+    }
+
+    public void record(long nanos, long rowCount, boolean failed) {
+        latency.recordNanos(nanos);
+        if (rowCount > 0) {
+            rows.add(rowCount);
+        }
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    public void recordSlow(long nanos, long rowCount, String sql) {
+        slowCount.increment();
+        SlowSample sample = new SlowSample(System.currentTimeMillis(), nanos / 1_000_000, rowCount, sql);
+        synchronized (samples) {
+            samples[nextSample] = sample;
+            nextSample = (nextSample + 1) % samples.length;
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = latency.snapshot();
+        result.put("rows", rows.sum());
+        result.put("errors", errors.sum());
+        result.put("slow", slowCount.sum());
+
+        // 最近的样本排在前面
+        List<Map<String, Object>> recent = new ArrayList<Map<String, Object>>();
+        synchronized (samples) {
+            for (int i = 1; i <= samples.length; i++) {
+                SlowSample sample = samples[(nextSample - i + samples.length) % samples.length];
+                if (sample != null) {
+                    recent.add(sample.toMap());
+                }
+            }
+        }
+        result.put("slowSamples", recent);
+        return result;
+    }
+
+    public void reset() {
+        latency.reset();
+        rows.reset();
+        errors.reset();
+        slowCount.reset();
+        synchronized (samples) {
+            for (int i = 0; i < samples.length; i++) {
+                samples[i] = null;
+            }
+            nextSample = 0;
+        }
+    }
+
+    private static final class SlowSample {
+        private final long timestamp;
+        private final long elapsedMs;
+        private final long rows;
+        private final String sql;
+
+        private SlowSample(long timestamp, long elapsedMs, long rows, String sql) {
+            this.timestamp = timestamp;
+            this.elapsedMs = elapsedMs;
+            this.rows = rows;
+            this.sql = sql;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<String, Object>();
+            map.put("timestamp", timestamp);
+            map.put("elapsedMs", elapsedMs);
+            map.put("rows", rows);
+            map.put("sql", sql);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.deepdrama.query;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * keyset分页游标编解码
+ *
+ * 游标内容为 {排序列, 排序方向, 最后一行排序键, 最后一行ID} 的Base64(URL安全)编码,
+ * 对客户端不透明。下一页以 (排序键, id) 作为起点做范围查询,无需扫描前面的行。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+final class CursorCodec {
+
+    static final String KEY_COLUMN = "k";
+    static final String KEY_DIRECTION = "d";
+    static final String KEY_VALUE = "v";
+    static final String KEY_ID = "i";
+
+    private CursorCodec() {}
+
+    static String encode(String column, String direction, Object value, Long id) {
+        JSONObject json = new JSONObject(true);
+        json.put(KEY_COLUMN, column);
+        json.put(KEY_DIRECTION, direction);
+        json.put(KEY_VALUE, value);
+        json.put(KEY_ID, id);
+
+        byte[] bytes = json.toJSONString().getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * 解码并校验游标与当前排序方式一致
+     *
+     * @throws IllegalArgumentException 游标格式错误或与当前排序方式不一致
+     */
+    static JSONObject decode(String cursor, String column, String direction) {
+        JSONObject json;
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            json = JSON.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+        if (json == null || json.getLong(KEY_ID) == null) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+        if (!column.equals(json.getString(KEY_COLUMN)) || !direction.equals(json.getString(KEY_DIRECTION))) {
+            throw new IllegalArgumentException("分页游标与当前排序方式不一致");
+        }
+        return json;
+    }
+}
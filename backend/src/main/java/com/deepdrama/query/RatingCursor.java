@@ -0,0 +1,59 @@
+package com.deepdrama.query;
+
+import com.alibaba.fastjson.JSONObject;
+import com.deepdrama.entity.Rating;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 评分记录游标编解码
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public final class RatingCursor {
+
+    private RatingCursor() {}
+
+    /**
+     * 根据本页最后一行生成下一页游标
+     */
+    public static String encode(RatingQuery query, Rating last) {
+        String column = query.getSortColumn();
+        Object value;
+        if ("total_score".equals(column)) {
+            value = last.getTotalScore() == null ? null : last.getTotalScore().toPlainString();
+        } else {
+            value = last.getRatingDate() == null ? null : last.getRatingDate().toString();
+        }
+        return CursorCodec.encode(column, query.getSortDirection(), value, last.getId());
+    }
+
+    /**
+     * 解析查询中的游标并写回排序键;游标为空时不做处理
+     *
+     * @throws IllegalArgumentException 游标格式错误或与当前排序方式不一致
+     */
+    public static void apply(RatingQuery query) {
+        String cursor = query.getCursor();
+        if (cursor == null || cursor.isEmpty()) {
+            return;
+        }
+
+        String column = query.getSortColumn();
+        JSONObject json = CursorCodec.decode(cursor, column, query.getSortDirection());
+        Object value = null;
+        if (json.get(CursorCodec.KEY_VALUE) != null) {
+            try {
+                value = "total_score".equals(column)
+                        ? new BigDecimal(json.getString(CursorCodec.KEY_VALUE))
+                        : LocalDateTime.parse(json.getString(CursorCodec.KEY_VALUE));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+        }
+        query.applyCursor(value, json.getLong(CursorCodec.KEY_ID));
+    }
+}
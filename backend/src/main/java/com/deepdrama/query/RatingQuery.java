@@ -25,14 +25,66 @@ public class RatingQuery implements Serializable {
     private Double maxScore;
     
     // 排序参数
-    private String sortBy;
+    private String sortBy;          // ratingDate(默认) / totalScore
     private String sortOrder = "desc";
     
+    // 游标分页(keyset): 上一页返回的nextCursor
+    private String cursor;
+    
+    // 游标解码后的排序键(由RatingCursor填充,不接受请求绑定)
+    private transient Object cursorValue;
+    private transient Long cursorId;
+    
+    // 是否返回总数;评分记录量大,默认不统计
+    private Boolean withTotal = false;
+    
+    // 多取一行用于判断是否有下一页(由服务层开启)
+    private transient boolean lookAhead;
+    
     // 计算offset
     public Integer getOffset() {
         return (page - 1) * limit;
     }
     
+    /**
+     * 实际查询行数(开启lookAhead时多取一行)
+     */
+    public Integer getFetchLimit() {
+        return lookAhead ? limit + 1 : limit;
+    }
+    
+    /**
+     * 开启多取一行,用于判断hasMore
+     */
+    public void enableLookAhead() {
+        this.lookAhead = true;
+    }
+    
+    /**
+     * 排序列(白名单映射,可直接拼入SQL)
+     */
+    public String getSortColumn() {
+        if ("totalScore".equals(sortBy)) {
+            return "total_score";
+        }
+        return "rating_date";
+    }
+    
+    /**
+     * 排序方向(asc/desc)
+     */
+    public String getSortDirection() {
+        return "asc".equalsIgnoreCase(sortOrder) ? "asc" : "desc";
+    }
+    
+    /**
+     * 设置游标位置(上一页最后一行的排序键和ID)
+     */
+    public void applyCursor(Object value, Long id) {
+        this.cursorValue = value;
+        this.cursorId = id;
+    }
+    
     // Getter and Setter
     public Integer getPage() {
         return page;
@@ -125,4 +177,28 @@ public class RatingQuery implements Serializable {
     public void setSortOrder(String sortOrder) {
         this.sortOrder = sortOrder;
     }
+    
+    public String getCursor() {
+        return cursor;
+    }
+    
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+    
+    public Boolean getWithTotal() {
+        return withTotal;
+    }
+    
+    public void setWithTotal(Boolean withTotal) {
+        this.withTotal = withTotal;
+    }
+    
+    public Object getCursorValue() {
+        return cursorValue;
+    }
+    
+    public Long getCursorId() {
+        return cursorId;
+    }
 }
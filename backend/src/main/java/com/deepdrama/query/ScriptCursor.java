@@ -0,0 +1,98 @@
+package com.deepdrama.query;
+
+import com.alibaba.fastjson.JSONObject;
+import com.deepdrama.dto.ScriptSummary;
+import com.deepdrama.entity.Script;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 剧本列表游标编解码
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public final class ScriptCursor {
+
+    private ScriptCursor() {}
+
+    /**
+     * 根据本页最后一行生成下一页游标
+     */
+    public static String encode(ScriptQuery query, Script last) {
+        return encode(query, last.getId(), last.getAvgScore(), last.getSubmitDate(),
+                last.getRatingCount(), last.getName(), last.getCreatedAt());
+    }
+
+    /**
+     * 根据本页最后一行(摘要)生成下一页游标
+     */
+    public static String encode(ScriptQuery query, ScriptSummary last) {
+        return encode(query, last.getId(), last.getAvgScore(), last.getSubmitDate(),
+                last.getRatingCount(), last.getName(), last.getCreatedAt());
+    }
+
+    /**
+     * 解析查询中的游标并写回排序键;游标为空时不做处理
+     *
+     * @throws IllegalArgumentException 游标格式错误或与当前排序方式不一致
+     */
+    public static void apply(ScriptQuery query) {
+        String cursor = query.getCursor();
+        if (cursor == null || cursor.isEmpty()) {
+            return;
+        }
+        if (query.isRelevanceSort()) {
+            throw new IllegalArgumentException("按相关度排序不支持游标分页");
+        }
+
+        String column = query.getSortColumn();
+        JSONObject json = CursorCodec.decode(cursor, column, query.getSortDirection());
+        query.applyCursor(parseValue(column, json), json.getLong(CursorCodec.KEY_ID));
+    }
+
+    private static String encode(ScriptQuery query, Long id, BigDecimal avgScore, LocalDate submitDate,
+                                 Integer ratingCount, String name, LocalDateTime createdAt) {
+        String column = query.getSortColumn();
+        Object value;
+        if ("avg_score".equals(column)) {
+            value = avgScore == null ? null : avgScore.toPlainString();
+        } else if ("submit_date".equals(column)) {
+            value = submitDate == null ? null : submitDate.toString();
+        } else if ("rating_count".equals(column)) {
+            value = ratingCount;
+        } else if ("name".equals(column)) {
+            value = name;
+        } else {
+            value = createdAt == null ? null : createdAt.toString();
+        }
+        return CursorCodec.encode(column, query.getSortDirection(), value, id);
+    }
+
+    private static Object parseValue(String column, JSONObject json) {
+        if (json.get(CursorCodec.KEY_VALUE) == null) {
+            return null;
+        }
+        if ("avg_score".equals(column)) {
+            return new BigDecimal(json.getString(CursorCodec.KEY_VALUE));
+        }
+        if ("rating_count".equals(column)) {
+            return json.getInteger(CursorCodec.KEY_VALUE);
+        }
+        if ("name".equals(column)) {
+            return json.getString(CursorCodec.KEY_VALUE);
+        }
+        // submit_date / created_at 以ISO-8601字符串保存
+        try {
+            if ("submit_date".equals(column)) {
+                return LocalDate.parse(json.getString(CursorCodec.KEY_VALUE));
+            }
+            return LocalDateTime.parse(json.getString(CursorCodec.KEY_VALUE));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+    }
+}
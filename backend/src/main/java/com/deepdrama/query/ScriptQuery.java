@@ -1,7 +1,9 @@
 package com.deepdrama.query;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.TreeSet;
 
 /**
  * 剧本查询条件类
@@ -41,11 +43,169 @@ public class ScriptQuery implements Serializable {
     private Double minScore;
     private Double maxScore;
     
+    // 游标分页(keyset): 上一页返回的nextCursor
+    private String cursor;
+    
+    // 游标解码后的排序键(由ScriptCursor填充,不接受请求绑定)
+    private transient Object cursorValue;
+    private transient Long cursorId;
+    
+    // 是否返回总数;无限滚动场景可传false跳过COUNT
+    private Boolean withTotal = true;
+    
+    // 返回字段: full(默认,完整字段) / summary(仅列表展示字段,不含TEXT和链接字段)
+    private String fields;
+    
+    // 是否同时返回各筛选维度的取值计数(侧边栏)
+    private Boolean facets;
+    
+    // 多取一行用于判断是否有下一页(由服务层开启)
+    private transient boolean lookAhead;
+    
     // 计算offset
     public Integer getOffset() {
         return (page - 1) * limit;
     }
     
+    /**
+     * 实际查询行数(开启lookAhead时多取一行)
+     */
+    public Integer getFetchLimit() {
+        return lookAhead ? limit + 1 : limit;
+    }
+    
+    /**
+     * 开启多取一行,用于判断hasMore
+     */
+    public void enableLookAhead() {
+        this.lookAhead = true;
+    }
+    
+    /**
+     * 规范化的筛选条件键(不含分页和排序),相同筛选条件得到相同的键
+     */
+    public String filterKey() {
+        StringBuilder sb = new StringBuilder();
+        appendKey(sb, "tab", tab);
+        appendKey(sb, "unrated", Boolean.TRUE.equals(unrated) ? "1" : null);
+        appendKey(sb, "assignStatus", assignStatus);
+        if (statuses != null && !statuses.isEmpty()) {
+            List<String> sorted = new ArrayList<String>(new TreeSet<String>(statuses));
+            appendKey(sb, "statuses", String.join(",", sorted));
+        }
+        appendKey(sb, "sourceType", sourceType);
+        appendKey(sb, "genre", genre);
+        appendKey(sb, "team", team);
+        appendKey(sb, "contentTeam", contentTeam);
+        appendKey(sb, "producerTeam", producerTeam);
+        appendKey(sb, "isProject", isProject == null ? null : (isProject ? "1" : "0"));
+        appendKey(sb, "keyword", keyword);
+        appendKey(sb, "startDate", startDate);
+        appendKey(sb, "endDate", endDate);
+        appendKey(sb, "minScore", minScore == null ? null : minScore.toString());
+        appendKey(sb, "maxScore", maxScore == null ? null : maxScore.toString());
+        return sb.toString();
+    }
+    
+    /**
+     * 规范化的完整查询键(筛选条件 + 排序 + 分页 + 返回字段),相同的键得到相同的结果页
+     */
+    public String resultKey() {
+        StringBuilder sb = new StringBuilder(filterKey());
+        appendKey(sb, "sort", isRelevanceSort() ? "relevance" : getSortColumn() + " " + getSortDirection());
+        appendKey(sb, "cursor", cursor);
+        appendKey(sb, "page", String.valueOf(page));
+        appendKey(sb, "limit", String.valueOf(limit));
+        appendKey(sb, "withTotal", Boolean.FALSE.equals(withTotal) ? "0" : null);
+        appendKey(sb, "fields", isSummaryFields() ? "summary" : null);
+        appendKey(sb, "facets", Boolean.TRUE.equals(facets) ? "1" : null);
+        return sb.toString();
+    }
+    
+    /**
+     * 分面计数的公共条件: 只保留不属于任何筛选维度的条件(选项卡、待评分、关键词、日期及评分范围)
+     */
+    public ScriptQuery facetBase() {
+        ScriptQuery base = new ScriptQuery();
+        base.tab = tab;
+        base.unrated = unrated;
+        base.keyword = keyword;
+        base.startDate = startDate;
+        base.endDate = endDate;
+        base.minScore = minScore;
+        base.maxScore = maxScore;
+        return base;
+    }
+    
+    private static void appendKey(StringBuilder sb, String name, String value) {
+        // 空字符串与null在SQL中同样不生效
+        if (value != null && !value.isEmpty()) {
+            sb.append(name).append('=').append(value).append('&');
+        }
+    }
+    
+    /**
+     * 排序列(白名单映射,可直接拼入SQL)
+     */
+    public String getSortColumn() {
+        if ("avgScore".equals(sortBy)) {
+            return "avg_score";
+        }
+        if ("submitDate".equals(sortBy)) {
+            return "submit_date";
+        }
+        if ("ratingCount".equals(sortBy)) {
+            return "rating_count";
+        }
+        if ("name".equals(sortBy)) {
+            return "name";
+        }
+        return "created_at";
+    }
+    
+    /**
+     * 全文检索表达式(BOOLEAN MODE短语),去掉检索运算符后不足两个字符时返回null,
+     * 此时回退为LIKE匹配(ngram分词最小粒度为2)
+     */
+    public String getSearchExpression() {
+        if (keyword == null) {
+            return null;
+        }
+        String term = keyword.replaceAll("[+\\-<>()~*\"@]", " ").trim();
+        if (term.length() < 2) {
+            return null;
+        }
+        return "\"" + term + "\"";
+    }
+    
+    /**
+     * 是否按相关度排序: 显式指定relevance,或有关键词且未指定排序时默认按相关度
+     */
+    public boolean isRelevanceSort() {
+        if (getSearchExpression() == null) {
+            return false;
+        }
+        return "relevance".equals(sortBy) || sortBy == null || sortBy.isEmpty();
+    }
+    
+    /**
+     * 排序方向(asc/desc),默认按创建时间倒序
+     */
+    public String getSortDirection() {
+        if ("created_at".equals(getSortColumn())) {
+            return "desc";
+        }
+        return "asc".equalsIgnoreCase(sortOrder) ? "asc" : "desc";
+    }
+    
+    /**
+     * 设置游标位置(上一页最后一行的排序键和ID)
+     */
+    public void applyCursor(Object value, Long id) {
+        this.cursorValue = value;
+        this.cursorId = id;
+    }
+    
     // Getter and Setter
     public Integer getPage() {
         return page;
@@ -202,4 +362,51 @@ public class ScriptQuery implements Serializable {
     public void setMaxScore(Double maxScore) {
         this.maxScore = maxScore;
     }
+    
+    public String getCursor() {
+        return cursor;
+    }
+    
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+    
+    public Boolean getWithTotal() {
+        return withTotal;
+    }
+    
+    public void setWithTotal(Boolean withTotal) {
+        this.withTotal = withTotal;
+    }
+    
+    public String getFields() {
+        return fields;
+    }
+    
+    public void setFields(String fields) {
+        this.fields = fields;
+    }
+    
+    public Boolean getFacets() {
+        return facets;
+    }
+    
+    public void setFacets(Boolean facets) {
+        this.facets = facets;
+    }
+    
+    /**
+     * 是否只返回列表摘要字段
+     */
+    public boolean isSummaryFields() {
+        return "summary".equals(fields);
+    }
+    
+    public Object getCursorValue() {
+        return cursorValue;
+    }
+    
+    public Long getCursorId() {
+        return cursorId;
+    }
 }
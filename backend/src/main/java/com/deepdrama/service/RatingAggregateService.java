@@ -0,0 +1,25 @@
+package com.deepdrama.service;
+
+import java.math.BigDecimal;
+
+/**
+ * 评分聚合服务接口
+ *
+ * 剧本表上的 score_sum / rating_count / avg_score 由应用按增量维护,
+ * 所有评分写操作必须在同一事务中调用本服务。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public interface RatingAggregateService {
+
+    /**
+     * 按增量更新(批量写入时每个剧本合并为一次调用)
+     */
+    void applyDelta(Long scriptId, BigDecimal scoreDelta, int countDelta);
+
+    /**
+     * 与评分表对账并修正偏差,返回修正的剧本数
+     */
+    int reconcile();
+}
@@ -0,0 +1,33 @@
+package com.deepdrama.service;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.deepdrama.common.PageResult;
+import com.deepdrama.entity.Rating;
+import com.deepdrama.query.RatingQuery;
+
+import java.util.List;
+
+/**
+ * 评分服务接口
+ * 
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public interface RatingService {
+    
+    /**
+     * 获取评分记录列表(带分页)
+     */
+    PageResult<Rating> getRatingList(RatingQuery query);
+    
+    /**
+     * 提交单条评分
+     */
+    Rating createRating(JSONObject params);
+    
+    /**
+     * 批量提交评分(全部校验通过后写入)
+     */
+    List<Rating> createRatings(JSONArray params);
+}
@@ -0,0 +1,25 @@
+package com.deepdrama.service;
+
+import com.deepdrama.query.ScriptQuery;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * 剧本导出Service接口
+ * 
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public interface ScriptExportService {
+    
+    String FORMAT_CSV = "csv";
+    String FORMAT_NDJSON = "ndjson";
+    
+    /**
+     * 按筛选条件和排序导出全部剧本,逐行写出(忽略分页参数)
+     *
+     * @param format csv / ndjson
+     */
+    void exportScripts(ScriptQuery query, String format, Writer writer) throws IOException;
+}
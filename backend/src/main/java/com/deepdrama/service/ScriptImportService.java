@@ -0,0 +1,22 @@
+package com.deepdrama.service;
+
+import com.deepdrama.dto.ImportReport;
+import com.deepdrama.dto.ScriptPayload;
+
+import java.util.Iterator;
+
+/**
+ * 剧本批量导入Service接口
+ * 
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public interface ScriptImportService {
+    
+    /**
+     * 批量导入剧本: 逐行校验、按剧本编号去重、分块多行INSERT,返回逐行结果
+     *
+     * @param rows 待导入的记录,无法解析的记录为null
+     */
+    ImportReport importScripts(Iterator<ScriptPayload> rows);
+}
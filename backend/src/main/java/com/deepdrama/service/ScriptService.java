@@ -1,7 +1,12 @@
 package com.deepdrama.service;
 
-import com.alibaba.fastjson.JSONObject;
+import com.deepdrama.cache.OptionsSnapshot;
 import com.deepdrama.common.PageResult;
+import com.deepdrama.dto.RankingEntry;
+import com.deepdrama.dto.ScriptPayload;
+import com.deepdrama.dto.ScriptSummary;
+import com.deepdrama.dto.TransitionRequest;
+import com.deepdrama.dto.TransitionResult;
 import com.deepdrama.entity.Script;
 import com.deepdrama.query.ScriptQuery;
 
@@ -21,6 +26,11 @@ public interface ScriptService {
      */
     PageResult<Script> getScriptList(ScriptQuery query);
     
+    /**
+     * 获取剧本列表摘要(带分页,仅列表展示字段)
+     */
+    PageResult<ScriptSummary> getScriptSummaryList(ScriptQuery query);
+    
     /**
      * 根据ID获取剧本详情
      */
@@ -29,28 +39,52 @@ public interface ScriptService {
     /**
      * 创建剧本
      */
-    Script createScript(JSONObject params);
+    Script createScript(ScriptPayload payload);
     
     /**
      * 更新剧本
      */
-    Script updateScript(Long id, JSONObject params);
+    Script updateScript(Long id, ScriptPayload payload);
+    
+    /**
+     * 部分更新剧本: 只写入请求中出现的字段;请求带version时做乐观锁校验
+     *
+     * @return 剧本不存在时返回false
+     * @throws org.springframework.dao.OptimisticLockingFailureException 版本号不一致
+     * @throws IllegalArgumentException 字段格式错误或没有可更新的字段
+     */
+    boolean patchScript(Long id, ScriptPayload payload);
     
     /**
      * 删除剧本
      */
     boolean deleteScript(Long id);
     
+    /**
+     * 批量状态流转: 按块执行集合UPDATE,满足前置条件的剧本流转到目标状态
+     */
+    TransitionResult transitionScripts(TransitionRequest request);
+    
     /**
      * 获取排行榜
      */
     List<Script> getRankings(Integer limit);
     
+    /**
+     * 获取剧本名次及前后各radius名,剧本不存在时返回null
+     */
+    List<RankingEntry> getRankingNeighbours(Long id, Integer radius);
+    
     /**
      * 获取筛选选项
      */
     Map<String, List<String>> getOptions();
     
+    /**
+     * 获取筛选选项快照(含ETag)
+     */
+    OptionsSnapshot getOptionsSnapshot();
+    
     /**
      * 获取状态分布
      */
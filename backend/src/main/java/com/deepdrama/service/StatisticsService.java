@@ -0,0 +1,28 @@
+package com.deepdrama.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 统计服务接口
+ * 
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public interface StatisticsService {
+    
+    /**
+     * 获取状态分布
+     */
+    List<Map<String, Object>> getStatusDistribution(String startDate, String endDate);
+    
+    /**
+     * 获取来源分布
+     */
+    List<Map<String, Object>> getSourceDistribution(String startDate, String endDate);
+    
+    /**
+     * 获取团队分布
+     */
+    List<Map<String, Object>> getTeamDistribution(String startDate, String endDate);
+}
@@ -0,0 +1,50 @@
+package com.deepdrama.service;
+
+import com.deepdrama.entity.Script;
+
+import java.util.Map;
+
+/**
+ * 选项卡角标计数服务接口
+ *
+ * 四个选项卡(与 ScriptQuery.tab 一致)的剧本数在内存中按增量维护,
+ * 写操作在事务提交后调用本服务,后台任务定期与数据库对账。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+public interface TabCounterService {
+
+    /** 待评分: rating_count = 0 */
+    String TAB_PENDING = "pending";
+
+    /** 待认领: assign_status = 待认领 */
+    String TAB_CLAIMED = "claimed";
+
+    /** 已立项: is_project = 1 */
+    String TAB_PROJECT = "project";
+
+    /** 已废弃: status = 已废弃 */
+    String TAB_ABANDONED = "abandoned";
+
+    /**
+     * 各选项卡的剧本数(选项卡 -> 数量)
+     */
+    Map<String, Long> getCounts();
+
+    /**
+     * 剧本新增、修改或删除后调整计数;新增时before为null,删除时after为null。
+     * 部分更新时两者只需包含本次修改的字段,未修改的字段均为null即不影响计数
+     */
+    void scriptChanged(Script before, Script after);
+
+    /**
+     * 按写入结果直接调整某个选项卡的计数(delta为+1进入、-1离开)
+     */
+    void adjust(String tab, int delta);
+
+    /**
+     * 按数据库重新统计并修正计数,返回修正的选项卡数
+     */
+    int reconcile();
+}
@@ -0,0 +1,139 @@
+package com.deepdrama.service.impl;
+
+import com.deepdrama.cache.ScriptCountCache;
+import com.deepdrama.cache.ScriptDetailCache;
+import com.deepdrama.cache.ScriptLeaderboard;
+import com.deepdrama.cache.ScriptListCache;
+import com.deepdrama.cache.ScriptQueryIndex;
+import com.deepdrama.cache.ScriptStatsRollup;
+import com.deepdrama.cache.ScriptVersionStamp;
+import com.deepdrama.common.TransactionHooks;
+import com.deepdrama.mapper.ScriptMapper;
+import com.deepdrama.service.RatingAggregateService;
+import com.deepdrama.service.TabCounterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 评分聚合服务实现类
+ *
+ * 每次评分写入只对剧本行做一次 O(1) 的增量UPDATE,不再重扫该剧本的全部评分;
+ * 后台任务按ID区间分批对账,修正因直接改库等原因产生的偏差。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Service
+public class RatingAggregateServiceImpl implements RatingAggregateService {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingAggregateServiceImpl.class);
+
+    @Autowired
+    private ScriptMapper scriptMapper;
+
+    @Autowired
+    private ScriptCountCache countCache;
+
+    @Autowired
+    private ScriptDetailCache detailCache;
+
+    @Autowired
+    private ScriptStatsRollup statsRollup;
+
+    @Autowired
+    private ScriptLeaderboard leaderboard;
+
+    @Autowired
+    private ScriptVersionStamp versionStamp;
+
+    @Autowired
+    private ScriptQueryIndex queryIndex;
+
+    @Autowired
+    private TabCounterService tabCounters;
+
+    @Autowired
+    private ScriptListCache listCache;
+
+    @Value("${deepdrama.rating.reconcile-batch-size:1000}")
+    private long reconcileBatchSize;
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void applyDelta(Long scriptId, BigDecimal scoreDelta, int countDelta) {
+        int pendingChange = writeDelta(scriptId, scoreDelta, countDelta);
+        evictCaches(scriptId);
+        TransactionHooks.afterCommit(() -> {
+            statsRollup.onRatingDelta(scriptId, scoreDelta, countDelta);
+            leaderboard.onRatingDelta(scriptId, scoreDelta, countDelta);
+            queryIndex.onRatingDelta(scriptId, scoreDelta, countDelta);
+            if (pendingChange != 0) {
+                tabCounters.adjust(TabCounterService.TAB_PENDING, pendingChange);
+            }
+            listCache.invalidateRating(scriptId, pendingChange != 0);
+        });
+        versionStamp.changed();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${deepdrama.rating.reconcile-interval-ms:3600000}",
+               initialDelayString = "${deepdrama.rating.reconcile-interval-ms:3600000}")
+    public int reconcile() {
+        Long maxId = scriptMapper.selectMaxId();
+        if (maxId == null) {
+            return 0;
+        }
+
+        int fixed = 0;
+        for (long fromId = 1; fromId <= maxId; fromId += reconcileBatchSize) {
+            long toId = fromId + reconcileBatchSize - 1;
+            List<Long> drifted = scriptMapper.selectRatingAggregateDrift(fromId, toId);
+            for (Long id : drifted) {
+                scriptMapper.recomputeRatingAggregate(id);
+                evictCaches(id);
+                fixed++;
+            }
+        }
+        if (fixed > 0) {
+            log.warn("评分聚合对账修正了{}个剧本", fixed);
+            statsRollup.rebuild();
+            leaderboard.rebuild();
+            queryIndex.rebuild();
+            tabCounters.reconcile();
+            listCache.invalidateAll();
+            versionStamp.changed();
+        }
+        return fixed;
+    }
+
+    /**
+     * 写入评分增量,返回"待评分"计数的变化: 先只更新评分人数不在0与非0之间变化的行,
+     * 未命中时再无条件更新,此时命中即评分人数跨越了0
+     */
+    private int writeDelta(Long scriptId, BigDecimal scoreDelta, int countDelta) {
+        if (countDelta != 0 && scriptMapper.applyRatingDelta(scriptId, scoreDelta, countDelta, true) > 0) {
+            return 0;
+        }
+        int rows = scriptMapper.applyRatingDelta(scriptId, scoreDelta, countDelta, false);
+        if (rows == 0 || countDelta == 0) {
+            return 0;
+        }
+        return countDelta > 0 ? -1 : 1;
+    }
+
+    private void evictCaches(Long scriptId) {
+        // rating_count变化会影响"待评分"等筛选的总数
+        TransactionHooks.afterCommit(() -> {
+            countCache.invalidateAll();
+            detailCache.invalidate(scriptId);
+        });
+    }
+}
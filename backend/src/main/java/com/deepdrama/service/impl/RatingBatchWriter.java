@@ -0,0 +1,233 @@
+package com.deepdrama.service.impl;
+
+import com.deepdrama.entity.Rating;
+import com.deepdrama.mapper.RatingMapper;
+import com.deepdrama.service.RatingAggregateService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 评分微批写入器
+ *
+ * 各请求线程提交的评分以请求为单位(一组)进入队列,由单个写线程按"最多N行或最多等待若干毫秒"攒批,
+ * 每批在一个事务中执行一次多行INSERT,并对每个剧本只做一次评分聚合增量更新。
+ * 整批失败时按组逐个重试,每组一个事务,坏数据只使所在的组失败。
+ * 一组评分不会拆到两批中,要么全部写入,要么全部失败,不会部分写入后返回失败。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Component
+public class RatingBatchWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingBatchWriter.class);
+
+    @Autowired
+    private RatingMapper ratingMapper;
+
+    @Autowired
+    private RatingAggregateService ratingAggregateService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${deepdrama.rating.batch-max-rows:200}")
+    private int maxRows;
+
+    @Value("${deepdrama.rating.batch-max-delay-ms:10}")
+    private long maxDelayMillis;
+
+    @Value("${deepdrama.rating.queue-capacity:10000}")
+    private int queueCapacity;
+
+    private BlockingQueue<Group> queue;
+    // 队列中的评分行数(容量按行计),与入队前的容量检查一起在锁内修改
+    private int queuedRows;
+    private final Object enqueueLock = new Object();
+    private Thread worker;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new LinkedBlockingQueue<Group>();
+        running = true;
+        worker = new Thread(this::runLoop, "rating-batch-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * 提交一条评分,写入完成(含回填ID)后future完成
+     */
+    public CompletableFuture<Rating> submit(Rating rating) {
+        return submitAll(Collections.singletonList(rating)).get(0);
+    }
+
+    /**
+     * 提交一组评分: 队列剩余容量不足以容纳全部评分时整组拒绝;
+     * 入队后整组一起写入,各future同时成功或同时失败
+     */
+    public List<CompletableFuture<Rating>> submitAll(List<Rating> ratings) {
+        if (ratings.size() > queueCapacity) {
+            throw new IllegalArgumentException("单次提交的评分不能超过" + queueCapacity + "条");
+        }
+        Group group = new Group(ratings);
+        synchronized (enqueueLock) {
+            if (!running || queueCapacity - queuedRows < group.size()) {
+                throw new IllegalStateException("评分写入繁忙,请稍后重试");
+            }
+            queue.add(group);
+            queuedRows += group.size();
+        }
+        return group.futures;
+    }
+
+    /**
+     * 取出一组并释放其占用的容量
+     */
+    private Group take(long timeout, TimeUnit unit) throws InterruptedException {
+        Group group = timeout > 0 ? queue.poll(timeout, unit) : queue.poll();
+        if (group != null) {
+            synchronized (enqueueLock) {
+                queuedRows -= group.size();
+            }
+        }
+        return group;
+    }
+
+    private void runLoop() {
+        List<Group> batch = new ArrayList<Group>();
+        while (running || !queue.isEmpty()) {
+            try {
+                Group first = take(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                int rows = first.size();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+                // 整组攒入,一批可能略超过maxRows,但一组不会拆到两批中
+                while (rows < maxRows) {
+                    Group next = take(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    rows += next.size();
+                }
+            } catch (InterruptedException e) {
+                // 停止时中断等待,继续写完已取出和队列中剩余的评分
+                Thread.interrupted();
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    void flush(List<Group> batch) {
+        List<Rating> rows = new ArrayList<Rating>();
+        for (Group group : batch) {
+            rows.addAll(group.ratings);
+        }
+        try {
+            write(rows);
+            for (Group group : batch) {
+                group.complete();
+            }
+            return;
+        } catch (Exception e) {
+            log.warn("评分批量写入失败,改为按组写入: {}", e.getMessage());
+        }
+
+        for (Group group : batch) {
+            try {
+                for (Rating rating : group.ratings) {
+                    rating.setId(null);
+                }
+                write(group.ratings);
+                group.complete();
+            } catch (Exception e) {
+                group.fail(e);
+            }
+        }
+    }
+
+    private void write(List<Rating> rows) {
+        transactionTemplate.execute(status -> {
+            ratingMapper.insertBatch(rows);
+
+            // 每个剧本合并为一次增量更新,按剧本ID顺序加锁避免死锁
+            Map<Long, BigDecimal> sums = new TreeMap<Long, BigDecimal>();
+            Map<Long, Integer> counts = new TreeMap<Long, Integer>();
+            for (Rating rating : rows) {
+                BigDecimal score = rating.getTotalScore() == null ? BigDecimal.ZERO : rating.getTotalScore();
+                BigDecimal sum = sums.get(rating.getScriptId());
+                sums.put(rating.getScriptId(), sum == null ? score : sum.add(score));
+                Integer count = counts.get(rating.getScriptId());
+                counts.put(rating.getScriptId(), count == null ? 1 : count + 1);
+            }
+            for (Map.Entry<Long, BigDecimal> entry : sums.entrySet()) {
+                ratingAggregateService.applyDelta(entry.getKey(), entry.getValue(), counts.get(entry.getKey()));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 一次请求提交的评分,整组写入
+     */
+    static final class Group {
+        private final List<Rating> ratings;
+        private final List<CompletableFuture<Rating>> futures;
+
+        Group(List<Rating> ratings) {
+            this.ratings = ratings;
+            this.futures = new ArrayList<CompletableFuture<Rating>>(ratings.size());
+            for (int i = 0; i < ratings.size(); i++) {
+                futures.add(new CompletableFuture<Rating>());
+            }
+        }
+
+        private int size() {
+            return ratings.size();
+        }
+
+        private void complete() {
+            for (int i = 0; i < ratings.size(); i++) {
+                futures.get(i).complete(ratings.get(i));
+            }
+        }
+
+        private void fail(Exception e) {
+            for (CompletableFuture<Rating> future : futures) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
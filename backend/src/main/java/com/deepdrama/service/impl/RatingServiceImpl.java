@@ -0,0 +1,182 @@
+package com.deepdrama.service.impl;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.deepdrama.common.OutcomeUnknownException;
+import com.deepdrama.common.PageResult;
+import com.deepdrama.entity.Rating;
+import com.deepdrama.mapper.RatingMapper;
+import com.deepdrama.query.RatingCursor;
+import com.deepdrama.query.RatingQuery;
+import com.deepdrama.service.RatingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 评分服务实现类
+ * 
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Service
+public class RatingServiceImpl implements RatingService {
+    
+    private static final BigDecimal MAX_SCORE = new BigDecimal("100");
+    
+    @Autowired
+    private RatingMapper ratingMapper;
+    
+    @Autowired
+    private RatingBatchWriter ratingBatchWriter;
+    
+    @Value("${deepdrama.rating.submit-timeout-ms:5000}")
+    private long submitTimeoutMillis;
+    
+    @Override
+    public PageResult<Rating> getRatingList(RatingQuery query) {
+        // 解析游标(keyset分页)
+        RatingCursor.apply(query);
+        
+        // 先在覆盖索引上取本页ID(多取一行判断是否有下一页)
+        query.enableLookAhead();
+        List<Long> ids = ratingMapper.selectPageIds(query);
+        boolean hasMore = ids.size() > query.getLimit();
+        if (hasMore) {
+            ids = ids.subList(0, query.getLimit());
+        }
+        
+        // 再按ID批量取整行并关联显示字段,按ID顺序还原排序
+        List<Rating> list = new ArrayList<Rating>(ids.size());
+        if (!ids.isEmpty()) {
+            Map<Long, Rating> byId = new HashMap<Long, Rating>();
+            for (Rating rating : ratingMapper.selectByIds(ids)) {
+                byId.put(rating.getId(), rating);
+            }
+            for (Long id : ids) {
+                Rating rating = byId.get(id);
+                if (rating != null) {
+                    list.add(rating);
+                }
+            }
+        }
+        
+        Long total = Boolean.TRUE.equals(query.getWithTotal()) ? ratingMapper.selectCount(query) : null;
+        PageResult<Rating> result = PageResult.of(total, query.getPage(), query.getLimit(), list);
+        result.setHasMore(hasMore);
+        result.setTotalExact(total != null);
+        if (hasMore && !list.isEmpty()) {
+            result.setNextCursor(RatingCursor.encode(query, list.get(list.size() - 1)));
+        }
+        return result;
+    }
+    
+    @Override
+    public Rating createRating(JSONObject params) {
+        Rating rating = toRating(params, null);
+        return await(ratingBatchWriter.submit(rating));
+    }
+    
+    @Override
+    public List<Rating> createRatings(JSONArray params) {
+        if (params == null || params.isEmpty()) {
+            throw new IllegalArgumentException("评分列表不能为空");
+        }
+        
+        // 先全部校验,再统一提交
+        List<Rating> ratings = new ArrayList<Rating>(params.size());
+        for (int i = 0; i < params.size(); i++) {
+            ratings.add(toRating(params.getJSONObject(i), i));
+        }
+        
+        // 整组入队,队列容量不足时整组拒绝,避免部分评分已写入却返回失败
+        List<CompletableFuture<Rating>> futures = ratingBatchWriter.submitAll(ratings);
+        
+        List<Rating> result = new ArrayList<Rating>(futures.size());
+        for (CompletableFuture<Rating> future : futures) {
+            result.add(await(future));
+        }
+        return result;
+    }
+    
+    /**
+     * 使用FastJSON解析并校验评分参数
+     */
+    private Rating toRating(JSONObject params, Integer index) {
+        String prefix = index == null ? "" : "第" + (index + 1) + "条: ";
+        if (params == null) {
+            throw new IllegalArgumentException(prefix + "评分不能为空");
+        }
+        
+        Rating rating = new Rating();
+        rating.setScriptId(params.getLong("scriptId"));
+        rating.setUserId(params.getLong("userId"));
+        rating.setUserRole(params.getString("userRole"));
+        rating.setContentScore(params.getBigDecimal("contentScore"));
+        rating.setMarketScore(params.getBigDecimal("marketScore"));
+        rating.setComplianceScore(params.getBigDecimal("complianceScore"));
+        rating.setCommercialScore(params.getBigDecimal("commercialScore"));
+        rating.setTotalScore(params.getBigDecimal("totalScore"));
+        rating.setComments(params.getString("comments"));
+        
+        if (rating.getScriptId() == null) {
+            throw new IllegalArgumentException(prefix + "scriptId不能为空");
+        }
+        if (rating.getUserId() == null) {
+            throw new IllegalArgumentException(prefix + "userId不能为空");
+        }
+        
+        // 未提供综合评分时取四项分数的平均值
+        if (rating.getTotalScore() == null) {
+            BigDecimal[] parts = {rating.getContentScore(), rating.getMarketScore(),
+                    rating.getComplianceScore(), rating.getCommercialScore()};
+            BigDecimal sum = BigDecimal.ZERO;
+            for (BigDecimal part : parts) {
+                if (part == null) {
+                    throw new IllegalArgumentException(prefix + "缺少综合评分或分项评分");
+                }
+                sum = sum.add(part);
+            }
+            rating.setTotalScore(sum.divide(new BigDecimal(parts.length), 2, RoundingMode.HALF_UP));
+        }
+        
+        checkScore(prefix, "contentScore", rating.getContentScore());
+        checkScore(prefix, "marketScore", rating.getMarketScore());
+        checkScore(prefix, "complianceScore", rating.getComplianceScore());
+        checkScore(prefix, "commercialScore", rating.getCommercialScore());
+        checkScore(prefix, "totalScore", rating.getTotalScore());
+        return rating;
+    }
+    
+    private static void checkScore(String prefix, String field, BigDecimal score) {
+        if (score != null && (score.signum() < 0 || score.compareTo(MAX_SCORE) > 0)) {
+            throw new IllegalArgumentException(prefix + field + "必须在0-100之间");
+        }
+    }
+    
+    private Rating await(CompletableFuture<Rating> future) {
+        try {
+            return future.get(submitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OutcomeUnknownException("等待评分写入时被中断,写入结果未知,请查询评分记录确认后再决定是否重试");
+        } catch (TimeoutException e) {
+            // 评分仍在队列或写入中,稍后可能成功,不能报告为失败
+            throw new OutcomeUnknownException("评分写入超时,写入结果未知,请查询评分记录确认后再决定是否重试");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            throw new IllegalStateException(cause.getMessage(), cause);
+        }
+    }
+}
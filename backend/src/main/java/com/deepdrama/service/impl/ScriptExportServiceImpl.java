@@ -0,0 +1,141 @@
+package com.deepdrama.service.impl;
+
+import com.deepdrama.common.Dates;
+import com.deepdrama.entity.Script;
+import com.deepdrama.mapper.ScriptMapper;
+import com.deepdrama.query.ScriptQuery;
+import com.deepdrama.service.ScriptExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * 剧本导出实现类
+ *
+ * 通过 ResultHandler 逐行读取并立即写出,不在内存中累积结果,内存占用与导出行数无关。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Service
+public class ScriptExportServiceImpl implements ScriptExportService {
+
+    // CSV列,顺序与 fillCsvValues 一致
+    private static final String[] CSV_HEADERS = {
+            "ID", "剧本编号", "剧本名称", "投稿类型", "所属团队", "剧本状态", "剧本分类", "内容类型",
+            "是否立项", "项目归属", "项目名称", "提交人", "编剧", "内容团队", "制片人", "制片团队",
+            "分配状态", "提交日期", "平均综合评分", "评分人数", "标签", "剧本简介", "备注",
+            "剧本文件URL", "飞书文档链接", "创建时间", "更新时间"
+    };
+
+    @Autowired
+    private ScriptMapper scriptMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public void exportScripts(ScriptQuery query, String format, Writer writer) throws IOException {
+        boolean csv = FORMAT_CSV.equals(format);
+        if (!csv && !FORMAT_NDJSON.equals(format)) {
+            throw new IllegalArgumentException("不支持的导出格式: " + format);
+        }
+
+        if (csv) {
+            // BOM,便于Excel识别UTF-8
+            writer.write('\uFEFF');
+            writeCsvLine(writer, CSV_HEADERS);
+        }
+
+        String[] values = new String[CSV_HEADERS.length];
+        scriptMapper.scanList(query, context -> {
+            Script script = context.getResultObject();
+            try {
+                if (csv) {
+                    fillCsvValues(script, values);
+                    writeCsvLine(writer, values);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(script));
+                    writer.write('\n');
+                }
+            } catch (IOException e) {
+                // 客户端断开等写出失败时终止扫描
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    /**
+     * 按 CSV_HEADERS 的列顺序取值
+     */
+    private static void fillCsvValues(Script s, String[] values) {
+        int i = 0;
+        values[i++] = string(s.getId());
+        values[i++] = s.getScriptId();
+        values[i++] = s.getName();
+        values[i++] = s.getSourceType();
+        values[i++] = s.getTeam();
+        values[i++] = s.getStatus();
+        values[i++] = s.getGenre();
+        values[i++] = s.getContentType();
+        values[i++] = string(s.getIsProject());
+        values[i++] = s.getProjectOwner();
+        values[i++] = s.getProjectName();
+        values[i++] = s.getSubmitUser();
+        values[i++] = s.getWriter();
+        values[i++] = s.getContentTeam();
+        values[i++] = s.getProducer();
+        values[i++] = s.getProducerTeam();
+        values[i++] = s.getAssignStatus();
+        values[i++] = Dates.format(s.getSubmitDate());
+        values[i++] = s.getAvgScore() == null ? null : s.getAvgScore().toPlainString();
+        values[i++] = string(s.getRatingCount());
+        values[i++] = s.getTags();
+        values[i++] = s.getPreview();
+        values[i++] = s.getRemarks();
+        values[i++] = s.getFileUrl();
+        values[i++] = s.getFeishuUrl();
+        values[i++] = Dates.format(s.getCreatedAt());
+        values[i] = Dates.format(s.getUpdatedAt());
+    }
+
+    private static void writeCsvLine(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvField(writer, values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * RFC 4180: 含逗号、引号或换行的字段加双引号,内部引号双写
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String string(Object value) {
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,250 @@
+package com.deepdrama.service.impl;
+
+import com.deepdrama.cache.ScriptCountCache;
+import com.deepdrama.cache.ScriptLeaderboard;
+import com.deepdrama.cache.ScriptListCache;
+import com.deepdrama.cache.ScriptOptionsIndex;
+import com.deepdrama.cache.ScriptQueryIndex;
+import com.deepdrama.cache.ScriptStatsRollup;
+import com.deepdrama.cache.ScriptVersionStamp;
+import com.deepdrama.dto.ImportReport;
+import com.deepdrama.dto.ImportRowResult;
+import com.deepdrama.dto.ScriptPayload;
+import com.deepdrama.entity.Script;
+import com.deepdrama.mapper.ScriptMapper;
+import com.deepdrama.service.ScriptImportService;
+import com.deepdrama.service.TabCounterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 剧本批量导入实现类
+ *
+ * 记录边读边校验,攒满一块后先用一次IN查询剔除已存在的剧本编号,再在一个事务中执行一次多行INSERT。
+ * 整块写入失败(如并发导入撞上唯一键)时逐条重试,以便逐行给出结果。
+ * 每块提交后统一维护列表总数缓存、筛选选项、统计汇总和排行榜。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Service
+public class ScriptImportServiceImpl implements ScriptImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScriptImportServiceImpl.class);
+
+    private static final int MAX_SCRIPT_ID_LENGTH = 50;
+    private static final int MAX_NAME_LENGTH = 200;
+
+    @Autowired
+    private ScriptMapper scriptMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ScriptCountCache countCache;
+
+    @Autowired
+    private ScriptOptionsIndex optionsIndex;
+
+    @Autowired
+    private ScriptStatsRollup statsRollup;
+
+    @Autowired
+    private ScriptLeaderboard leaderboard;
+
+    @Autowired
+    private ScriptVersionStamp versionStamp;
+
+    @Autowired
+    private ScriptQueryIndex queryIndex;
+
+    @Autowired
+    private TabCounterService tabCounters;
+
+    @Autowired
+    private ScriptListCache listCache;
+
+    @Value("${deepdrama.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${deepdrama.import.max-rows:50000}")
+    private int maxRows;
+
+    @Override
+    public ImportReport importScripts(Iterator<ScriptPayload> rows) {
+        ImportReport report = new ImportReport();
+        Set<String> seen = new HashSet<String>();
+        List<Pending> chunk = new ArrayList<Pending>(chunkSize);
+
+        while (rows.hasNext()) {
+            ScriptPayload payload = rows.next();
+            String scriptId = payload == null ? null : trimToNull(payload.getScript().getScriptId());
+            ImportRowResult result = report.addRow(scriptId);
+
+            if (report.getTotal() > maxRows) {
+                report.record(result, ImportRowResult.INVALID, null, "超过单次导入上限" + maxRows + "条");
+                continue;
+            }
+            String error = validate(payload, scriptId);
+            if (error != null) {
+                report.record(result, ImportRowResult.INVALID, null, error);
+                continue;
+            }
+            if (!seen.add(scriptId)) {
+                report.record(result, ImportRowResult.DUPLICATE, null, "导入数据中剧本编号重复");
+                continue;
+            }
+
+            Script script = ScriptServiceImpl.bindNewScript(payload);
+            script.setScriptId(scriptId);
+            chunk.add(new Pending(script, result));
+            if (chunk.size() >= chunkSize) {
+                flush(chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            flush(chunk, report);
+        }
+        return report;
+    }
+
+    /**
+     * 校验单条记录,返回错误信息,通过时返回null
+     */
+    private static String validate(ScriptPayload payload, String scriptId) {
+        if (payload == null) {
+            return "无法解析为JSON对象";
+        }
+        if (payload.getError() != null) {
+            return payload.getError();
+        }
+        if (scriptId == null) {
+            return "scriptId不能为空";
+        }
+        if (scriptId.length() > MAX_SCRIPT_ID_LENGTH) {
+            return "scriptId长度不能超过" + MAX_SCRIPT_ID_LENGTH;
+        }
+        String name = trimToNull(payload.getScript().getName());
+        if (name == null) {
+            return "name不能为空";
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            return "name长度不能超过" + MAX_NAME_LENGTH;
+        }
+        return null;
+    }
+
+    private void flush(List<Pending> chunk, ImportReport report) {
+        // 剔除数据库中已存在的剧本编号
+        List<String> scriptIds = new ArrayList<String>(chunk.size());
+        for (Pending pending : chunk) {
+            scriptIds.add(pending.script.getScriptId());
+        }
+        Set<String> existing = new HashSet<String>(scriptMapper.selectExistingScriptIds(scriptIds));
+
+        List<Pending> toInsert = new ArrayList<Pending>(chunk.size());
+        for (Pending pending : chunk) {
+            if (existing.contains(pending.script.getScriptId())) {
+                report.record(pending.result, ImportRowResult.DUPLICATE, null, "剧本编号已存在");
+            } else {
+                toInsert.add(pending);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        // 从第一次提交到内存状态维护完成计为进行中的写入,期间的全量重建不替换数据
+        versionStamp.writeStarted();
+        try {
+            List<Script> created = insertAll(toInsert, report);
+
+            // 已提交,统一维护内存状态
+            if (!created.isEmpty()) {
+                countCache.invalidateAll();
+                List<Long> createdIds = new ArrayList<Long>(created.size());
+                for (Script script : created) {
+                    optionsIndex.onScriptChanged(null, script);
+                    statsRollup.onScriptSaved(script);
+                    leaderboard.onScriptCreated(script.getId());
+                    tabCounters.scriptChanged(null, script);
+                    listCache.invalidate(null, script);
+                    createdIds.add(script.getId());
+                }
+                queryIndex.refresh(createdIds);
+                versionStamp.changed();
+            }
+        } finally {
+            versionStamp.writeFinished();
+        }
+    }
+
+    /**
+     * 整批写入,失败时改为逐条写入并记录每行结果,返回写入成功的剧本
+     */
+    private List<Script> insertAll(List<Pending> toInsert, ImportReport report) {
+        List<Script> created = new ArrayList<Script>(toInsert.size());
+        try {
+            insert(toInsert);
+            for (Pending pending : toInsert) {
+                report.record(pending.result, ImportRowResult.CREATED, pending.script.getId(), null);
+                created.add(pending.script);
+            }
+        } catch (Exception e) {
+            log.warn("剧本批量导入失败,改为逐条写入: {}", e.getMessage());
+            for (Pending pending : toInsert) {
+                try {
+                    pending.script.setId(null);
+                    insert(Collections.singletonList(pending));
+                    report.record(pending.result, ImportRowResult.CREATED, pending.script.getId(), null);
+                    created.add(pending.script);
+                } catch (DuplicateKeyException ex) {
+                    report.record(pending.result, ImportRowResult.DUPLICATE, null, "剧本编号已存在");
+                } catch (Exception ex) {
+                    report.record(pending.result, ImportRowResult.FAILED, null, ex.getMessage());
+                }
+            }
+        }
+        return created;
+    }
+
+    private void insert(List<Pending> rows) {
+        List<Script> scripts = new ArrayList<Script>(rows.size());
+        for (Pending pending : rows) {
+            scripts.add(pending.script);
+        }
+        transactionTemplate.execute(status -> scriptMapper.insertBatch(scripts));
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static final class Pending {
+        private final Script script;
+        private final ImportRowResult result;
+
+        private Pending(Script script, ImportRowResult result) {
+            this.script = script;
+            this.result = result;
+        }
+    }
+}
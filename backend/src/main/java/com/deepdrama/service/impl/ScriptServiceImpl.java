@@ -1,18 +1,44 @@
 package com.deepdrama.service.impl;
 
-import com.alibaba.fastjson.JSONObject;
+import com.deepdrama.cache.ScriptCountCache;
+import com.deepdrama.cache.OptionsSnapshot;
+import com.deepdrama.cache.QueryCoalescer;
+import com.deepdrama.cache.ScriptDetailCache;
+import com.deepdrama.cache.ScriptFacets;
+import com.deepdrama.cache.ScriptLeaderboard;
+import com.deepdrama.cache.ScriptListCache;
+import com.deepdrama.cache.ScriptOptionsIndex;
+import com.deepdrama.cache.ScriptQueryIndex;
+import com.deepdrama.cache.ScriptStatsRollup;
+import com.deepdrama.cache.ScriptVersionStamp;
 import com.deepdrama.common.PageResult;
+import com.deepdrama.common.ScriptBinder;
+import com.deepdrama.common.TransactionHooks;
+import com.deepdrama.dto.RankingEntry;
+import com.deepdrama.dto.ScriptPayload;
+import com.deepdrama.dto.ScriptSummary;
+import com.deepdrama.dto.TransitionRequest;
+import com.deepdrama.dto.TransitionResult;
 import com.deepdrama.entity.Script;
 import com.deepdrama.mapper.ScriptMapper;
+import com.deepdrama.query.ScriptCursor;
 import com.deepdrama.query.ScriptQuery;
 import com.deepdrama.service.ScriptService;
+import com.deepdrama.service.StatisticsService;
+import com.deepdrama.service.TabCounterService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * 剧本服务实现类
@@ -26,202 +52,630 @@ public class ScriptServiceImpl implements ScriptService {
     @Autowired
     private ScriptMapper scriptMapper;
     
-    private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd");
+    @Autowired
+    private ScriptCountCache countCache;
+    
+    @Autowired
+    private ScriptDetailCache detailCache;
+    
+    @Autowired
+    private ScriptOptionsIndex optionsIndex;
+    
+    @Autowired
+    private ScriptStatsRollup statsRollup;
+    
+    @Autowired
+    private ScriptLeaderboard leaderboard;
+    
+    @Autowired
+    private ScriptVersionStamp versionStamp;
+    
+    @Autowired
+    private ScriptQueryIndex queryIndex;
+    
+    @Autowired
+    private QueryCoalescer coalescer;
+    
+    @Autowired
+    private ScriptListCache listCache;
+    
+    @Autowired
+    private StatisticsService statisticsService;
+    
+    @Autowired
+    private TabCounterService tabCounters;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${deepdrama.transition.chunk-size:500}")
+    private int transitionChunkSize;
+    
+    private static final Set<String> STATUSES = new HashSet<String>(Arrays.asList(
+            "一卡初稿", "改稿中", "完整剧本", "终稿", "已废弃"));
+    
+    private static final Set<String> ASSIGN_STATUSES = new HashSet<String>(Arrays.asList(
+            "待分配", "待认领", "已认领"));
+    
+    // 允许修改的字段(剧本编号、版本号及评分聚合字段不可修改)
+    private static final long EDITABLE_FIELDS = ScriptBinder.NAME | ScriptBinder.PREVIEW | ScriptBinder.FILE_URL
+            | ScriptBinder.TAGS | ScriptBinder.SOURCE_TYPE | ScriptBinder.TEAM | ScriptBinder.STATUS
+            | ScriptBinder.GENRE | ScriptBinder.CONTENT_TYPE | ScriptBinder.IS_PROJECT | ScriptBinder.PROJECT_OWNER
+            | ScriptBinder.PROJECT_NAME | ScriptBinder.REMARKS | ScriptBinder.SUBMIT_USER | ScriptBinder.WRITER
+            | ScriptBinder.CONTENT_TEAM | ScriptBinder.PRODUCER | ScriptBinder.PRODUCER_TEAM
+            | ScriptBinder.FEISHU_URL | ScriptBinder.ASSIGN_STATUS | ScriptBinder.SUBMIT_DATE;
     
     @Override
     public PageResult<Script> getScriptList(ScriptQuery query) {
-        // 查询列表
-        List<Script> list = scriptMapper.selectList(query);
+        return cachedPage("list", query,
+                () -> listPage(query, scriptMapper::selectList, this::hydrate, ScriptCursor::encode));
+    }
+    
+    @Override
+    public PageResult<ScriptSummary> getScriptSummaryList(ScriptQuery query) {
+        return cachedPage("summaryList", query,
+                () -> listPage(query, scriptMapper::selectSummaryList, this::hydrateSummaries, ScriptCursor::encode));
+    }
+    
+    /**
+     * 先查列表结果缓存;未命中时同时到达的相同查询只执行一次,结果写回缓存。
+     * 查询键在listPage改写query之前计算
+     */
+    private <T> PageResult<T> cachedPage(String scope, ScriptQuery query, Supplier<PageResult<T>> loader) {
+        String key = query.resultKey();
+        String cacheKey = scope + "|" + key;
+        PageResult<T> cached = listCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        return coalescer.execute(scope, key, () -> {
+            long ticket = listCache.ticket();
+            PageResult<T> result = loader.get();
+            listCache.put(cacheKey, query, result, ticket);
+            return result;
+        });
+    }
+    
+    /**
+     * 分页查询: 解析游标、多取一行判断hasMore、生成下一页游标并填充总数,请求时附带分面计数。
+     * 开启查询索引时由内存索引求出本页ID和总数,数据库只按ID补全
+     */
+    private <T> PageResult<T> listPage(ScriptQuery query, Function<ScriptQuery, List<T>> fetcher,
+                                       Function<List<Long>, List<T>> hydrator,
+                                       BiFunction<ScriptQuery, T, String> cursorEncoder) {
+        // 解析游标(keyset分页)
+        ScriptCursor.apply(query);
         
-        // 查询总数
-        Long total = scriptMapper.selectCount(query);
+        // 总数缓存的失效代数须在查询列表之前取得(最后一页的总数由本页行数推算)
+        long countTicket = countCache.ticket();
+        
+        // 查询列表(多取一行判断是否有下一页)
+        query.enableLookAhead();
+        ScriptQueryIndex.Page page = queryIndex.search(query);
+        List<T> list;
+        boolean hasMore;
+        if (page != null) {
+            List<Long> ids = page.getIds();
+            hasMore = ids.size() > query.getLimit();
+            list = hydrator.apply(hasMore ? ids.subList(0, query.getLimit()) : ids);
+        } else {
+            list = fetcher.apply(query);
+            hasMore = list.size() > query.getLimit();
+            if (hasMore) {
+                list = new ArrayList<T>(list.subList(0, query.getLimit()));
+            }
+        }
         
-        return PageResult.of(total, query.getPage(), query.getLimit(), list);
+        PageResult<T> result = PageResult.of(null, query.getPage(), query.getLimit(), list);
+        result.setHasMore(hasMore);
+        if (hasMore && !query.isRelevanceSort() && !list.isEmpty()) {
+            result.setNextCursor(cursorEncoder.apply(query, list.get(list.size() - 1)));
+        }
+        
+        // 查询总数(索引结果的总数即为精确值)
+        if (page != null) {
+            result.setTotal(page.getTotal());
+            result.setTotalExact(true);
+        } else {
+            fillTotal(query, result, countTicket);
+        }
+        
+        // 分面计数: 索引已一并算出,否则一次分组查询
+        if (Boolean.TRUE.equals(query.getFacets())) {
+            result.setFacets(page != null ? page.getFacets()
+                    : ScriptFacets.fromGroups(query, scriptMapper.selectFacetGroups(query.facetBase())));
+        }
+        return result;
+    }
+    
+    /**
+     * 填充总数: 最后一页直接推算,否则优先使用短期缓存,withTotal=false时跳过
+     */
+    private void fillTotal(ScriptQuery query, PageResult<?> result, long countTicket) {
+        String filterKey = query.filterKey();
+        List<?> list = result.getList();
+        
+        // 偏移分页的最后一页: 总数 = offset + 本页行数
+        if (query.getCursorId() == null && !result.getHasMore()
+                && (!list.isEmpty() || query.getOffset() == 0)) {
+            long total = query.getOffset() + list.size();
+            countCache.put(filterKey, total, countTicket);
+            result.setTotal(total);
+            result.setTotalExact(true);
+            return;
+        }
+        
+        if (Boolean.FALSE.equals(query.getWithTotal())) {
+            result.setTotalExact(false);
+            return;
+        }
+        
+        Long cached = countCache.get(filterKey);
+        if (cached != null) {
+            result.setTotal(cached);
+            result.setTotalExact(false);
+            return;
+        }
+        
+        Long total = scriptMapper.selectCount(query);
+        countCache.put(filterKey, total, countTicket);
+        result.setTotal(total);
+        result.setTotalExact(true);
     }
     
     @Override
     public Script getScriptById(Long id) {
-        return scriptMapper.selectById(id);
+        Script cached = detailCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        
+        long version = detailCache.version();
+        Script script = scriptMapper.selectById(id);
+        detailCache.putIfFresh(id, script, version);
+        return script;
     }
     
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public Script createScript(JSONObject params) {
-        Script script = new Script();
-        
-        // 使用FastJSON解析参数
-        script.setScriptId(params.getString("scriptId"));
-        script.setName(params.getString("name"));
-        script.setPreview(params.getString("preview"));
-        script.setFileUrl(params.getString("fileUrl"));
-        script.setTags(params.getString("tags"));
-        script.setSourceType(params.getString("sourceType"));
-        script.setTeam(params.getString("team"));
-        script.setStatus(params.getString("status"));
-        script.setGenre(params.getString("genre"));
-        script.setContentType(params.getString("contentType"));
-        script.setIsProject(params.getInteger("isProject"));
-        script.setProjectOwner(params.getString("projectOwner"));
-        script.setProjectName(params.getString("projectName"));
-        script.setRemarks(params.getString("remarks"));
-        script.setSubmitUser(params.getString("submitUser"));
-        script.setWriter(params.getString("writer"));
-        script.setContentTeam(params.getString("contentTeam"));
-        script.setProducer(params.getString("producer"));
-        script.setProducerTeam(params.getString("producerTeam"));
-        script.setFeishuUrl(params.getString("feishuUrl"));
-        script.setAssignStatus(params.getString("assignStatus"));
-        
-        // 日期处理
-        String submitDateStr = params.getString("submitDate");
-        if (submitDateStr != null && !submitDateStr.isEmpty()) {
-            try {
-                script.setSubmitDate(DATE_FORMAT.parse(submitDateStr));
-            } catch (Exception e) {
-                script.setSubmitDate(new Date());
-            }
-        } else {
-            script.setSubmitDate(new Date());
-        }
-        
-        // 初始化评分字段
-        script.setAvgScore(BigDecimal.ZERO);
-        script.setRatingCount(0);
+    public Script createScript(ScriptPayload payload) {
+        Script script = bindNewScript(payload);
         
         // 插入数据库
         scriptMapper.insert(script);
+        evictCaches(script.getId());
+        TransactionHooks.afterCommit(() -> {
+            optionsIndex.onScriptChanged(null, script);
+            statsRollup.onScriptSaved(script);
+            leaderboard.onScriptCreated(script.getId());
+            queryIndex.refresh(Collections.singletonList(script.getId()));
+            tabCounters.scriptChanged(null, script);
+            listCache.invalidate(null, script);
+        });
+        versionStamp.changed();
         
         return script;
     }
     
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public Script updateScript(Long id, JSONObject params) {
-        Script script = scriptMapper.selectById(id);
-        if (script == null) {
+    public Script updateScript(Long id, ScriptPayload payload) {
+        checkPayload(payload);
+        // 先锁定该行再读取: 并发更新按顺序执行,各自的旧值即上一次提交的结果,计数和选项引用不会重复增减
+        Script before = scriptMapper.selectFilterFieldsForUpdate(id);
+        if (before == null) {
             return null;
         }
+        Script script = scriptMapper.selectById(id);
         
-        // 使用FastJSON更新字段
-        if (params.containsKey("name")) {
-            script.setName(params.getString("name"));
+        // 只覆盖请求中出现的字段;提交日期为空时保持原值
+        long fields = payload.getPresent() & EDITABLE_FIELDS;
+        if (payload.getScript().getSubmitDate() == null) {
+            fields &= ~ScriptBinder.SUBMIT_DATE;
         }
-        if (params.containsKey("preview")) {
-            script.setPreview(params.getString("preview"));
+        ScriptBinder.copy(payload.getScript(), script, fields);
+        
+        // 更新数据库
+        scriptMapper.update(script);
+        evictCaches(id);
+        TransactionHooks.afterCommit(() -> {
+            optionsIndex.onScriptChanged(before, script);
+            statsRollup.onScriptSaved(script);
+            queryIndex.refresh(Collections.singletonList(id));
+            tabCounters.scriptChanged(before, script);
+            listCache.invalidate(before, script);
+        });
+        versionStamp.changed();
+        
+        return script;
+    }
+    
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean patchScript(Long id, ScriptPayload payload) {
+        checkPayload(payload);
+        long present = payload.getPresent() & EDITABLE_FIELDS;
+        if (present == 0) {
+            throw new IllegalArgumentException("没有可更新的字段");
         }
-        if (params.containsKey("fileUrl")) {
-            script.setFileUrl(params.getString("fileUrl"));
+        Set<String> fields = ScriptBinder.names(present);
+        
+        // 只有fields中的字段会写入数据库,其余绑定结果忽略
+        Script patch = payload.getScript();
+        patch.setId(id);
+        Integer expectedVersion = payload.has(ScriptBinder.VERSION) ? patch.getVersion() : null;
+        
+        // 只有涉及筛选选项的字段才读取旧值(并锁定该行);列表缓存按修改的字段失效,不需要旧值
+        Script before = null;
+        if (fields.contains("contentTeam") || fields.contains("writer") || fields.contains("producer")) {
+            before = scriptMapper.selectFilterFieldsForUpdate(id);
+            if (before == null) {
+                return false;
+            }
         }
-        if (params.containsKey("tags")) {
-            script.setTags(params.getString("tags"));
+        
+        // 选项卡字段先做条件写入,由影响行数得出计数变化,不必读取旧值;版本冲突时随事务回滚
+        Map<String, Integer> tabDeltas = writeTabFields(id, patch, fields);
+        int rows = scriptMapper.patch(patch, fields, expectedVersion);
+        if (rows == 0) {
+            if (expectedVersion != null && scriptMapper.selectVersion(id) != null) {
+                throw new OptimisticLockingFailureException("剧本已被修改,请刷新后重试");
+            }
+            return false;
         }
-        if (params.containsKey("sourceType")) {
-            script.setSourceType(params.getString("sourceType"));
+        
+        evictCaches(id);
+        Script fieldsBefore = before;
+        Script fieldsAfter = before == null ? null : patchedFields(before, patch, present);
+        TransactionHooks.afterCommit(() -> {
+            if (fieldsBefore != null) {
+                optionsIndex.onScriptChanged(fieldsBefore, fieldsAfter);
+            }
+            tabDeltas.forEach(tabCounters::adjust);
+            listCache.invalidatePatched(id, fields);
+            statsRollup.onScriptPatched(id, patch, fields);
+            queryIndex.refresh(Collections.singletonList(id));
+        });
+        versionStamp.changed();
+        return true;
+    }
+    
+    /**
+     * 选项卡字段(分配状态、状态、是否立项)的条件写入,返回各选项卡的计数变化
+     */
+    private Map<String, Integer> writeTabFields(Long id, Script patch, Set<String> fields) {
+        Map<String, Integer> deltas = new HashMap<String, Integer>();
+        if (fields.contains("assignStatus")) {
+            writeTabField(deltas, TabCounterService.TAB_CLAIMED, id, "assign_status", patch.getAssignStatus(), "待认领");
         }
-        if (params.containsKey("team")) {
-            script.setTeam(params.getString("team"));
+        if (fields.contains("status")) {
+            writeTabField(deltas, TabCounterService.TAB_ABANDONED, id, "status", patch.getStatus(), "已废弃");
         }
-        if (params.containsKey("status")) {
-            script.setStatus(params.getString("status"));
+        if (fields.contains("isProject")) {
+            writeTabField(deltas, TabCounterService.TAB_PROJECT, id, "is_project", patch.getIsProject(), 1);
         }
-        if (params.containsKey("genre")) {
-            script.setGenre(params.getString("genre"));
+        return deltas;
+    }
+    
+    private void writeTabField(Map<String, Integer> deltas, String tab, Long id, String column,
+                               Object value, Object tabValue) {
+        // 与数据库排序规则一致地判断新值是否属于选项卡
+        boolean entering = value instanceof String
+                ? ScriptOptionsIndex.COLLATION.compare((String) value, (String) tabValue) == 0
+                : tabValue.equals(value);
+        if (scriptMapper.updateTabField(id, column, value, tabValue, entering) > 0) {
+            deltas.put(tab, entering ? 1 : -1);
         }
-        if (params.containsKey("contentType")) {
-            script.setContentType(params.getString("contentType"));
+    }
+    
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean deleteScript(Long id) {
+        // 在事务内锁定并读取旧值(不经详情缓存),用于维护筛选选项、计数和统计
+        Script existing = scriptMapper.selectFilterFieldsForUpdate(id);
+        if (existing == null) {
+            return false;
+        }
+        int rows = scriptMapper.deleteById(id);
+        if (rows == 0) {
+            return false;
+        }
+        
+        evictCaches(id);
+        TransactionHooks.afterCommit(() -> {
+            optionsIndex.onScriptChanged(existing, null);
+            statsRollup.onScriptDeleted(id);
+            leaderboard.onScriptDeleted(id);
+            queryIndex.refresh(Collections.singletonList(id));
+            tabCounters.scriptChanged(existing, null);
+            listCache.invalidate(existing, null);
+        });
+        versionStamp.changed();
+        return true;
+    }
+    
+    @Override
+    public TransitionResult transitionScripts(TransitionRequest request) {
+        String column = transitionColumn(request);
+        String target = request.getTarget();
+        List<Long> ids = new ArrayList<Long>(new LinkedHashSet<Long>(request.getIds()));
+        List<String> fromStates = request.getFromStates();
+        
+        TransitionResult result = new TransitionResult();
+        Set<Long> updated = new LinkedHashSet<Long>();
+        List<Script> previous = new ArrayList<Script>();
+        // 从第一块提交到缓存和统计维护完成计为进行中的写入,期间的全量重建不替换数据
+        versionStamp.writeStarted();
+        try {
+            // 每块一个事务: 先锁定满足条件的行(同时读到流转前的取值),再一条UPDATE写入
+            for (int from = 0; from < ids.size(); from += transitionChunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + transitionChunkSize, ids.size()));
+                List<Script> matched = transactionTemplate.execute(status -> {
+                    List<Script> candidates = scriptMapper.selectTransitionCandidates(chunk, column, target, fromStates);
+                    if (!candidates.isEmpty()) {
+                        List<Long> candidateIds = new ArrayList<Long>(candidates.size());
+                        for (Script candidate : candidates) {
+                            candidateIds.add(candidate.getId());
+                        }
+                        scriptMapper.updateTransition(candidateIds, column, target);
+                    }
+                    return candidates;
+                });
+                for (Script row : matched) {
+                    updated.add(row.getId());
+                    previous.add(row);
+                }
+            }
+        } finally {
+            // 某块失败时之前的块已提交,同样刷新缓存和统计,异常随后继续抛出
+            try {
+                transitioned(column, target, updated, previous);
+            } finally {
+                versionStamp.writeFinished();
+            }
         }
-        if (params.containsKey("isProject")) {
-            script.setIsProject(params.getInteger("isProject"));
+        for (Long id : ids) {
+            (updated.contains(id) ? result.getUpdatedIds() : result.getSkippedIds()).add(id);
         }
-        if (params.containsKey("projectOwner")) {
-            script.setProjectOwner(params.getString("projectOwner"));
+        return result;
+    }
+    
+    /**
+     * 流转提交后刷新缓存和统计;previous为各行流转前的状态和分配状态
+     */
+    private void transitioned(String column, String target, Set<Long> updated, List<Script> previous) {
+        if (updated.isEmpty()) {
+            return;
         }
-        if (params.containsKey("projectName")) {
-            script.setProjectName(params.getString("projectName"));
+        countCache.invalidateAll();
+        detailCache.invalidateAll(updated);
+        if ("status".equals(column)) {
+            Script patch = new Script();
+            patch.setStatus(target);
+            statsRollup.onScriptsPatched(updated, patch, Collections.singleton("status"));
         }
-        if (params.containsKey("remarks")) {
-            script.setRemarks(params.getString("remarks"));
+        queryIndex.refresh(updated);
+        // 选项卡计数按每行流转前后的取值增减
+        for (Script before : previous) {
+            Script after = new Script();
+            after.setStatus(before.getStatus());
+            after.setAssignStatus(before.getAssignStatus());
+            if ("status".equals(column)) {
+                after.setStatus(target);
+            } else {
+                after.setAssignStatus(target);
+            }
+            tabCounters.scriptChanged(before, after);
         }
-        if (params.containsKey("submitUser")) {
-            script.setSubmitUser(params.getString("submitUser"));
+        listCache.invalidatePatched(updated, Collections.singleton("status".equals(column) ? "status" : "assignStatus"));
+        versionStamp.changed();
+    }
+    
+    /**
+     * 校验流转请求,返回对应的列名
+     */
+    private static String transitionColumn(TransitionRequest request) {
+        if (request.getIds() == null || request.getIds().isEmpty()) {
+            throw new IllegalArgumentException("剧本ID列表不能为空");
         }
-        if (params.containsKey("writer")) {
-            script.setWriter(params.getString("writer"));
+        if (request.getIds().contains(null)) {
+            throw new IllegalArgumentException("剧本ID不能为空");
         }
-        if (params.containsKey("contentTeam")) {
-            script.setContentTeam(params.getString("contentTeam"));
+        String target = request.getTarget();
+        if (TransitionRequest.FIELD_STATUS.equals(request.getField())) {
+            if (!STATUSES.contains(target)) {
+                throw new IllegalArgumentException("无效的剧本状态: " + target);
+            }
+            return "status";
         }
-        if (params.containsKey("producer")) {
-            script.setProducer(params.getString("producer"));
+        if (TransitionRequest.FIELD_ASSIGN_STATUS.equals(request.getField())) {
+            if (!ASSIGN_STATUSES.contains(target)) {
+                throw new IllegalArgumentException("无效的分配状态: " + target);
+            }
+            return "assign_status";
         }
-        if (params.containsKey("producerTeam")) {
-            script.setProducerTeam(params.getString("producerTeam"));
+        throw new IllegalArgumentException("field应为status或assignStatus");
+    }
+    
+    @Override
+    public List<Script> getRankings(Integer limit) {
+        // 名次由内存排行榜给出,数据库只按ID补全剧本信息
+        int n = limit == null ? 50 : limit;
+        return coalescer.execute("rankings", "limit=" + n, () -> hydrate(entryIds(leaderboard.top(n))));
+    }
+    
+    @Override
+    public List<RankingEntry> getRankingNeighbours(Long id, Integer radius) {
+        List<ScriptLeaderboard.Entry> entries = leaderboard.around(id, radius == null ? 5 : Math.max(0, radius));
+        if (entries == null) {
+            return null;
         }
-        if (params.containsKey("feishuUrl")) {
-            script.setFeishuUrl(params.getString("feishuUrl"));
+        
+        Map<Long, Script> scripts = new HashMap<Long, Script>(entries.size() * 2);
+        for (Script script : hydrate(entryIds(entries))) {
+            scripts.put(script.getId(), script);
         }
-        if (params.containsKey("assignStatus")) {
-            script.setAssignStatus(params.getString("assignStatus"));
+        List<RankingEntry> result = new ArrayList<RankingEntry>(entries.size());
+        for (ScriptLeaderboard.Entry entry : entries) {
+            Script script = scripts.get(entry.getId());
+            if (script != null) {
+                result.add(new RankingEntry(entry.getRank(), script));
+            }
         }
-        if (params.containsKey("submitDate")) {
-            String submitDateStr = params.getString("submitDate");
-            try {
-                script.setSubmitDate(DATE_FORMAT.parse(submitDateStr));
-            } catch (Exception ignored) {}
+        return result;
+    }
+    
+    /**
+     * 按给定ID顺序补全剧本: 先查详情缓存,未命中的一次批量查询;已被删除的剧本跳过
+     */
+    private List<Script> hydrate(List<Long> ids) {
+        Map<Long, Script> scripts = new HashMap<Long, Script>(ids.size() * 2);
+        List<Long> missing = new ArrayList<Long>();
+        for (Long id : ids) {
+            Script cached = detailCache.get(id);
+            if (cached != null) {
+                scripts.put(id, cached);
+            } else {
+                missing.add(id);
+            }
         }
         
-        // 更新数据库
-        scriptMapper.update(script);
+        if (!missing.isEmpty()) {
+            long version = detailCache.version();
+            for (Script script : scriptMapper.selectByIds(missing)) {
+                scripts.put(script.getId(), script);
+                detailCache.putIfFresh(script.getId(), script, version);
+            }
+        }
         
-        return script;
+        List<Script> result = new ArrayList<Script>(ids.size());
+        for (Long id : ids) {
+            Script script = scripts.get(id);
+            if (script != null) {
+                result.add(script);
+            }
+        }
+        return result;
     }
     
-    @Override
-    @Transactional(rollbackFor = Exception.class)
-    public boolean deleteScript(Long id) {
-        Script script = scriptMapper.selectById(id);
-        if (script == null) {
-            return false;
+    /**
+     * 按给定ID顺序补全列表摘要;已被删除的剧本跳过
+     */
+    private List<ScriptSummary> hydrateSummaries(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<ScriptSummary>();
+        }
+        Map<Long, ScriptSummary> summaries = new HashMap<Long, ScriptSummary>(ids.size() * 2);
+        for (ScriptSummary summary : scriptMapper.selectSummaryByIds(ids)) {
+            summaries.put(summary.getId(), summary);
         }
         
-        int rows = scriptMapper.deleteById(id);
-        return rows > 0;
+        List<ScriptSummary> result = new ArrayList<ScriptSummary>(ids.size());
+        for (Long id : ids) {
+            ScriptSummary summary = summaries.get(id);
+            if (summary != null) {
+                result.add(summary);
+            }
+        }
+        return result;
     }
     
-    @Override
-    public List<Script> getRankings(Integer limit) {
-        ScriptQuery query = new ScriptQuery();
-        query.setSortBy("avgScore");
-        query.setSortOrder("desc");
-        query.setPage(1);
-        query.setLimit(limit);
-        
-        return scriptMapper.selectList(query);
+    private static List<Long> entryIds(List<ScriptLeaderboard.Entry> entries) {
+        List<Long> ids = new ArrayList<Long>(entries.size());
+        for (ScriptLeaderboard.Entry entry : entries) {
+            ids.add(entry.getId());
+        }
+        return ids;
     }
     
     @Override
     public Map<String, List<String>> getOptions() {
-        Map<String, List<String>> options = new HashMap<String, List<String>>();
+        return optionsIndex.snapshot().getOptions();
+    }
+    
+    @Override
+    public OptionsSnapshot getOptionsSnapshot() {
+        return optionsIndex.snapshot();
+    }
+    
+    /**
+     * 由请求体构造待新增的剧本(提交日期缺省为当天,评分字段初始化为0)
+     */
+    static Script bindNewScript(ScriptPayload payload) {
+        checkPayload(payload);
+        Script script = payload.getScript();
+        if (script.getSubmitDate() == null) {
+            script.setSubmitDate(LocalDate.now());
+        }
         
-        options.put("contentTeams", scriptMapper.getContentTeamOptions());
-        options.put("writers", scriptMapper.getWriterOptions());
-        options.put("producers", scriptMapper.getProducerOptions());
+        // 初始化评分字段
+        script.setAvgScore(BigDecimal.ZERO);
+        script.setRatingCount(0);
+        script.setVersion(0);
         
-        return options;
+        return script;
+    }
+    
+    /**
+     * 请求体中有字段格式错误时拒绝
+     */
+    private static void checkPayload(ScriptPayload payload) {
+        if (payload.getError() != null) {
+            throw new IllegalArgumentException(payload.getError());
+        }
+    }
+    
+    /**
+     * 部分更新后的筛选相关字段: 旧值覆盖上本次修改的字段,用于部分更新前后对比
+     */
+    private static Script patchedFields(Script before, Script patch, long present) {
+        Script after = filterFields(before);
+        ScriptBinder.copy(patch, after, present);
+        return after;
+    }
+    
+    /**
+     * 复制筛选相关字段(各筛选维度、编剧、制片及评分人数),用于更新前后对比
+     */
+    private static Script filterFields(Script script) {
+        Script copy = new Script();
+        copy.setId(script.getId());
+        copy.setStatus(script.getStatus());
+        copy.setSourceType(script.getSourceType());
+        copy.setGenre(script.getGenre());
+        copy.setTeam(script.getTeam());
+        copy.setContentTeam(script.getContentTeam());
+        copy.setProducerTeam(script.getProducerTeam());
+        copy.setAssignStatus(script.getAssignStatus());
+        copy.setIsProject(script.getIsProject());
+        copy.setWriter(script.getWriter());
+        copy.setProducer(script.getProducer());
+        copy.setRatingCount(script.getRatingCount());
+        return copy;
     }
     
     @Override
     public List<Map<String, Object>> getStatusDistribution(String startDate, String endDate) {
-        return scriptMapper.getStatusDistribution(startDate, endDate);
+        return statisticsService.getStatusDistribution(startDate, endDate);
     }
     
     @Override
     public List<Map<String, Object>> getSourceDistribution(String startDate, String endDate) {
-        return scriptMapper.getSourceDistribution(startDate, endDate);
+        return statisticsService.getSourceDistribution(startDate, endDate);
     }
     
     @Override
     public List<Map<String, Object>> getTeamDistribution(String startDate, String endDate) {
-        return scriptMapper.getTeamDistribution(startDate, endDate);
+        return statisticsService.getTeamDistribution(startDate, endDate);
+    }
+    
+    /**
+     * 剧本写入后(事务提交后)失效相关缓存
+     */
+    private void evictCaches(Long id) {
+        TransactionHooks.afterCommit(() -> {
+            countCache.invalidateAll();
+            detailCache.invalidate(id);
+        });
     }
 }
@@ -0,0 +1,37 @@
+package com.deepdrama.service.impl;
+
+import com.deepdrama.cache.ScriptStatsRollup;
+import com.deepdrama.service.StatisticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 统计服务实现类(基于日汇总,不扫描剧本表)
+ * 
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Service
+public class StatisticsServiceImpl implements StatisticsService {
+    
+    @Autowired
+    private ScriptStatsRollup statsRollup;
+    
+    @Override
+    public List<Map<String, Object>> getStatusDistribution(String startDate, String endDate) {
+        return statsRollup.distribution(ScriptStatsRollup.STATUS, startDate, endDate);
+    }
+    
+    @Override
+    public List<Map<String, Object>> getSourceDistribution(String startDate, String endDate) {
+        return statsRollup.distribution(ScriptStatsRollup.SOURCE_TYPE, startDate, endDate);
+    }
+    
+    @Override
+    public List<Map<String, Object>> getTeamDistribution(String startDate, String endDate) {
+        return statsRollup.distribution(ScriptStatsRollup.CONTENT_TEAM, startDate, endDate);
+    }
+}
@@ -0,0 +1,153 @@
+package com.deepdrama.service.impl;
+
+import com.deepdrama.cache.ScriptVersionStamp;
+import com.deepdrama.entity.Script;
+import com.deepdrama.mapper.ScriptMapper;
+import com.deepdrama.query.ScriptQuery;
+import com.deepdrama.service.TabCounterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 选项卡角标计数服务实现类
+ *
+ * 每个选项卡一个分段计数器(LongAdder),并发写入互不竞争;读取时按段求和。
+ * 启动后首次对账即完成初始化,之后由写操作按增量维护。
+ * 对账按选项卡判断: COUNT期间该选项卡没有增量、也没有已提交未维护的写入时直接修正;
+ * 否则差值可能只是尚未到达的增量,连续两轮得到相同差值时才修正,持续写入时也不会一直跳过。
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+@Service
+public class TabCounterServiceImpl implements TabCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(TabCounterServiceImpl.class);
+
+    private static final String[] TABS = {TAB_PENDING, TAB_CLAIMED, TAB_PROJECT, TAB_ABANDONED};
+
+    private static final int PENDING = 0;
+    private static final int CLAIMED = 1;
+    private static final int PROJECT = 2;
+    private static final int ABANDONED = 3;
+
+    @Autowired
+    private ScriptMapper scriptMapper;
+
+    @Autowired
+    private ScriptVersionStamp versionStamp;
+
+    private final LongAdder[] counters = new LongAdder[TABS.length];
+
+    // 各选项卡已应用的增量次数,用于判断对账期间是否有写入
+    private final LongAdder[] writes = new LongAdder[TABS.length];
+
+    // 上一轮因有写入而未修正的差值
+    private final long[] unsettled = new long[TABS.length];
+
+    private volatile boolean loaded;
+
+    public TabCounterServiceImpl() {
+        for (int t = 0; t < TABS.length; t++) {
+            counters[t] = new LongAdder();
+            writes[t] = new LongAdder();
+        }
+    }
+
+    @Override
+    public Map<String, Long> getCounts() {
+        if (!loaded) {
+            reconcile();
+        }
+        Map<String, Long> counts = new LinkedHashMap<String, Long>();
+        for (int t = 0; t < TABS.length; t++) {
+            counts.put(TABS[t], Math.max(0, counters[t].sum()));
+        }
+        return counts;
+    }
+
+    @Override
+    public void scriptChanged(Script before, Script after) {
+        for (int t = 0; t < TABS.length; t++) {
+            int delta = (matches(t, after) ? 1 : 0) - (matches(t, before) ? 1 : 0);
+            if (delta != 0) {
+                add(t, delta);
+            }
+        }
+    }
+
+    @Override
+    public void adjust(String tab, int delta) {
+        for (int t = 0; t < TABS.length; t++) {
+            if (TABS[t].equals(tab)) {
+                add(t, delta);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("未知的选项卡: " + tab);
+    }
+
+    private void add(int tab, int delta) {
+        counters[tab].add(delta);
+        writes[tab].increment();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${deepdrama.tab-counts.reconcile-interval-ms:300000}")
+    public synchronized int reconcile() {
+        int fixed = 0;
+        for (int t = 0; t < TABS.length; t++) {
+            long writesBefore = writes[t].sum();
+            ScriptQuery query = new ScriptQuery();
+            query.setTab(TABS[t]);
+            Long count = scriptMapper.selectCount(query);
+            long actual = count == null ? 0 : count;
+
+            long current = counters[t].sum();
+            long drift = actual - current;
+            boolean quiet = writes[t].sum() == writesBefore && !versionStamp.writesInFlight();
+            if (drift == 0 || (loaded && !quiet && drift != unsettled[t])) {
+                // 可能只是尚未到达的增量,留给下一轮确认
+                unsettled[t] = drift;
+                continue;
+            }
+            // 只加差值,不清零,计数器上并发应用的增量不会丢失
+            counters[t].add(drift);
+            unsettled[t] = 0;
+            fixed++;
+            if (loaded) {
+                log.info("选项卡计数对账: {} {} -> {}", TABS[t], current, actual);
+            }
+        }
+        loaded = true;
+        return fixed;
+    }
+
+    /**
+     * 剧本是否属于该选项卡,条件与 ScriptMapper.xml 中的 tab 筛选一致
+     */
+    private static boolean matches(int tab, Script script) {
+        if (script == null) {
+            return false;
+        }
+        switch (tab) {
+            case PENDING:
+                return script.getRatingCount() != null && script.getRatingCount() == 0;
+            case CLAIMED:
+                return "待认领".equals(script.getAssignStatus());
+            case PROJECT:
+                return script.getIsProject() != null && script.getIsProject() == 1;
+            case ABANDONED:
+                return "已废弃".equals(script.getStatus());
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.deepdrama.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 压缩位图测试: 随机增删及交并差与 TreeSet 比对,覆盖数组容器与位图容器之间的转换
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+class CompressedBitmapTest {
+
+    @Test
+    void randomAddRemoveMatchesTreeSet() {
+        Random random = new Random(7);
+        for (int bound : new int[]{100, 6000, 70000, 1 << 20}) {
+            CompressedBitmap bitmap = new CompressedBitmap();
+            TreeSet<Integer> expected = new TreeSet<Integer>();
+            for (int i = 0; i < 50000; i++) {
+                int value = random.nextInt(bound);
+                if (random.nextInt(3) == 0) {
+                    bitmap.remove(value);
+                    expected.remove(value);
+                } else {
+                    bitmap.add(value);
+                    expected.add(value);
+                }
+            }
+            assertSame(expected, bitmap);
+            for (int i = 0; i < 1000; i++) {
+                int value = random.nextInt(bound);
+                assertEquals(expected.contains(value), bitmap.contains(value));
+            }
+        }
+    }
+
+    @Test
+    void denseChunkConvertsBackWhenItShrinks() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        TreeSet<Integer> expected = new TreeSet<Integer>();
+        // 超过4096个元素后转为位图容器,删到4096以下后转回数组容器,内容均不变
+        for (int value = 0; value < 10000; value++) {
+            bitmap.add(value * 3);
+            expected.add(value * 3);
+        }
+        assertSame(expected, bitmap);
+        for (int value = 0; value < 9000; value++) {
+            bitmap.remove(value * 3);
+            expected.remove(value * 3);
+        }
+        assertSame(expected, bitmap);
+        for (int value = 9000; value < 10000; value++) {
+            bitmap.remove(value * 3);
+        }
+        assertTrue(bitmap.isEmpty());
+        assertFalse(bitmap.contains(29997));
+    }
+
+    @Test
+    void setOperationsMatchTreeSet() {
+        Random random = new Random(11);
+        for (int round = 0; round < 20; round++) {
+            // 不同密度组合,使两侧分别落在数组容器或位图容器
+            int sizeA = random.nextBoolean() ? 300 : 30000;
+            int sizeB = random.nextBoolean() ? 300 : 30000;
+            TreeSet<Integer> a = randomSet(random, sizeA, 200000);
+            TreeSet<Integer> b = randomSet(random, sizeB, 200000);
+            CompressedBitmap bitmapA = bitmapOf(a);
+            CompressedBitmap bitmapB = bitmapOf(b);
+
+            TreeSet<Integer> and = new TreeSet<Integer>(a);
+            and.retainAll(b);
+            TreeSet<Integer> or = new TreeSet<Integer>(a);
+            or.addAll(b);
+            TreeSet<Integer> andNot = new TreeSet<Integer>(a);
+            andNot.removeAll(b);
+
+            assertSame(and, CompressedBitmap.and(bitmapA, bitmapB));
+            assertSame(or, CompressedBitmap.or(bitmapA, bitmapB));
+            assertSame(andNot, CompressedBitmap.andNot(bitmapA, bitmapB));
+            // 运算不修改操作数
+            assertSame(a, bitmapA);
+            assertSame(b, bitmapB);
+        }
+    }
+
+    @Test
+    void emptyOperands() {
+        CompressedBitmap empty = new CompressedBitmap();
+        CompressedBitmap some = bitmapOf(new TreeSet<Integer>(Arrays.asList(1, 70000)));
+        assertTrue(CompressedBitmap.and(empty, some).isEmpty());
+        assertEquals(2, CompressedBitmap.or(empty, some).cardinality());
+        assertTrue(CompressedBitmap.andNot(empty, some).isEmpty());
+        assertEquals(2, CompressedBitmap.andNot(some, empty).cardinality());
+    }
+
+    private static TreeSet<Integer> randomSet(Random random, int size, int bound) {
+        TreeSet<Integer> set = new TreeSet<Integer>();
+        while (set.size() < size) {
+            set.add(random.nextInt(bound));
+        }
+        return set;
+    }
+
+    private static CompressedBitmap bitmapOf(TreeSet<Integer> values) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (Integer value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    private static void assertSame(TreeSet<Integer> expected, CompressedBitmap bitmap) {
+        assertEquals(expected.size(), bitmap.cardinality());
+        List<Integer> actual = new ArrayList<Integer>(expected.size());
+        bitmap.forEach(actual::add);
+        assertEquals(new ArrayList<Integer>(expected), actual);
+    }
+}
@@ -0,0 +1,59 @@
+package com.deepdrama.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 访问频率估计测试: 只高估不低估、计数上限及达到样本量后减半
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+class FrequencySketchTest {
+
+    @Test
+    void neverUnderestimates() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        Random random = new Random(3);
+        // 总次数低于样本量(10000),不触发减半
+        for (int i = 0; i < 8000; i++) {
+            String key = "q" + random.nextInt(600);
+            sketch.increment(key);
+            counts.merge(key, 1, Integer::sum);
+        }
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            assertTrue(sketch.frequency(entry.getKey()) >= Math.min(15, entry.getValue()), entry.getKey());
+        }
+    }
+
+    @Test
+    void countersSaturateAtFifteen() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+        for (int i = 0; i < 40; i++) {
+            sketch.increment("hot");
+        }
+        assertEquals(15, sketch.frequency("hot"));
+    }
+
+    @Test
+    void oldCountsDecayAfterSample() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 10; i++) {
+            sketch.increment("old");
+        }
+        assertEquals(10, sketch.frequency("old"));
+        // 样本量为160,之后的记录触发一次减半
+        for (int i = 0; i < 150; i++) {
+            sketch.increment("k" + i);
+        }
+        int decayed = sketch.frequency("old");
+        assertTrue(decayed >= 5 && decayed < 10, String.valueOf(decayed));
+    }
+}
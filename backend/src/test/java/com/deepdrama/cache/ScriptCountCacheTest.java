@@ -0,0 +1,54 @@
+package com.deepdrama.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 列表总数缓存测试
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+class ScriptCountCacheTest {
+
+    private ScriptCountCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ScriptCountCache();
+        ReflectionTestUtils.setField(cache, "ttlMillis", 60000L);
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+    }
+
+    @Test
+    void putAndGet() {
+        cache.put("tab=pending&", 42, cache.ticket());
+        assertEquals(Long.valueOf(42), cache.get("tab=pending&"));
+    }
+
+    @Test
+    void countStartedBeforeInvalidationIsDropped() {
+        long ticket = cache.ticket();
+        cache.invalidateAll();
+        cache.put("tab=pending&", 42, ticket);
+        assertNull(cache.get("tab=pending&"));
+    }
+
+    @Test
+    void invalidationHidesEarlierEntries() {
+        cache.put("tab=pending&", 42, cache.ticket());
+        cache.invalidateAll();
+        assertNull(cache.get("tab=pending&"));
+    }
+
+    @Test
+    void expiredEntryIsMissing() {
+        ReflectionTestUtils.setField(cache, "ttlMillis", -1L);
+        cache.put("tab=pending&", 42, cache.ticket());
+        assertNull(cache.get("tab=pending&"));
+    }
+}
@@ -0,0 +1,224 @@
+package com.deepdrama.cache;
+
+import com.deepdrama.dto.ScriptStatsRow;
+import com.deepdrama.mapper.ScriptMapper;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * 排行榜跳表测试: 随机增删改后与按排序规则全量排序的结果比对
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+class ScriptLeaderboardTest {
+
+    private ScriptMapper mapper;
+    private ScriptVersionStamp versionStamp;
+    private ScriptLeaderboard leaderboard;
+
+    // 数据库中的评分聚合: id -> {scoreSumCents, ratingCount}
+    private Map<Long, long[]> table;
+
+    @BeforeEach
+    void setUp() {
+        table = new HashMap<Long, long[]>();
+        mapper = Mockito.mock(ScriptMapper.class);
+        doAnswer(scanTable()).when(mapper).scanStatsRows(any());
+        versionStamp = new ScriptVersionStamp();
+        leaderboard = new ScriptLeaderboard();
+        ReflectionTestUtils.setField(leaderboard, "scriptMapper", mapper);
+        ReflectionTestUtils.setField(leaderboard, "versionStamp", versionStamp);
+    }
+
+    @Test
+    void randomUpdatesMatchFullSort() {
+        Random random = new Random(42);
+        for (long id = 1; id <= 500; id++) {
+            int count = random.nextInt(4);
+            table.put(id, new long[]{count * (6000L + random.nextInt(4000)), count});
+        }
+        assertEquals(500, leaderboard.size());
+
+        long nextId = 501;
+        for (int step = 0; step < 5000; step++) {
+            int op = random.nextInt(10);
+            if (op == 0) {
+                long id = nextId++;
+                table.put(id, new long[]{0, 0});
+                leaderboard.onScriptCreated(id);
+            } else if (op == 1) {
+                long id = 1 + random.nextInt((int) nextId - 1);
+                table.remove(id);
+                leaderboard.onScriptDeleted(id);
+            } else {
+                long id = 1 + random.nextInt((int) nextId - 1);
+                long[] row = table.get(id);
+                if (row == null) {
+                    continue;
+                }
+                int countDelta = random.nextInt(3) - (row[1] > 0 ? 1 : 0);
+                long scoreDelta = countDelta * 6000L + random.nextInt(2000) - 1000;
+                row[0] += scoreDelta;
+                row[1] += countDelta;
+                leaderboard.onRatingDelta(id, BigDecimal.valueOf(scoreDelta, 2), countDelta);
+            }
+        }
+
+        List<Long> expected = expectedOrder();
+        List<ScriptLeaderboard.Entry> all = leaderboard.top(expected.size() + 10);
+        assertEquals(expected.size(), all.size());
+        for (int i = 0; i < expected.size(); i++) {
+            ScriptLeaderboard.Entry entry = all.get(i);
+            assertEquals(i + 1, entry.getRank());
+            assertEquals(expected.get(i).longValue(), entry.getId());
+            assertEquals(i + 1, leaderboard.rankOf(entry.getId()).intValue());
+        }
+    }
+
+    @Test
+    void aroundIsClippedAtTheTop() {
+        for (long id = 1; id <= 10; id++) {
+            table.put(id, new long[]{id * 1000, 1});
+        }
+        List<ScriptLeaderboard.Entry> around = leaderboard.around(9L, 2);
+        assertEquals(4, around.size());
+        assertEquals(1, around.get(0).getRank());
+        assertEquals(10L, around.get(0).getId());
+        assertEquals(9L, around.get(1).getId());
+        assertEquals(7L, around.get(3).getId());
+        assertNull(leaderboard.around(99L, 2));
+    }
+
+    @Test
+    void rebuildDoesNotDropDeltasDuringScan() {
+        table.put(1L, new long[]{9000, 1});
+        table.put(2L, new long[]{8000, 1});
+        leaderboard.size();
+
+        // 扫描期间剧本2新增一条评分,扫描结果仍是旧值
+        Answer<Void> scan = scanTable();
+        long[] racing = {0};
+        doAnswer(invocation -> {
+            Map<Long, long[]> snapshot = copy(table);
+            table.get(2L)[0] += 10000;
+            table.get(2L)[1] += 1;
+            leaderboard.onRatingDelta(2L, new BigDecimal("100.00"), 1);
+            racing[0]++;
+            Map<Long, long[]> current = table;
+            table = snapshot;
+            try {
+                return scan.answer(invocation);
+            } finally {
+                table = current;
+            }
+        }).when(mapper).scanStatsRows(any());
+        leaderboard.rebuild();
+
+        assertEquals(3, racing[0]);
+        assertEquals(2L, leaderboard.top(1).get(0).getId());
+        assertEquals(1 + racing[0], leaderboard.top(1).get(0).getRatingCount());
+    }
+
+    @Test
+    void rebuildWaitsForCommittedWrites() {
+        table.put(1L, new long[]{9000, 1});
+        leaderboard.size();
+
+        // 评分已提交(扫描结果已含),增量尚未维护: 此时替换会在增量到达后重复计入
+        table.get(1L)[0] += 7000;
+        table.get(1L)[1] += 1;
+        versionStamp.writeStarted();
+        leaderboard.rebuild();
+        leaderboard.onRatingDelta(1L, new BigDecimal("70.00"), 1);
+        versionStamp.writeFinished();
+        assertEquals(2, leaderboard.top(1).get(0).getRatingCount());
+
+        leaderboard.rebuild();
+        assertEquals(2, leaderboard.top(1).get(0).getRatingCount());
+    }
+
+    @Test
+    void deltaForUnknownScriptTriggersRebuild() {
+        table.put(1L, new long[]{9000, 1});
+        leaderboard.size();
+
+        // 剧本2已在数据库中但不在排行榜中(例如漏掉了新增通知)
+        table.put(2L, new long[]{9500, 1});
+        leaderboard.onRatingDelta(2L, new BigDecimal("95.00"), 1);
+        assertEquals(1, leaderboard.size());
+
+        long generation = versionStamp.generation();
+        leaderboard.rebuildIfStale();
+        assertEquals(2, leaderboard.size());
+        assertEquals(2L, leaderboard.top(1).get(0).getId());
+        assertEquals(generation + 1, versionStamp.generation());
+
+        leaderboard.rebuildIfStale();
+        assertEquals(generation + 1, versionStamp.generation());
+    }
+
+    @Test
+    void unchangedRebuildKeepsVersion() {
+        table.put(1L, new long[]{9000, 1});
+        leaderboard.size();
+        long generation = versionStamp.generation();
+        leaderboard.rebuild();
+        assertEquals(generation, versionStamp.generation());
+    }
+
+    private Answer<Void> scanTable() {
+        return invocation -> {
+            ResultHandler<ScriptStatsRow> handler = invocation.getArgument(0);
+            DefaultResultContext<ScriptStatsRow> context = new DefaultResultContext<ScriptStatsRow>();
+            for (Map.Entry<Long, long[]> entry : table.entrySet()) {
+                ScriptStatsRow row = new ScriptStatsRow();
+                row.setId(entry.getKey());
+                row.setScoreSum(BigDecimal.valueOf(entry.getValue()[0], 2));
+                row.setRatingCount((int) entry.getValue()[1]);
+                context.nextResultObject(row);
+                handler.handleResult(context);
+            }
+            return null;
+        };
+    }
+
+    private List<Long> expectedOrder() {
+        List<Long> ids = new ArrayList<Long>(table.keySet());
+        ids.sort(Comparator.<Long>comparingLong(id -> -avgCents(id))
+                .thenComparingLong(id -> -table.get(id)[1])
+                .thenComparing(Comparator.reverseOrder()));
+        return ids;
+    }
+
+    private long avgCents(Long id) {
+        long[] row = table.get(id);
+        return ScoreMath.avgCents(row[0], (int) row[1]);
+    }
+
+    private static Map<Long, long[]> copy(Map<Long, long[]> source) {
+        Map<Long, long[]> copy = new HashMap<Long, long[]>();
+        for (Map.Entry<Long, long[]> entry : source.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().clone());
+        }
+        return copy;
+    }
+}
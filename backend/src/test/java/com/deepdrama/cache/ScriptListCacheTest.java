@@ -0,0 +1,220 @@
+package com.deepdrama.cache;
+
+import com.deepdrama.common.PageResult;
+import com.deepdrama.entity.Script;
+import com.deepdrama.query.ScriptQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 列表结果缓存测试: W-TinyLFU准入与淘汰、按标签失效及按修改字段失效
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+class ScriptListCacheTest {
+
+    private ScriptListCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ScriptListCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttlMillis", 60000L);
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+        ReflectionTestUtils.setField(cache, "maxWeight", 10000L);
+    }
+
+    @Test
+    void rowWriteInvalidatesOnlyMatchingFilters() {
+        put("final", statuses("终稿"), 1L);
+        put("draft", statuses("改稿中"), 2L);
+        put("all", new ScriptQuery(), 3L);
+
+        Script row = new Script();
+        row.setId(9L);
+        row.setStatus("终稿 ");
+        cache.invalidate(null, row);
+
+        assertNull(cache.get("final"));
+        assertNotNull(cache.get("draft"));
+        assertNull(cache.get("all"));
+    }
+
+    @Test
+    void patchInvalidatesByChangedFields() {
+        put("page", new ScriptQuery(), 1L, 2L);
+        put("final", statuses("终稿"), 3L);
+        put("byName", sorted("name"), 4L);
+        ScriptQuery claimed = new ScriptQuery();
+        claimed.setTab("claimed");
+        put("claimed", claimed, 5L);
+        ScriptQuery keyword = new ScriptQuery();
+        keyword.setKeyword("剧本");
+        put("keyword", keyword, 6L);
+        put("other", new ScriptQuery(), 7L);
+
+        // 只改了不参与筛选排序的字段: 只有本页含该剧本的条目失效
+        cache.invalidatePatched(1L, set("remarks"));
+        assertNull(cache.get("page"));
+        assertNotNull(cache.get("final"));
+
+        cache.invalidatePatched(99L, set("status"));
+        assertNull(cache.get("final"));
+        assertNotNull(cache.get("claimed"));
+
+        cache.invalidatePatched(99L, set("assignStatus"));
+        assertNull(cache.get("claimed"));
+
+        cache.invalidatePatched(99L, set("name"));
+        assertNull(cache.get("byName"));
+        assertNull(cache.get("keyword"));
+        assertNotNull(cache.get("other"));
+    }
+
+    @Test
+    void batchPatchInvalidatesEntriesOfAnyScript() {
+        put("first", new ScriptQuery(), 1L, 2L);
+        put("second", new ScriptQuery(), 3L);
+        put("final", statuses("终稿"), 4L);
+        ScriptQuery claimed = new ScriptQuery();
+        claimed.setTab("claimed");
+        put("claimed", claimed, 5L);
+        put("other", new ScriptQuery(), 6L);
+
+        cache.invalidatePatched(Arrays.asList(2L, 3L), set("assignStatus"));
+        assertNull(cache.get("first"));
+        assertNull(cache.get("second"));
+        assertNull(cache.get("claimed"));
+        assertNotNull(cache.get("final"));
+        assertNotNull(cache.get("other"));
+    }
+
+    @Test
+    void facetEntriesFollowAnyDimension() {
+        ScriptQuery facets = new ScriptQuery();
+        facets.setFacets(true);
+        put("facets", facets, 1L);
+        cache.invalidatePatched(99L, set("genre"));
+        assertNull(cache.get("facets"));
+    }
+
+    @Test
+    void ratingInvalidatesScoreDependentEntries() {
+        put("byScore", sorted("avgScore"), 1L);
+        ScriptQuery ranged = new ScriptQuery();
+        ranged.setMinScore(60.0);
+        put("ranged", ranged, 2L);
+        ScriptQuery pending = new ScriptQuery();
+        pending.setTab("pending");
+        put("pending", pending, 3L);
+        put("page", new ScriptQuery(), 4L);
+        put("other", new ScriptQuery(), 5L);
+
+        cache.invalidateRating(99L, false);
+        assertNull(cache.get("byScore"));
+        assertNull(cache.get("ranged"));
+        assertNotNull(cache.get("pending"));
+
+        cache.invalidateRating(99L, true);
+        assertNull(cache.get("pending"));
+
+        cache.invalidateRating(4L, false);
+        assertNull(cache.get("page"));
+        assertNotNull(cache.get("other"));
+    }
+
+    @Test
+    void resultReadBeforeInvalidationIsDropped() {
+        long ticket = cache.ticket();
+        cache.invalidatePatched(1L, set("remarks"));
+        cache.put("late", new ScriptQuery(), page(1L), ticket);
+        assertNull(cache.get("late"));
+    }
+
+    @Test
+    void frequentEntriesSurviveOneHitScan() {
+        // 窗口容量2,主区容量198;每页权重10,主区约容纳19页
+        ReflectionTestUtils.setField(cache, "maxWeight", 200L);
+        List<String> hot = new ArrayList<String>();
+        for (int i = 0; i < 10; i++) {
+            String key = "hot" + i;
+            hot.add(key);
+            load(key);
+            for (int hit = 0; hit < 5; hit++) {
+                cache.get(key);
+            }
+        }
+        for (int i = 0; i < 200; i++) {
+            load("scan" + i);
+        }
+        for (String key : hot) {
+            assertNotNull(cache.get(key), key);
+        }
+        assertTrue((Long) cache.stats().get("weight") <= 200L);
+        assertTrue((Long) cache.stats().get("evictions") >= 190L);
+    }
+
+    @Test
+    void entryCountIsBounded() {
+        ReflectionTestUtils.setField(cache, "maxSize", 5);
+        for (int i = 0; i < 50; i++) {
+            load("q" + i);
+        }
+        assertEquals(5, cache.stats().get("size"));
+    }
+
+    /**
+     * 模拟一次未命中后的查询与放入
+     */
+    private void load(String key) {
+        assertNull(cache.get(key));
+        Long[] ids = new Long[9];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = (long) i;
+        }
+        cache.put(key, new ScriptQuery(), page(ids), cache.ticket());
+    }
+
+    private void put(String key, ScriptQuery query, Long... ids) {
+        cache.put(key, query, page(ids), cache.ticket());
+        assertNotNull(cache.get(key));
+    }
+
+    private static PageResult<Script> page(Long... ids) {
+        List<Script> list = new ArrayList<Script>();
+        for (Long id : ids) {
+            Script script = new Script();
+            script.setId(id);
+            list.add(script);
+        }
+        return PageResult.of((long) list.size(), 1, 10, list);
+    }
+
+    private static ScriptQuery statuses(String... statuses) {
+        ScriptQuery query = new ScriptQuery();
+        query.setStatuses(Arrays.asList(statuses));
+        return query;
+    }
+
+    private static ScriptQuery sorted(String sortBy) {
+        ScriptQuery query = new ScriptQuery();
+        query.setSortBy(sortBy);
+        return query;
+    }
+
+    private static HashSet<String> set(String... fields) {
+        return new HashSet<String>(Arrays.asList(fields));
+    }
+}
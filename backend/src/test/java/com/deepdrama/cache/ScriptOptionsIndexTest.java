@@ -0,0 +1,109 @@
+package com.deepdrama.cache;
+
+import com.deepdrama.entity.Script;
+import com.deepdrama.mapper.ScriptMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+/**
+ * 筛选选项索引测试
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+class ScriptOptionsIndexTest {
+
+    private ScriptMapper mapper;
+    private ScriptOptionsIndex index;
+
+    @BeforeEach
+    void setUp() {
+        mapper = Mockito.mock(ScriptMapper.class);
+        when(mapper.getContentTeamOptionCounts()).thenReturn(rows("Team A", 2));
+        when(mapper.getWriterOptionCounts()).thenReturn(Collections.<Map<String, Object>>emptyList());
+        when(mapper.getProducerOptionCounts()).thenReturn(Collections.<Map<String, Object>>emptyList());
+        index = new ScriptOptionsIndex();
+        ReflectionTestUtils.setField(index, "scriptMapper", mapper);
+        ReflectionTestUtils.setField(index, "versionStamp", new ScriptVersionStamp());
+    }
+
+    @Test
+    void caseVariantsShareOneOption() {
+        assertEquals(Collections.singletonList("Team A"), contentTeams());
+
+        index.onScriptChanged(null, contentTeam("team a "));
+        assertEquals(Collections.singletonList("Team A"), contentTeams());
+
+        // 三个引用全部移除后选项消失
+        index.onScriptChanged(contentTeam("TEAM A"), null);
+        index.onScriptChanged(contentTeam("Team A"), null);
+        assertEquals(Collections.singletonList("Team A"), contentTeams());
+        index.onScriptChanged(contentTeam("team a"), null);
+        assertEquals(Collections.<String>emptyList(), contentTeams());
+    }
+
+    @Test
+    void renameWithinCaseVariantsKeepsCount() {
+        contentTeams();
+        index.onScriptChanged(contentTeam("Team A"), contentTeam("team a"));
+        index.onScriptChanged(contentTeam("Team A"), null);
+        assertEquals(Collections.singletonList("Team A"), contentTeams());
+    }
+
+    @Test
+    void rebuildDoesNotOverwriteWritesDuringQuery() {
+        contentTeams();
+
+        // 每次查询期间都有一次新增写入,查询结果不含这些写入
+        List<String> created = new ArrayList<String>();
+        when(mapper.getContentTeamOptionCounts()).thenAnswer(invocation -> {
+            String team = "Team " + (created.size() + 2);
+            created.add(team);
+            index.onScriptChanged(null, contentTeam(team));
+            return rows("Team A", 2);
+        });
+        index.rebuild();
+
+        List<String> expected = new ArrayList<String>(created);
+        expected.add("Team A");
+        assertEquals(expected, contentTeams());
+    }
+
+    @Test
+    void rebuildReplacesDriftWhenQuiet() {
+        contentTeams();
+        index.onScriptChanged(null, contentTeam("Team B"));
+        when(mapper.getContentTeamOptionCounts()).thenReturn(rows("Team A", 2));
+        index.rebuild();
+        assertEquals(Arrays.asList("Team A"), contentTeams());
+    }
+
+    private List<String> contentTeams() {
+        return index.snapshot().getOptions().get("contentTeams");
+    }
+
+    private static Script contentTeam(String value) {
+        Script script = new Script();
+        script.setContentTeam(value);
+        return script;
+    }
+
+    private static List<Map<String, Object>> rows(String value, int count) {
+        Map<String, Object> row = new HashMap<String, Object>();
+        row.put("option_value", value);
+        row.put("ref_count", count);
+        return Collections.singletonList(row);
+    }
+}
@@ -0,0 +1,251 @@
+package com.deepdrama.cache;
+
+import com.deepdrama.dto.ScriptIndexRow;
+import com.deepdrama.mapper.ScriptMapper;
+import com.deepdrama.query.ScriptQuery;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 查询索引测试: 筛选排序结果、重建期间的增量写入及重建修正偏差后的缓存失效
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+class ScriptQueryIndexTest {
+
+    private ScriptMapper mapper;
+    private ScriptListCache listCache;
+    private ScriptVersionStamp versionStamp;
+    private ScriptQueryIndex index;
+
+    // 数据库中的行
+    private Map<Long, ScriptIndexRow> table;
+
+    @BeforeEach
+    void setUp() {
+        table = new TreeMap<Long, ScriptIndexRow>();
+        table.put(1L, row(1L, "终稿", "待认领", "2026-10-01", "90.00", 1));
+        table.put(2L, row(2L, "已废弃", "已认领", "2026-10-02", "70.00", 1));
+        table.put(3L, row(3L, "改稿中", "待认领", "2026-10-03", "0", 0));
+        table.put(4L, row(4L, "终稿", "已认领", "2026-10-04", "80.00", 1));
+
+        mapper = Mockito.mock(ScriptMapper.class);
+        doAnswer(scanTable()).when(mapper).scanIndexRows(any());
+        doAnswer(invocation -> {
+            List<ScriptIndexRow> rows = new ArrayList<ScriptIndexRow>();
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                if (table.containsKey(id)) {
+                    rows.add(copy(table.get(id)));
+                }
+            }
+            return rows;
+        }).when(mapper).selectIndexRows(anyCollection());
+        listCache = Mockito.mock(ScriptListCache.class);
+        versionStamp = new ScriptVersionStamp();
+        index = new ScriptQueryIndex();
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "scriptMapper", mapper);
+        ReflectionTestUtils.setField(index, "listCache", listCache);
+        ReflectionTestUtils.setField(index, "versionStamp", versionStamp);
+        index.rebuild();
+    }
+
+    @Test
+    void filtersAndSortsLikeSql() {
+        ScriptQuery query = query("avgScore", "desc");
+        query.setStatuses(Arrays.asList("终稿", "改稿中"));
+        ScriptQueryIndex.Page page = index.search(query);
+        assertEquals(Arrays.asList(1L, 4L, 3L), page.getIds());
+        assertEquals(3, page.getTotal());
+
+        ScriptQuery pending = query("submitDate", "asc");
+        pending.setTab("pending");
+        assertEquals(Arrays.asList(3L), index.search(pending).getIds());
+
+        ScriptQuery claimed = query("submitDate", "desc");
+        claimed.setAssignStatus("待认领 ");
+        claimed.setMinScore(50.0);
+        assertEquals(Arrays.asList(1L), index.search(claimed).getIds());
+
+        ScriptQuery keyword = query(null, null);
+        keyword.setKeyword("剧本");
+        assertNull(index.search(keyword));
+    }
+
+    @Test
+    void writesAfterBuildAreVisible() {
+        table.put(5L, row(5L, "终稿", "已认领", "2026-10-05", "0", 0));
+        table.get(2L).setStatus("终稿");
+        table.remove(4L);
+        index.refresh(Arrays.asList(2L, 4L, 5L));
+        index.onRatingDelta(5L, new BigDecimal("95.00"), 1);
+
+        ScriptQuery query = query("avgScore", "desc");
+        query.setStatuses(Arrays.asList("终稿"));
+        assertEquals(Arrays.asList(5L, 1L, 2L), index.search(query).getIds());
+    }
+
+    @Test
+    void rebuildDoesNotDropDeltasDuringScan() {
+        // 每次扫描期间剧本3新增一条评分,扫描结果仍是旧值
+        Answer<Void> scan = scanTable();
+        int[] racing = {0};
+        doAnswer(invocation -> {
+            index.onRatingDelta(3L, new BigDecimal("60.00"), 1);
+            racing[0]++;
+            return scan.answer(invocation);
+        }).when(mapper).scanIndexRows(any());
+        index.rebuild();
+
+        assertEquals(3, racing[0]);
+        ScriptQuery pending = query(null, null);
+        pending.setTab("pending");
+        assertEquals(0, index.search(pending).getTotal());
+        verify(listCache, never()).invalidateAll();
+    }
+
+    @Test
+    void rebuildWaitsForCommittedWrites() {
+        // 评分已提交(扫描结果已含),增量尚未维护: 此时替换会在增量到达后重复计入
+        table.get(3L).setRatingCount(1);
+        table.get(3L).setScoreSum(new BigDecimal("60.00"));
+        table.get(3L).setAvgScore(new BigDecimal("60.00"));
+        versionStamp.writeStarted();
+        index.rebuild();
+        index.onRatingDelta(3L, new BigDecimal("60.00"), 1);
+        versionStamp.writeFinished();
+        index.rebuild();
+
+        ScriptQuery query = query("avgScore", "asc");
+        query.setMaxScore(60.0);
+        assertEquals(Arrays.asList(3L), index.search(query).getIds());
+        verify(listCache, never()).invalidateAll();
+    }
+
+    @Test
+    void correctingRebuildInvalidatesCachedPages() {
+        long generation = versionStamp.generation();
+        index.rebuild();
+        assertEquals(generation, versionStamp.generation());
+        verify(listCache, never()).invalidateAll();
+
+        // 数据库被直接修改,增量没有通知到索引
+        table.get(1L).setStatus("已废弃");
+        index.rebuild();
+        assertEquals(generation + 1, versionStamp.generation());
+        verify(listCache).invalidateAll();
+
+        ScriptQuery abandoned = query(null, null);
+        abandoned.setTab("abandoned");
+        assertEquals(2, index.search(abandoned).getTotal());
+    }
+
+    @Test
+    void initialLoadDoesNotDropWritesDuringScan() {
+        ScriptQueryIndex fresh = new ScriptQueryIndex();
+        ReflectionTestUtils.setField(fresh, "enabled", true);
+        ReflectionTestUtils.setField(fresh, "scriptMapper", mapper);
+        ReflectionTestUtils.setField(fresh, "listCache", listCache);
+        ReflectionTestUtils.setField(fresh, "versionStamp", versionStamp);
+
+        // 每次扫描读完剧本1后剧本1被改为已废弃并提交,扫描结果仍是旧值
+        Answer<Void> scan = scanTable();
+        int[] scans = {0};
+        doAnswer(invocation -> {
+            scans[0]++;
+            scan.answer(invocation);
+            table.get(1L).setStatus(scans[0] % 2 == 0 ? "终稿" : "已废弃");
+            fresh.refresh(Arrays.asList(1L));
+            return null;
+        }).when(mapper).scanIndexRows(any());
+        fresh.rebuild();
+
+        assertEquals(3, scans[0]);
+        assertNull(fresh.search(query(null, null)));
+
+        // 扫描期间没有写入时才加载,结果包含此前的所有写入
+        doAnswer(scanTable()).when(mapper).scanIndexRows(any());
+        fresh.rebuild();
+        ScriptQuery abandoned = query(null, null);
+        abandoned.setTab("abandoned");
+        assertEquals(Arrays.asList(2L, 1L), fresh.search(abandoned).getIds());
+    }
+
+    private Answer<Void> scanTable() {
+        return invocation -> {
+            ResultHandler<ScriptIndexRow> handler = invocation.getArgument(0);
+            DefaultResultContext<ScriptIndexRow> context = new DefaultResultContext<ScriptIndexRow>();
+            for (ScriptIndexRow row : table.values()) {
+                context.nextResultObject(copy(row));
+                handler.handleResult(context);
+            }
+            return null;
+        };
+    }
+
+    private static ScriptQuery query(String sortBy, String sortOrder) {
+        ScriptQuery query = new ScriptQuery();
+        query.setSortBy(sortBy);
+        if (sortOrder != null) {
+            query.setSortOrder(sortOrder);
+        }
+        return query;
+    }
+
+    private static ScriptIndexRow row(Long id, String status, String assignStatus, String submitDate,
+                                      String scoreSum, int ratingCount) {
+        ScriptIndexRow row = new ScriptIndexRow();
+        row.setId(id);
+        row.setStatus(status);
+        row.setAssignStatus(assignStatus);
+        row.setIsProject(0);
+        row.setSubmitDate(LocalDate.parse(submitDate));
+        row.setScoreSum(new BigDecimal(scoreSum));
+        row.setRatingCount(ratingCount);
+        row.setAvgScore(ratingCount == 0 ? BigDecimal.ZERO
+                : new BigDecimal(scoreSum).divide(BigDecimal.valueOf(ratingCount), 2, RoundingMode.HALF_UP));
+        row.setCreatedAt(LocalDateTime.of(2026, 10, 1, 0, 0).plusHours(id));
+        row.setVersion(0);
+        return row;
+    }
+
+    private static ScriptIndexRow copy(ScriptIndexRow source) {
+        ScriptIndexRow row = new ScriptIndexRow();
+        row.setId(source.getId());
+        row.setStatus(source.getStatus());
+        row.setAssignStatus(source.getAssignStatus());
+        row.setIsProject(source.getIsProject());
+        row.setSubmitDate(source.getSubmitDate());
+        row.setScoreSum(source.getScoreSum());
+        row.setRatingCount(source.getRatingCount());
+        row.setAvgScore(source.getAvgScore());
+        row.setCreatedAt(source.getCreatedAt());
+        row.setVersion(source.getVersion());
+        return row;
+    }
+}
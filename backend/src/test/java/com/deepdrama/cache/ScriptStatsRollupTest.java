@@ -0,0 +1,184 @@
+package com.deepdrama.cache;
+
+import com.deepdrama.dto.ScriptStatsRow;
+import com.deepdrama.entity.Script;
+import com.deepdrama.mapper.ScriptMapper;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * 统计日汇总测试
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+class ScriptStatsRollupTest {
+
+    private ScriptMapper mapper;
+    private ScriptStatsRollup rollup;
+
+    @BeforeEach
+    void setUp() {
+        mapper = Mockito.mock(ScriptMapper.class);
+        doAnswer(scan(row(1L, "终稿", "2026-10-01", "90.00", 1), row(2L, "改稿中", "2026-10-02", "0", 0)))
+                .when(mapper).scanStatsRows(any());
+        rollup = new ScriptStatsRollup();
+        ReflectionTestUtils.setField(rollup, "scriptMapper", mapper);
+        ReflectionTestUtils.setField(rollup, "versionStamp", new ScriptVersionStamp());
+    }
+
+    @Test
+    void distributionFollowsDateRange() {
+        assertEquals(2, total(rollup.distribution(ScriptStatsRollup.STATUS, null, null)));
+        assertEquals(1, total(rollup.distribution(ScriptStatsRollup.STATUS, "2026-10-02", null)));
+        assertEquals(0, total(rollup.distribution(ScriptStatsRollup.STATUS, "2026-10-03", "2026-10-01")));
+    }
+
+    @Test
+    void deltasKeepDistributionCurrent() {
+        rollup.rebuild();
+        rollup.onScriptSaved(script(3L, "终稿", "2026-10-02"));
+        rollup.onScriptDeleted(1L);
+
+        List<Map<String, Object>> statuses = rollup.distribution(ScriptStatsRollup.STATUS, null, null);
+        assertEquals(2, total(statuses));
+        assertEquals(1L, count(statuses, "终稿"));
+    }
+
+    @Test
+    void batchPatchMovesEveryScript() {
+        Script patch = new Script();
+        patch.setStatus("已废弃");
+        rollup.rebuild();
+        rollup.onScriptsPatched(Arrays.asList(1L, 2L, 99L), patch, Collections.singleton("status"));
+
+        List<Map<String, Object>> statuses = rollup.distribution(ScriptStatsRollup.STATUS, null, null);
+        assertEquals(1, statuses.size());
+        assertEquals(2L, count(statuses, "已废弃"));
+    }
+
+    @Test
+    void rebuildDoesNotDropWritesDuringScan() {
+        rollup.rebuild();
+
+        // 每次扫描期间都新增一个剧本,扫描结果不含该剧本
+        long[] nextId = {10L};
+        Answer<Void> racing = scan(row(1L, "终稿", "2026-10-01", "90.00", 1), row(2L, "改稿中", "2026-10-02", "0", 0));
+        doAnswer(invocation -> {
+            rollup.onScriptSaved(script(nextId[0]++, "终稿", "2026-10-03"));
+            return racing.answer(invocation);
+        }).when(mapper).scanStatsRows(any());
+        rollup.rebuild();
+
+        assertEquals(2 + (nextId[0] - 10), total(rollup.distribution(ScriptStatsRollup.STATUS, null, null)));
+    }
+
+    @Test
+    void quietRebuildReplacesDrift() {
+        rollup.rebuild();
+        rollup.onScriptSaved(script(3L, "终稿", "2026-10-02"));
+        rollup.rebuild();
+        assertEquals(2, total(rollup.distribution(ScriptStatsRollup.STATUS, null, null)));
+    }
+
+    @Test
+    void valuesAreGroupedIgnoringCaseAndTrailingSpaces() {
+        doAnswer(scan(row(1L, "Draft", "2026-10-01", "90.00", 1, "Team A"),
+                row(2L, "draft ", "2026-10-02", "80.00", 1, "team a "),
+                row(3L, "DRAFT", "2026-10-02", "0", 0, "Team B"),
+                row(4L, "Final", "2026-10-03", "0", 0, "  ")))
+                .when(mapper).scanStatsRows(any());
+        rollup.rebuild();
+
+        List<Map<String, Object>> statuses = rollup.distribution(ScriptStatsRollup.STATUS, null, null);
+        assertEquals(2, statuses.size());
+        assertEquals(3L, count(statuses, "Draft"));
+        assertEquals(1L, count(statuses, "Final"));
+
+        // 空白团队与空串同组,不出现在团队分布中
+        List<Map<String, Object>> teams = rollup.distribution(ScriptStatsRollup.CONTENT_TEAM, null, null);
+        assertEquals(2, teams.size());
+        assertEquals("Team A", teams.get(0).get("team"));
+        assertEquals(2L, teams.get(0).get("count"));
+        assertEquals(0, new BigDecimal("85.00").compareTo((BigDecimal) teams.get(0).get("avgScore")));
+
+        // 展示值随剧本删除改为同组中仍存在的取值
+        rollup.onScriptDeleted(1L);
+        teams = rollup.distribution(ScriptStatsRollup.CONTENT_TEAM, null, null);
+        assertEquals(1L, count(teams, "team", "team a "));
+    }
+
+    private static Answer<Void> scan(ScriptStatsRow... rows) {
+        return invocation -> {
+            ResultHandler<ScriptStatsRow> handler = invocation.getArgument(0);
+            DefaultResultContext<ScriptStatsRow> context = new DefaultResultContext<ScriptStatsRow>();
+            for (ScriptStatsRow row : Arrays.asList(rows)) {
+                context.nextResultObject(row);
+                handler.handleResult(context);
+            }
+            return null;
+        };
+    }
+
+    private static ScriptStatsRow row(Long id, String status, String submitDate, String scoreSum, int ratingCount) {
+        ScriptStatsRow row = new ScriptStatsRow();
+        row.setId(id);
+        row.setStatus(status);
+        row.setSubmitDate(LocalDate.parse(submitDate));
+        row.setScoreSum(new BigDecimal(scoreSum));
+        row.setRatingCount(ratingCount);
+        return row;
+    }
+
+    private static ScriptStatsRow row(Long id, String status, String submitDate, String scoreSum, int ratingCount,
+                                      String contentTeam) {
+        ScriptStatsRow row = row(id, status, submitDate, scoreSum, ratingCount);
+        row.setContentTeam(contentTeam);
+        return row;
+    }
+
+    private static Script script(Long id, String status, String submitDate) {
+        Script script = new Script();
+        script.setId(id);
+        script.setStatus(status);
+        script.setSubmitDate(LocalDate.parse(submitDate));
+        return script;
+    }
+
+    private static long total(List<Map<String, Object>> distribution) {
+        long total = 0;
+        for (Map<String, Object> item : distribution) {
+            total += ((Number) item.get("count")).longValue();
+        }
+        return total;
+    }
+
+    private static long count(List<Map<String, Object>> distribution, String status) {
+        return count(distribution, ScriptStatsRollup.STATUS, status);
+    }
+
+    private static long count(List<Map<String, Object>> distribution, String key, String value) {
+        for (Map<String, Object> item : distribution) {
+            if (value.equals(item.get(key))) {
+                return ((Number) item.get("count")).longValue();
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,74 @@
+package com.deepdrama.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 版本戳测试: 事务内的写入从提交前到提交后回调结束都计为进行中
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+class ScriptVersionStampTest {
+
+    private final ScriptVersionStamp stamp = new ScriptVersionStamp();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void changedOutsideTransactionBumpsImmediately() {
+        long generation = stamp.generation();
+        stamp.changed();
+        assertEquals(generation + 1, stamp.generation());
+        assertFalse(stamp.writesInFlight());
+    }
+
+    @Test
+    void committedWriteIsInFlightUntilCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        long generation = stamp.generation();
+        stamp.changed();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertFalse(stamp.writesInFlight());
+
+        synchronizations.forEach(s -> s.beforeCommit(false));
+        assertTrue(stamp.writesInFlight());
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertEquals(generation + 1, stamp.generation());
+        assertTrue(stamp.writesInFlight());
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertFalse(stamp.writesInFlight());
+    }
+
+    @Test
+    void rollbackBeforeCommitIsNeverInFlight() {
+        TransactionSynchronizationManager.initSynchronization();
+        long generation = stamp.generation();
+        stamp.changed();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertFalse(stamp.writesInFlight());
+        assertEquals(generation, stamp.generation());
+    }
+
+    @Test
+    void explicitWriteBracket() {
+        stamp.writeStarted();
+        assertTrue(stamp.writesInFlight());
+        stamp.writeFinished();
+        assertFalse(stamp.writesInFlight());
+    }
+}
@@ -0,0 +1,110 @@
+package com.deepdrama.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 日期解析与格式化测试,含多线程并发压力测试(共享格式化器在高并发下结果仍正确)
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+class DatesTest {
+
+    private static final int THREADS = 64;
+    private static final int ITERATIONS = 10000;
+
+    @Test
+    void parsesPaddedAndUnpaddedDates() {
+        assertEquals(LocalDate.of(2026, 10, 18), Dates.parseDate("submitDate", "2026-10-18"));
+        assertEquals(LocalDate.of(2026, 1, 5), Dates.parseDate("submitDate", "2026-1-5"));
+        assertEquals(LocalDate.of(2024, 2, 29), Dates.parseDate("submitDate", " 2024-02-29 "));
+        assertNull(Dates.parseDate("submitDate", null));
+        assertNull(Dates.parseDate("submitDate", "  "));
+    }
+
+    @Test
+    void rejectsImpossibleAndMalformedDates() {
+        for (String value : new String[]{"2026-02-30", "2025-02-29", "2026-13-01", "2026-00-10", "2026-1-32",
+                "2026/10/18", "20261018", "2026-10-1x", "abc"}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> Dates.parseDate("submitDate", value));
+            assertTrue(e.getMessage().startsWith("submitDate格式应为yyyy-MM-dd"), e.getMessage());
+        }
+    }
+
+    @Test
+    void formatsDatesAndTimes() {
+        assertEquals("2026-01-05", Dates.format(LocalDate.of(2026, 1, 5)));
+        assertEquals("2026-10-18 09:05:07", Dates.format(LocalDateTime.of(2026, 10, 18, 9, 5, 7)));
+        assertNull(Dates.format((LocalDate) null));
+        assertNull(Dates.format((LocalDateTime) null));
+    }
+
+    @Test
+    void parseAndFormatStayCorrectUnderConcurrency() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<Future<Integer>>(THREADS);
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(worker(start)));
+            }
+            // 所有线程就绪后同时开始,尽量让解析在同一时刻交错执行
+            start.countDown();
+            int checked = 0;
+            for (Future<Integer> future : futures) {
+                checked += future.get(60, TimeUnit.SECONDS);
+            }
+            assertEquals(THREADS * ITERATIONS, checked);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 随机生成日期,交替走快速路径(yyyy-MM-dd)与格式化器路径(一位数月日),
+     * 逐个与期望值比对;每隔若干次混入不存在的日期,必须被拒绝
+     */
+    private static Callable<Integer> worker(CountDownLatch start) {
+        return () -> {
+            start.await();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int checked = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                if (i % 97 == 0) {
+                    assertThrows(IllegalArgumentException.class, () -> Dates.parseDate("submitDate", "2026-02-30"));
+                    checked++;
+                    continue;
+                }
+                LocalDate expected = LocalDate.ofEpochDay(random.nextLong(-3650, 36500));
+                String text = random.nextBoolean() ? Dates.format(expected)
+                        : expected.getYear() + "-" + expected.getMonthValue() + "-" + expected.getDayOfMonth();
+                LocalDate parsed = Dates.parseDate("submitDate", text);
+                assertEquals(expected, parsed, text);
+                assertEquals(Dates.format(expected), Dates.format(parsed));
+
+                LocalDateTime dateTime = expected.atTime(random.nextInt(24), random.nextInt(60), random.nextInt(60));
+                assertEquals(dateTime, LocalDateTime.parse(Dates.format(dateTime), Dates.DATE_TIME));
+                checked++;
+            }
+            return checked;
+        };
+    }
+}
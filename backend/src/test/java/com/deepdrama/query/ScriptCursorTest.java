@@ -0,0 +1,114 @@
+package com.deepdrama.query;
+
+import com.deepdrama.entity.Script;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 剧本列表游标编解码测试
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+class ScriptCursorTest {
+
+    private static Script lastRow() {
+        Script script = new Script();
+        script.setId(1234L);
+        script.setAvgScore(new BigDecimal("87.50"));
+        script.setSubmitDate(LocalDate.of(2026, 3, 9));
+        script.setRatingCount(7);
+        script.setName("雪夜归人");
+        script.setCreatedAt(LocalDateTime.of(2026, 3, 9, 18, 30, 5));
+        return script;
+    }
+
+    private static ScriptQuery query(String sortBy, String sortOrder) {
+        ScriptQuery query = new ScriptQuery();
+        query.setSortBy(sortBy);
+        query.setSortOrder(sortOrder);
+        return query;
+    }
+
+    /**
+     * 用本页最后一行生成游标,再按同样的排序解析,返回写回的排序键
+     */
+    private static ScriptQuery roundTrip(String sortBy, String sortOrder, Script last) {
+        String cursor = ScriptCursor.encode(query(sortBy, sortOrder), last);
+        ScriptQuery next = query(sortBy, sortOrder);
+        next.setCursor(cursor);
+        ScriptCursor.apply(next);
+        assertEquals(last.getId(), next.getCursorId());
+        return next;
+    }
+
+    @Test
+    void roundTripsEverySortKey() {
+        Script last = lastRow();
+        assertEquals(new BigDecimal("87.50"), roundTrip("avgScore", "desc", last).getCursorValue());
+        assertEquals(LocalDate.of(2026, 3, 9), roundTrip("submitDate", "asc", last).getCursorValue());
+        assertEquals(7, roundTrip("ratingCount", "desc", last).getCursorValue());
+        assertEquals("雪夜归人", roundTrip("name", "asc", last).getCursorValue());
+        assertEquals(LocalDateTime.of(2026, 3, 9, 18, 30, 5), roundTrip(null, null, last).getCursorValue());
+    }
+
+    @Test
+    void nullSortKeyIsKept() {
+        Script last = lastRow();
+        last.setSubmitDate(null);
+        assertNull(roundTrip("submitDate", "desc", last).getCursorValue());
+    }
+
+    @Test
+    void emptyCursorIsIgnored() {
+        ScriptQuery query = query("avgScore", "desc");
+        query.setCursor("");
+        ScriptCursor.apply(query);
+        assertNull(query.getCursorId());
+    }
+
+    @Test
+    void rejectsCursorFromAnotherSort() {
+        String cursor = ScriptCursor.encode(query("avgScore", "desc"), lastRow());
+
+        ScriptQuery otherDirection = query("avgScore", "asc");
+        otherDirection.setCursor(cursor);
+        assertThrows(IllegalArgumentException.class, () -> ScriptCursor.apply(otherDirection));
+
+        ScriptQuery otherColumn = query("ratingCount", "desc");
+        otherColumn.setCursor(cursor);
+        assertThrows(IllegalArgumentException.class, () -> ScriptCursor.apply(otherColumn));
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        for (String cursor : new String[]{"not base64!", "e30", "bm90IGpzb24"}) {
+            ScriptQuery query = query("avgScore", "desc");
+            query.setCursor(cursor);
+            assertThrows(IllegalArgumentException.class, () -> ScriptCursor.apply(query), cursor);
+        }
+    }
+
+    @Test
+    void rejectsUnparseableDate() {
+        String cursor = CursorCodec.encode("submit_date", "desc", "2026-02-30", 1L);
+        ScriptQuery query = query("submitDate", "desc");
+        query.setCursor(cursor);
+        assertThrows(IllegalArgumentException.class, () -> ScriptCursor.apply(query));
+    }
+
+    @Test
+    void rejectsCursorWithRelevanceSort() {
+        ScriptQuery query = new ScriptQuery();
+        query.setKeyword("归人");
+        query.setCursor(ScriptCursor.encode(query("avgScore", "desc"), lastRow()));
+        assertThrows(IllegalArgumentException.class, () -> ScriptCursor.apply(query));
+    }
+}
@@ -0,0 +1,157 @@
+package com.deepdrama.service.impl;
+
+import com.deepdrama.entity.Rating;
+import com.deepdrama.mapper.RatingMapper;
+import com.deepdrama.service.RatingAggregateService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 评分微批写入器测试(不启动写线程,直接检查入队与批量写入行为)
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+class RatingBatchWriterTest {
+
+    private static final long BAD_SCRIPT = -1L;
+
+    private RatingBatchWriter writer;
+    private BlockingQueue<?> queue;
+    private RatingMapper ratingMapper;
+    // 当前事务中插入的行,事务回滚时丢弃
+    private final List<Rating> staged = new ArrayList<Rating>();
+    private final List<Rating> committed = new ArrayList<Rating>();
+
+    @BeforeEach
+    void setUp() {
+        writer = new RatingBatchWriter();
+        queue = new LinkedBlockingQueue<Object>();
+        ReflectionTestUtils.setField(writer, "queueCapacity", 3);
+        ReflectionTestUtils.setField(writer, "queue", queue);
+        ReflectionTestUtils.setField(writer, "running", true);
+
+        ratingMapper = mock(RatingMapper.class);
+        doAnswer(invocation -> {
+            List<Rating> rows = invocation.getArgument(0);
+            for (Rating rating : rows) {
+                if (rating.getScriptId() == BAD_SCRIPT) {
+                    throw new IllegalStateException("剧本不存在");
+                }
+            }
+            staged.addAll(rows);
+            return rows.size();
+        }).when(ratingMapper).insertBatch(anyList());
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            staged.clear();
+            Object result = invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+            committed.addAll(staged);
+            return result;
+        });
+        ReflectionTestUtils.setField(writer, "ratingMapper", ratingMapper);
+        ReflectionTestUtils.setField(writer, "ratingAggregateService", mock(RatingAggregateService.class));
+        ReflectionTestUtils.setField(writer, "transactionTemplate", transactionTemplate);
+    }
+
+    @Test
+    void groupIsRejectedWithoutEnqueuingAnyRow() {
+        writer.submit(new Rating());
+        writer.submit(new Rating());
+
+        assertThrows(IllegalStateException.class,
+                () -> writer.submitAll(Arrays.asList(new Rating(), new Rating())));
+        assertEquals(2, queue.size());
+        assertEquals(2, ReflectionTestUtils.getField(writer, "queuedRows"));
+    }
+
+    @Test
+    void groupThatFitsIsEnqueuedWhole() {
+        writer.submit(new Rating());
+        assertEquals(2, writer.submitAll(Arrays.asList(new Rating(), new Rating())).size());
+        assertEquals(2, queue.size());
+        assertEquals(3, ReflectionTestUtils.getField(writer, "queuedRows"));
+    }
+
+    @Test
+    void groupLargerThanQueueIsInvalid() {
+        assertThrows(IllegalArgumentException.class,
+                () -> writer.submitAll(Arrays.asList(new Rating(), new Rating(), new Rating(), new Rating())));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void batchIsWrittenInOneTransaction() {
+        RatingBatchWriter.Group first = new RatingBatchWriter.Group(Arrays.asList(rating(1L), rating(2L)));
+        RatingBatchWriter.Group second = new RatingBatchWriter.Group(Collections.singletonList(rating(1L)));
+
+        writer.flush(Arrays.asList(first, second));
+
+        verify(ratingMapper, times(1)).insertBatch(anyList());
+        assertEquals(3, committed.size());
+        assertCompleted(first);
+        assertCompleted(second);
+    }
+
+    @Test
+    void failedBatchFallsBackPerGroupAndFailsTheBadGroupWhole() {
+        Rating goodInBadGroup = rating(1L);
+        RatingBatchWriter.Group bad = new RatingBatchWriter.Group(Arrays.asList(goodInBadGroup, rating(BAD_SCRIPT)));
+        Rating other = rating(2L);
+        RatingBatchWriter.Group good = new RatingBatchWriter.Group(Collections.singletonList(other));
+
+        writer.flush(Arrays.asList(bad, good));
+
+        // 整批一次,然后每组一次
+        verify(ratingMapper, times(3)).insertBatch(anyList());
+        assertEquals(Collections.singletonList(other), committed);
+        assertCompleted(good);
+        for (CompletableFuture<Rating> future : futures(bad)) {
+            assertTrue(future.isCompletedExceptionally());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertCompleted(RatingBatchWriter.Group group) {
+        List<Rating> ratings = (List<Rating>) ReflectionTestUtils.getField(group, "ratings");
+        List<CompletableFuture<Rating>> futures = futures(group);
+        for (int i = 0; i < ratings.size(); i++) {
+            assertTrue(futures.get(i).isDone() && !futures.get(i).isCompletedExceptionally());
+            assertSame(ratings.get(i), futures.get(i).join());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<CompletableFuture<Rating>> futures(RatingBatchWriter.Group group) {
+        return (List<CompletableFuture<Rating>>) ReflectionTestUtils.getField(group, "futures");
+    }
+
+    private static Rating rating(Long scriptId) {
+        Rating rating = new Rating();
+        rating.setScriptId(scriptId);
+        return rating;
+    }
+}
@@ -0,0 +1,200 @@
+package com.deepdrama.service.impl;
+
+import com.deepdrama.cache.ScriptCountCache;
+import com.deepdrama.cache.ScriptDetailCache;
+import com.deepdrama.cache.ScriptListCache;
+import com.deepdrama.cache.ScriptOptionsIndex;
+import com.deepdrama.cache.ScriptQueryIndex;
+import com.deepdrama.cache.ScriptStatsRollup;
+import com.deepdrama.cache.ScriptVersionStamp;
+import com.deepdrama.common.ScriptBinder;
+import com.deepdrama.dto.TransitionRequest;
+import com.deepdrama.entity.Script;
+import com.deepdrama.mapper.ScriptMapper;
+import com.deepdrama.service.TabCounterService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 剧本服务测试: 全量更新按锁定后的旧值维护计数和筛选选项,批量流转中途失败时已提交的块仍刷新缓存和统计
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+class ScriptServiceImplTest {
+
+    private ScriptMapper mapper;
+    private ScriptDetailCache detailCache;
+    private ScriptQueryIndex queryIndex;
+    private ScriptListCache listCache;
+    private TabCounterService tabCounters;
+    private ScriptVersionStamp versionStamp;
+    private ScriptServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        mapper = Mockito.mock(ScriptMapper.class);
+        detailCache = Mockito.mock(ScriptDetailCache.class);
+        queryIndex = Mockito.mock(ScriptQueryIndex.class);
+        listCache = Mockito.mock(ScriptListCache.class);
+        tabCounters = Mockito.mock(TabCounterService.class);
+        versionStamp = new ScriptVersionStamp();
+        TransactionTemplate transactionTemplate = Mockito.mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        service = new ScriptServiceImpl();
+        ReflectionTestUtils.setField(service, "scriptMapper", mapper);
+        ReflectionTestUtils.setField(service, "countCache", Mockito.mock(ScriptCountCache.class));
+        ReflectionTestUtils.setField(service, "detailCache", detailCache);
+        ReflectionTestUtils.setField(service, "statsRollup", Mockito.mock(ScriptStatsRollup.class));
+        ReflectionTestUtils.setField(service, "optionsIndex", Mockito.mock(ScriptOptionsIndex.class));
+        ReflectionTestUtils.setField(service, "queryIndex", queryIndex);
+        ReflectionTestUtils.setField(service, "listCache", listCache);
+        ReflectionTestUtils.setField(service, "tabCounters", tabCounters);
+        ReflectionTestUtils.setField(service, "versionStamp", versionStamp);
+        ReflectionTestUtils.setField(service, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(service, "transitionChunkSize", 2);
+    }
+
+    @Test
+    void updateUsesLockedBeforeImage() {
+        Script locked = row(1L, "已废弃");
+        Script current = row(1L, "已废弃");
+        current.setName("旧名称");
+        when(mapper.selectFilterFieldsForUpdate(1L)).thenReturn(locked);
+        when(mapper.selectById(1L)).thenReturn(current);
+
+        Script updated = service.updateScript(1L, ScriptBinder.parse("{\"status\":\"终稿\"}"));
+
+        InOrder order = Mockito.inOrder(mapper);
+        order.verify(mapper).selectFilterFieldsForUpdate(1L);
+        order.verify(mapper).selectById(1L);
+        order.verify(mapper).update(updated);
+        verify(tabCounters).scriptChanged(locked, updated);
+        verify(listCache).invalidate(locked, updated);
+        assertEquals("终稿", updated.getStatus());
+    }
+
+    @Test
+    void updateMovesOptionReferenceFromLockedValue() {
+        ScriptOptionsIndex optionsIndex = new ScriptOptionsIndex();
+        ReflectionTestUtils.setField(optionsIndex, "scriptMapper", mapper);
+        ReflectionTestUtils.setField(optionsIndex, "versionStamp", versionStamp);
+        ReflectionTestUtils.setField(service, "optionsIndex", optionsIndex);
+        when(mapper.getContentTeamOptionCounts()).thenReturn(Collections.singletonList(optionRow("Team A", 1)));
+        when(mapper.getWriterOptionCounts()).thenReturn(Collections.<Map<String, Object>>emptyList());
+        when(mapper.getProducerOptionCounts()).thenReturn(Collections.<Map<String, Object>>emptyList());
+        assertEquals(Collections.singletonList("Team A"), optionsIndex.snapshot().getOptions().get("contentTeams"));
+
+        Script locked = row(1L, "终稿");
+        locked.setContentTeam("team a ");
+        Script current = row(1L, "终稿");
+        current.setContentTeam("team a ");
+        when(mapper.selectFilterFieldsForUpdate(1L)).thenReturn(locked);
+        when(mapper.selectById(1L)).thenReturn(current);
+        service.updateScript(1L, ScriptBinder.parse("{\"contentTeam\":\"Team B\"}"));
+
+        // 最后一个引用移走后旧选项消失,新选项出现
+        assertEquals(Collections.singletonList("Team B"), optionsIndex.snapshot().getOptions().get("contentTeams"));
+    }
+
+    @Test
+    void updateOfMissingScriptWritesNothing() {
+        assertNull(service.updateScript(1L, ScriptBinder.parse("{\"status\":\"终稿\"}")));
+        verify(mapper, times(0)).update(any());
+    }
+
+    @Test
+    void committedChunksAreAppliedWhenALaterChunkFails() {
+        when(mapper.selectTransitionCandidates(anyList(), eq("status"), anyString(), any()))
+                .thenReturn(Arrays.asList(row(1L, "终稿"), row(2L, "改稿中")))
+                .thenThrow(new IllegalStateException("第二块失败"));
+        long generation = versionStamp.generation();
+
+        TransitionRequest request = new TransitionRequest();
+        request.setIds(Arrays.asList(1L, 2L, 3L, 4L));
+        request.setField(TransitionRequest.FIELD_STATUS);
+        request.setTarget("已废弃");
+        assertThrows(IllegalStateException.class, () -> service.transitionScripts(request));
+
+        Collection<Long> committed = new HashSet<Long>(Arrays.asList(1L, 2L));
+        verify(mapper).updateTransition(Arrays.asList(1L, 2L), "status", "已废弃");
+        ArgumentCaptor<Collection<Long>> evicted = idsCaptor();
+        verify(detailCache).invalidateAll(evicted.capture());
+        assertEquals(committed, new HashSet<Long>(evicted.getValue()));
+        ArgumentCaptor<Collection<Long>> refreshed = idsCaptor();
+        verify(queryIndex).refresh(refreshed.capture());
+        assertEquals(committed, new HashSet<Long>(refreshed.getValue()));
+        // 列表缓存按流转的字段失效,不整体清空
+        ArgumentCaptor<Collection<Long>> patched = idsCaptor();
+        verify(listCache).invalidatePatched(patched.capture(), eq(Collections.singleton("status")));
+        assertEquals(committed, new HashSet<Long>(patched.getValue()));
+        verify(listCache, never()).invalidateAll();
+        verify(tabCounters, times(2)).scriptChanged(any(Script.class), any(Script.class));
+        assertEquals(generation + 1, versionStamp.generation());
+        assertFalse(versionStamp.writesInFlight());
+    }
+
+    @Test
+    void failedFirstChunkTouchesNothing() {
+        when(mapper.selectTransitionCandidates(anyList(), eq("status"), anyString(), any()))
+                .thenThrow(new IllegalStateException("第一块失败"));
+        long generation = versionStamp.generation();
+
+        TransitionRequest request = new TransitionRequest();
+        request.setIds(Collections.singletonList(1L));
+        request.setField(TransitionRequest.FIELD_STATUS);
+        request.setTarget("已废弃");
+        assertThrows(IllegalStateException.class, () -> service.transitionScripts(request));
+
+        verify(queryIndex, times(0)).refresh(any());
+        assertEquals(generation, versionStamp.generation());
+        assertFalse(versionStamp.writesInFlight());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<Collection<Long>> idsCaptor() {
+        return ArgumentCaptor.forClass((Class<Collection<Long>>) (Class<?>) Collection.class);
+    }
+
+    private static Map<String, Object> optionRow(String value, int count) {
+        Map<String, Object> row = new HashMap<String, Object>();
+        row.put("option_value", value);
+        row.put("ref_count", count);
+        return row;
+    }
+
+    private static Script row(Long id, String status) {
+        Script script = new Script();
+        script.setId(id);
+        script.setStatus(status);
+        return script;
+    }
+}
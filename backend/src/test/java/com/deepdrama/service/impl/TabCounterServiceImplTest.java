@@ -0,0 +1,97 @@
+package com.deepdrama.service.impl;
+
+import com.deepdrama.cache.ScriptVersionStamp;
+import com.deepdrama.mapper.ScriptMapper;
+import com.deepdrama.query.ScriptQuery;
+import com.deepdrama.service.TabCounterService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * 选项卡计数测试: 增量调整及对账(有写入时不覆盖增量,持续写入时仍能修正稳定的偏差)
+ *
+ * @author DeepDrama Team
+ * @date 2026-10-18
+ */
+class TabCounterServiceImplTest {
+
+    private ScriptMapper mapper;
+    private TabCounterServiceImpl counters;
+
+    // 数据库中各选项卡的行数
+    private Map<String, Long> table;
+
+    @BeforeEach
+    void setUp() {
+        table = new HashMap<String, Long>();
+        table.put(TabCounterService.TAB_PENDING, 5L);
+        table.put(TabCounterService.TAB_CLAIMED, 3L);
+        table.put(TabCounterService.TAB_PROJECT, 2L);
+        table.put(TabCounterService.TAB_ABANDONED, 1L);
+        mapper = Mockito.mock(ScriptMapper.class);
+        when(mapper.selectCount(any())).thenAnswer(
+                invocation -> table.get(invocation.<ScriptQuery>getArgument(0).getTab()));
+        counters = new TabCounterServiceImpl();
+        ReflectionTestUtils.setField(counters, "scriptMapper", mapper);
+        ReflectionTestUtils.setField(counters, "versionStamp", new ScriptVersionStamp());
+    }
+
+    @Test
+    void adjustMovesOneTab() {
+        assertEquals(5L, counters.getCounts().get(TabCounterService.TAB_PENDING));
+        counters.adjust(TabCounterService.TAB_PENDING, -1);
+        counters.adjust(TabCounterService.TAB_CLAIMED, 1);
+        assertEquals(4L, counters.getCounts().get(TabCounterService.TAB_PENDING));
+        assertEquals(4L, counters.getCounts().get(TabCounterService.TAB_CLAIMED));
+    }
+
+    @Test
+    void quietReconcileFixesDrift() {
+        counters.getCounts();
+        table.put(TabCounterService.TAB_ABANDONED, 4L);
+        assertEquals(1, counters.reconcile());
+        assertEquals(4L, counters.getCounts().get(TabCounterService.TAB_ABANDONED));
+    }
+
+    @Test
+    void writeDuringCountIsNotCountedTwice() {
+        counters.getCounts();
+        // COUNT已包含新提交的行,增量在COUNT之后才到达
+        doAnswer(invocation -> {
+            String tab = invocation.<ScriptQuery>getArgument(0).getTab();
+            if (TabCounterService.TAB_CLAIMED.equals(tab)) {
+                table.put(tab, table.get(tab) + 1);
+                counters.adjust(tab, 1);
+            }
+            return table.get(tab);
+        }).when(mapper).selectCount(any());
+        counters.reconcile();
+        assertEquals(table.get(TabCounterService.TAB_CLAIMED), counters.getCounts().get(TabCounterService.TAB_CLAIMED));
+    }
+
+    @Test
+    void steadyWritesDoNotStarveReconcile() {
+        counters.getCounts();
+        // 直接改库产生的偏差,同时每次COUNT期间都有一次净变化为0的写入
+        table.put(TabCounterService.TAB_PROJECT, 7L);
+        doAnswer(invocation -> {
+            String tab = invocation.<ScriptQuery>getArgument(0).getTab();
+            counters.adjust(tab, 1);
+            counters.adjust(tab, -1);
+            return table.get(tab);
+        }).when(mapper).selectCount(any());
+        assertEquals(0, counters.reconcile());
+        assertEquals(1, counters.reconcile());
+        assertEquals(7L, counters.getCounts().get(TabCounterService.TAB_PROJECT));
+    }
+}
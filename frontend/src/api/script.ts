@@ -114,3 +114,10 @@ export const getRankings = (limit: number = 50) => {
 export const getOptions = () => {
   return request.get<ApiResult<Record<string, string[]>>>('/scripts/options')
 }
+
+/**
+ * 获取选项卡角标计数
+ */
+export const getTabCounts = () => {
+  return request.get<ApiResult<Record<string, number>>>('/scripts/tab-counts')
+}